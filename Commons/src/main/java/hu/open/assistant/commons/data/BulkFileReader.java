@@ -0,0 +1,236 @@
+package hu.open.assistant.commons.data;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * The NIO based read layer behind the FileHandler. A file is read in one go through a file channel into a byte buffer
+ * and decoded at once into a char buffer, the lines are only cut out after the number of lines is known. The buffers and
+ * the charset decoders are kept per thread and reused between files (buffers up to a size limit), so the read methods
+ * can be called from several worker threads at the same time. Directories are listed with a directory stream and the
+ * attributes of the entries are read in one call per entry (on Windows they come with the listing itself).
+ */
+final class BulkFileReader {
+
+	private static final int INITIAL_BUFFER_SIZE = 8192;
+	private static final int MAX_POOLED_BUFFER_SIZE = 256 * 1024;
+
+	private final ThreadLocal<ByteBuffer> byteBuffer = ThreadLocal.withInitial(() -> ByteBuffer.allocate(INITIAL_BUFFER_SIZE));
+	private final ThreadLocal<CharBuffer> charBuffer = ThreadLocal.withInitial(() -> CharBuffer.allocate(INITIAL_BUFFER_SIZE));
+	private final ThreadLocal<Map<Charset, CharsetDecoder>> decoders = ThreadLocal.withInitial(HashMap::new);
+
+	/**
+	 * Read and decode the whole file. The returned buffer is reused by the next read of the same thread, so it has to be
+	 * processed before that.
+	 *
+	 * @param path    target file
+	 * @param charset charset of the file
+	 * @return the decoded content ready to read from position zero
+	 * @throws IOException if the file doesn't exist or can't be read
+	 */
+	CharBuffer readText(Path path, Charset charset) throws IOException {
+		ByteBuffer bytes = readBytes(path);
+		CharsetDecoder decoder = decoders.get().computeIfAbsent(charset, BulkFileReader::createDecoder);
+		decoder.reset();
+		CharBuffer chars = acquireCharBuffer((int) Math.ceil(bytes.remaining() * (double) decoder.maxCharsPerByte()) + 1);
+		CoderResult result = decoder.decode(bytes, chars, true);
+		if (result.isOverflow()) {
+			throw new IOException("Decode buffer overflow: " + path);
+		}
+		decoder.flush(chars);
+		chars.flip();
+		return chars;
+	}
+
+	/**
+	 * Read the whole file and split it into lines. Lines end with LF, CR or CRLF like in a BufferedReader.
+	 *
+	 * @param path    target file
+	 * @param charset charset of the file
+	 * @return the lines of the file
+	 * @throws IOException if the file doesn't exist or can't be read
+	 */
+	List<String> readLines(Path path, Charset charset) throws IOException {
+		CharBuffer chars = readText(path, charset);
+		char[] content = chars.array();
+		int length = chars.limit();
+		List<String> lines = new ArrayList<>(countLines(content, length));
+		int start = 0;
+		for (int i = 0; i < length; i++) {
+			char character = content[i];
+			if (character == '\n' || character == '\r') {
+				lines.add(new String(content, start, i - start));
+				if (character == '\r' && i + 1 < length && content[i + 1] == '\n') {
+					i++;
+				}
+				start = i + 1;
+			}
+		}
+		if (start < length) {
+			lines.add(new String(content, start, length - start));
+		}
+		return lines;
+	}
+
+	/**
+	 * Read the whole file and join its lines without the line endings.
+	 *
+	 * @param path    target file
+	 * @param charset charset of the file
+	 * @return the joined lines of the file
+	 * @throws IOException if the file doesn't exist or can't be read
+	 */
+	StringBuilder readJoinedLines(Path path, Charset charset) throws IOException {
+		CharBuffer chars = readText(path, charset);
+		char[] content = chars.array();
+		int length = chars.limit();
+		StringBuilder builder = new StringBuilder(length);
+		int start = 0;
+		for (int i = 0; i < length; i++) {
+			char character = content[i];
+			if (character == '\n' || character == '\r') {
+				builder.append(content, start, i - start);
+				start = i + 1;
+			}
+		}
+		builder.append(content, start, length - start);
+		return builder;
+	}
+
+	/**
+	 * List the entries of a directory which match the given filter.
+	 *
+	 * @param path   directory to list
+	 * @param filter filter on the attributes of the entries
+	 * @return names of the matching entries, empty if the directory doesn't exist
+	 */
+	List<String> listDirectory(Path path, Predicate<BasicFileAttributes> filter) {
+		return new ArrayList<>(listDirectoryAttributes(path, filter).keySet());
+	}
+
+	/**
+	 * List the entries of a directory which match the given filter together with their attributes.
+	 *
+	 * @param path   directory to list
+	 * @param filter filter on the attributes of the entries
+	 * @return attributes of the matching entries by name, empty if the directory doesn't exist
+	 */
+	Map<String, BasicFileAttributes> listDirectoryAttributes(Path path, Predicate<BasicFileAttributes> filter) {
+		Map<String, BasicFileAttributes> entryAttributes = new LinkedHashMap<>();
+		try (DirectoryStream<Path> entries = Files.newDirectoryStream(path)) {
+			for (Path entry : entries) {
+				BasicFileAttributes attributes = readAttributes(entry);
+				if (attributes != null && filter.test(attributes)) {
+					entryAttributes.put(entry.getFileName().toString(), attributes);
+				}
+			}
+		} catch (IOException | RuntimeException exception) {
+			return new LinkedHashMap<>();
+		}
+		return entryAttributes;
+	}
+
+	/**
+	 * Read the basic attributes of a file or directory.
+	 *
+	 * @param path file or directory to check
+	 * @return attributes or null if it doesn't exist
+	 */
+	BasicFileAttributes readAttributes(Path path) {
+		try {
+			return Files.readAttributes(path, BasicFileAttributes.class);
+		} catch (IOException exception) {
+			return null;
+		}
+	}
+
+	private ByteBuffer readBytes(Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (size > Integer.MAX_VALUE - 1) {
+				throw new IOException("File too large: " + path);
+			}
+			ByteBuffer bytes = acquireByteBuffer((int) size + 1);
+			while (channel.read(bytes) >= 0) {
+				if (!bytes.hasRemaining()) {
+					bytes = growByteBuffer(bytes);
+				}
+			}
+			bytes.flip();
+			return bytes;
+		}
+	}
+
+	private ByteBuffer acquireByteBuffer(int size) {
+		ByteBuffer bytes = byteBuffer.get();
+		if (bytes.capacity() < size) {
+			bytes = ByteBuffer.allocate(size);
+			if (size <= MAX_POOLED_BUFFER_SIZE) {
+				byteBuffer.set(bytes);
+			}
+		}
+		bytes.clear();
+		return bytes;
+	}
+
+	private ByteBuffer growByteBuffer(ByteBuffer bytes) {
+		ByteBuffer grownBytes = ByteBuffer.allocate(bytes.capacity() * 2);
+		bytes.flip();
+		grownBytes.put(bytes);
+		if (grownBytes.capacity() <= MAX_POOLED_BUFFER_SIZE) {
+			byteBuffer.set(grownBytes);
+		}
+		return grownBytes;
+	}
+
+	private CharBuffer acquireCharBuffer(int size) {
+		CharBuffer chars = charBuffer.get();
+		if (chars.capacity() < size) {
+			chars = CharBuffer.allocate(size);
+			if (size <= MAX_POOLED_BUFFER_SIZE) {
+				charBuffer.set(chars);
+			}
+		}
+		chars.clear();
+		return chars;
+	}
+
+	private static int countLines(char[] content, int length) {
+		int count = 0;
+		int start = 0;
+		for (int i = 0; i < length; i++) {
+			char character = content[i];
+			if (character == '\n' || character == '\r') {
+				count++;
+				if (character == '\r' && i + 1 < length && content[i + 1] == '\n') {
+					i++;
+				}
+				start = i + 1;
+			}
+		}
+		return start < length ? count + 1 : count;
+	}
+
+	private static CharsetDecoder createDecoder(Charset charset) {
+		return charset.newDecoder()
+				.onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+	}
+}
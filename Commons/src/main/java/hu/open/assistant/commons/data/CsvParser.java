@@ -33,32 +33,46 @@ public class CsvParser {
 			fieldCount = checkFieldCount(rawText.get(0));
 		}
 		if (fieldCount > 0) {
-			int pointer;
 			for (String line : rawText) {
-				pointer = 0;
-				String[] fields = new String[fieldCount];
-				char[] characters = line.toCharArray();
-				boolean bufferOpen = false;
-				for (char character : characters) {
-					if (character == '"') {
-						if (!bufferOpen) {
-							stringBuilder.setLength(0);
-							bufferOpen = true;
-						} else {
-							fields[pointer] = stringBuilder.toString();
-							pointer++;
-							bufferOpen = false;
-						}
-					} else if (bufferOpen) {
-						stringBuilder.append(character);
-					}
-				}
-				records.add(fields);
+				records.add(parseLine(line, fieldCount, stringBuilder));
 			}
 		}
 		return records;
 	}
 
+	/**
+	 * Parse a single line of a CSV file.
+	 *
+	 * @param line       raw line
+	 * @param fieldCount number of fields in a line (given by the header)
+	 * @return the cells of the line
+	 */
+	public String[] parseLine(String line, int fieldCount) {
+		return parseLine(line, fieldCount, new StringBuilder());
+	}
+
+	private String[] parseLine(String line, int fieldCount, StringBuilder stringBuilder) {
+		int pointer = 0;
+		String[] fields = new String[fieldCount];
+		char[] characters = line.toCharArray();
+		boolean bufferOpen = false;
+		for (char character : characters) {
+			if (character == '"') {
+				if (!bufferOpen) {
+					stringBuilder.setLength(0);
+					bufferOpen = true;
+				} else {
+					fields[pointer] = stringBuilder.toString();
+					pointer++;
+					bufferOpen = false;
+				}
+			} else if (bufferOpen) {
+				stringBuilder.append(character);
+			}
+		}
+		return fields;
+	}
+
 	private int checkFieldCount(String line) {
 		char[] characters = line.toCharArray();
 		int count = 0;
@@ -82,6 +96,28 @@ public class CsvParser {
 		if (!append || !fileHandler.fileExists(filePath)) {
 			records.add(0, header);
 		}
+		List<String> rawText = recordsToText(records);
+		if (rawText.size() > 0) {
+			fileHandler.writeUtf8Text(filePath, rawText, append);
+		}
+	}
+
+	/**
+	 * Replace a .csv file on disk with the given data. The file is written to a temporary file first and then renamed, so
+	 * the original file is never left partially written.
+	 *
+	 * @param filePath target .csv file
+	 * @param records  list of cells containing data
+	 * @param header   list of cells containing header
+	 * @return the written lines or null if the file could not be replaced
+	 */
+	public List<String> writeCsvFileAtomic(String filePath, List<String[]> records, String[] header) {
+		records.add(0, header);
+		List<String> rawText = recordsToText(records);
+		return fileHandler.writeUtf8TextAtomic(filePath, rawText) ? rawText : null;
+	}
+
+	private List<String> recordsToText(List<String[]> records) {
 		StringBuilder stringBuilder = new StringBuilder();
 		List<String> rawText = new ArrayList<>();
 		for (String[] fields : records) {
@@ -98,8 +134,6 @@ public class CsvParser {
 			}
 			rawText.add(stringBuilder.toString());
 		}
-		if (rawText.size() > 0) {
-			fileHandler.writeUtf8Text(filePath, rawText, append);
-		}
+		return rawText;
 	}
 }
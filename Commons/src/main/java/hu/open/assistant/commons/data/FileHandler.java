@@ -3,24 +3,41 @@ package hu.open.assistant.commons.data;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.File;
+import java.io.EOFException;
 import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
 
 /**
  * A class responsible for disk handling for all Assistant applications. By convention the FileHandler must be instanced
- * only once per application and injected to other objects when needed.
+ * only once per application and injected to other objects when needed. Text files are read in bulk and directories
+ * are listed through the NIO based BulkFileReader, which keeps its buffers and decoders per thread.
  */
 public class FileHandler {
 
 	private final List<String> failedFilenames = new ArrayList<>();
+	private final BulkFileReader bulkFileReader = new BulkFileReader();
 
 	/**
 	 * Create the FileHandler.
@@ -55,20 +72,10 @@ public class FileHandler {
 	private List<String> readTextToList(String filePath, boolean checkInUse, Charset charset) {
 		List<String> fileContent = null;
 		if (!checkInUse || fileNotInUse(filePath)) {
-			fileContent = new ArrayList<>();
-			try (FileInputStream inputStream = new FileInputStream(filePath);
-				 InputStreamReader inputStreamReader = new InputStreamReader(inputStream, charset);
-				 BufferedReader bufferedReader = new BufferedReader(inputStreamReader)) {
-				String line = "";
-				while (line != null) {
-					line = bufferedReader.readLine();
-					if (line != null) {
-						fileContent.add(line);
-					}
-				}
-			} catch (IOException exception) {
+			try {
+				fileContent = bulkFileReader.readLines(Paths.get(filePath), charset);
+			} catch (IOException | InvalidPathException exception) {
 				System.out.println("File read error: " + filePath);
-				fileContent = null;
 			}
 		}
 		return fileContent;
@@ -81,16 +88,55 @@ public class FileHandler {
 	 * @return a StringBuilder containing the raw text or null if the file doesn't exist
 	 */
 	public StringBuilder readUtf8TextToBuilder(String filePath) {
-		StringBuilder fileContent = new StringBuilder();
+		try {
+			return bulkFileReader.readJoinedLines(Paths.get(filePath), StandardCharsets.UTF_8);
+		} catch (IOException | InvalidPathException exception) {
+			System.out.println("File read error: " + filePath);
+			return null;
+		}
+	}
+
+	/**
+	 * Read the content of a GZIP compressed file from disk in UTF-8 format. A file made of several compressed members
+	 * (written one after the other in append mode) is read as one continuous text. When the file is cut short or a member
+	 * is damaged the complete lines read before the damaged part are returned.
+	 *
+	 * @param filePath target file
+	 * @return a list of Strings (lines) as raw text or null if the file doesn't exist (or is not compressed)
+	 */
+	public List<String> readGzipUtf8TextToList(String filePath) {
+		return readGzipUtf8TextToList(filePath, line -> true);
+	}
+
+	/**
+	 * Read the lines of a GZIP compressed file from disk in UTF-8 format which match the given filter. The file is
+	 * streamed, only the matching lines are kept in memory. Damaged files are handled the same way as on a full read.
+	 *
+	 * @param filePath   target file
+	 * @param lineFilter filter deciding which lines to keep
+	 * @return a list of the matching lines or null if the file doesn't exist (or is not compressed)
+	 */
+	public List<String> readGzipUtf8TextToList(String filePath, Predicate<String> lineFilter) {
+		List<String> fileContent = new ArrayList<>();
+		int lineCount = 0;
 		try (FileInputStream inputStream = new FileInputStream(filePath);
-			 InputStreamReader inputStreamReader = new InputStreamReader(inputStream, StandardCharsets.UTF_8);
+			 GZIPInputStream gzipInputStream = new GZIPInputStream(inputStream);
+			 InputStreamReader inputStreamReader = new InputStreamReader(gzipInputStream, StandardCharsets.UTF_8);
 			 BufferedReader bufferedReader = new BufferedReader(inputStreamReader)) {
-			String line = "";
+			String line = bufferedReader.readLine();
 			while (line != null) {
-				line = bufferedReader.readLine();
-				if (line != null) {
-					fileContent.append(line);
+				lineCount++;
+				if (lineFilter.test(line)) {
+					fileContent.add(line);
 				}
+				line = bufferedReader.readLine();
+			}
+		} catch (EOFException exception) {
+			System.out.println("Compressed file truncated: " + filePath);
+		} catch (ZipException exception) {
+			System.out.println("Compressed file damaged: " + filePath);
+			if (lineCount == 0) {
+				fileContent = null;
 			}
 		} catch (IOException exception) {
 			System.out.println("File read error: " + filePath);
@@ -99,14 +145,108 @@ public class FileHandler {
 		return fileContent;
 	}
 
+	/**
+	 * Write raw text content to disk in UTF-8 format compressed with GZIP. In append mode the content is added to the end
+	 * of the file as a new compressed member, the existing members are not touched.
+	 *
+	 * @param filePath    target file
+	 * @param textContent raw text
+	 * @param append      append content to the end of an existing file (do not overwrite whole file)
+	 * @return true if the content was written
+	 */
+	public boolean writeGzipUtf8Text(String filePath, List<String> textContent, boolean append) {
+		try (FileOutputStream outputStream = new FileOutputStream(filePath, append);
+			 GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream);
+			 OutputStreamWriter outputStreamWriter = new OutputStreamWriter(gzipOutputStream, StandardCharsets.UTF_8);
+			 BufferedWriter writer = new BufferedWriter(outputStreamWriter)) {
+			for (String line : textContent) {
+				writer.append(line);
+				writer.newLine();
+			}
+		} catch (IOException exception) {
+			System.out.println("File write error: " + filePath);
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Read the whole file content from disk in a single bulk read.
+	 *
+	 * @param filePath target file
+	 * @return the raw bytes of the file or null if the file doesn't exist
+	 */
+	public byte[] readBytes(String filePath) {
+		try {
+			return Files.readAllBytes(Paths.get(filePath));
+		} catch (IOException exception) {
+			System.out.println("File read error: " + filePath);
+			return null;
+		}
+	}
+
+	/**
+	 * Read the file content from the given position to the end of the file in a single bulk read.
+	 *
+	 * @param filePath target file
+	 * @param position first byte to read
+	 * @return the raw bytes after the position (empty if the file is shorter) or null if the file doesn't exist
+	 */
+	public byte[] readBytes(String filePath, long position) {
+		try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (position >= size) {
+				return new byte[0];
+			}
+			ByteBuffer buffer = ByteBuffer.allocate((int) (size - position));
+			while (buffer.hasRemaining() && channel.read(buffer, position + buffer.position()) > 0) {
+				// read until the end of the file
+			}
+			return Arrays.copyOf(buffer.array(), buffer.position());
+		} catch (IOException exception) {
+			System.out.println("File read error: " + filePath);
+			return null;
+		}
+	}
+
+	/**
+	 * Write raw binary content to disk. An existing file will be overwritten.
+	 *
+	 * @param filePath target file
+	 * @param content  raw bytes
+	 */
+	public void writeBytes(String filePath, byte[] content) {
+		writeBytes(filePath, content, false);
+	}
+
+	/**
+	 * Write raw binary content to disk.
+	 *
+	 * @param filePath target file
+	 * @param content  raw bytes
+	 * @param append   append content to the end of an existing file (do not overwrite whole file)
+	 */
+	public void writeBytes(String filePath, byte[] content, boolean append) {
+		try {
+			if (append) {
+				Files.write(Paths.get(filePath), content, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+			} else {
+				Files.write(Paths.get(filePath), content);
+			}
+		} catch (IOException exception) {
+			System.out.println("File write error: " + filePath);
+		}
+	}
+
 	/**
 	 * Write raw text content to disk in UTF-8 format.
 	 *
 	 * @param filePath    target file
 	 * @param textContent raw text
 	 * @param append      append content to the end of an existing file (do not overwrite whole file)
+	 * @return true if the content was written
 	 */
-	public void writeUtf8Text(String filePath, List<String> textContent, boolean append) {
+	public boolean writeUtf8Text(String filePath, List<String> textContent, boolean append) {
 		try (FileWriter fileWriter = new FileWriter(filePath, StandardCharsets.UTF_8, append);
 			 BufferedWriter writer = new BufferedWriter(fileWriter)) {
 			for (String line : textContent) {
@@ -115,20 +255,85 @@ public class FileHandler {
 			}
 		} catch (IOException exception) {
 			System.out.println("File write error: " + filePath);
+			return false;
 		}
+		return true;
+	}
+
+	/**
+	 * Write raw text content to disk in UTF-8 format without ever leaving a partially written file. The content is
+	 * written to a temporary file first, which replaces the target with an atomic rename.
+	 *
+	 * @param filePath    target file
+	 * @param textContent raw text
+	 * @return true if the target file was replaced
+	 */
+	public boolean writeUtf8TextAtomic(String filePath, List<String> textContent) {
+		FileTransaction transaction = beginTransaction();
+		transaction.writeUtf8Text(filePath, textContent);
+		return transaction.commit();
+	}
+
+	/**
+	 * Start a batch of atomic file writes which replace their targets together on commit.
+	 *
+	 * @return a new transaction
+	 */
+	public FileTransaction beginTransaction() {
+		return new FileTransaction();
 	}
 
 	/**
 	 * Create a directory on disk at the given path.
 	 *
 	 * @param path of the new directory
+	 * @return true if the directory was created
 	 */
-	public void createDirectory(String path) {
+	public boolean createDirectory(String path) {
 		try {
 			Files.createDirectory(Paths.get(path));
 		} catch (IOException exception) {
 			System.out.println("Create directory error: " + path);
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Replace a directory with another directory of the same drive by renaming them. The original directory is moved
+	 * aside first and deleted only after the new directory took its place. When any of the renames fails the original
+	 * directory is left (or put back) in place.
+	 *
+	 * @param targetPath directory to replace
+	 * @param sourcePath directory which takes its place
+	 * @return true if the target directory was replaced
+	 */
+	public boolean replaceDirectory(String targetPath, String sourcePath) {
+		String retiredPath = targetPath + ".old";
+		if (directoryExists(retiredPath)) {
+			deleteWholeDirectory(retiredPath);
+		}
+		boolean targetExists = directoryExists(targetPath);
+		try {
+			if (targetExists) {
+				Files.move(Paths.get(targetPath), Paths.get(retiredPath));
+			}
+			try {
+				Files.move(Paths.get(sourcePath), Paths.get(targetPath));
+			} catch (IOException exception) {
+				if (targetExists) {
+					Files.move(Paths.get(retiredPath), Paths.get(targetPath));
+				}
+				throw exception;
+			}
+		} catch (IOException exception) {
+			System.out.println("Replace directory error: " + targetPath);
+			return false;
+		}
+		if (targetExists) {
+			deleteWholeDirectory(retiredPath);
 		}
+		return true;
 	}
 
 	/**
@@ -151,11 +356,44 @@ public class FileHandler {
 	 * @return true if file exists false otherwise
 	 */
 	public boolean fileExists(String path) {
+		BasicFileAttributes attributes = readAttributes(path);
+		return attributes != null && attributes.isRegularFile();
+	}
+
+	/**
+	 * Get a stamp of a file or directory made of its last modification time and size. The stamp changes whenever the file
+	 * is rewritten or an entry of the directory is created, renamed or deleted.
+	 *
+	 * @param path file or directory to check
+	 * @return stamp of the file or null if it doesn't exist
+	 */
+	public String getFileStamp(String path) {
+		BasicFileAttributes attributes = readAttributes(path);
+		return attributes != null ? createFileStamp(attributes) : null;
+	}
+
+	/**
+	 * Get the stamps of the files on the given path (directories will be omitted) in a single listing. The stamps are
+	 * the same as the ones given by getFileStamp.
+	 *
+	 * @param path to check for files
+	 * @return stamps of the detected files by filename
+	 */
+	public Map<String, String> listFileStamps(String path) {
+		Map<String, String> fileStamps = new LinkedHashMap<>();
 		if (path != null) {
-			File file = new File(path);
-			return file.exists() && file.isFile();
+			try {
+				bulkFileReader.listDirectoryAttributes(Paths.get(path), BasicFileAttributes::isRegularFile)
+						.forEach((filename, attributes) -> fileStamps.put(filename, createFileStamp(attributes)));
+			} catch (InvalidPathException exception) {
+				return fileStamps;
+			}
 		}
-		return false;
+		return fileStamps;
+	}
+
+	private String createFileStamp(BasicFileAttributes attributes) {
+		return attributes.lastModifiedTime().toMillis() + ":" + attributes.size();
 	}
 
 	/**
@@ -165,11 +403,19 @@ public class FileHandler {
 	 * @return true if file exists false otherwise
 	 */
 	public boolean directoryExists(String path) {
+		BasicFileAttributes attributes = readAttributes(path);
+		return attributes != null && attributes.isDirectory();
+	}
+
+	private BasicFileAttributes readAttributes(String path) {
 		if (path != null) {
-			File directory = new File(path);
-			return directory.exists() && directory.isDirectory();
+			try {
+				return bulkFileReader.readAttributes(Paths.get(path));
+			} catch (InvalidPathException exception) {
+				return null;
+			}
 		}
-		return false;
+		return null;
 	}
 
 	/**
@@ -224,8 +470,7 @@ public class FileHandler {
 		List<String> directoryContent = listFilesAndDirectories(path);
 		for (String filename : directoryContent) {
 			String filepath = path + "\\" + filename;
-			File file = new File(filepath);
-			if (file.isDirectory()) {
+			if (directoryExists(filepath)) {
 				deleteDirectory(filepath);
 			} else if (!deleteFile(filepath)) {
 				failedFilenames.add(filename);
@@ -241,15 +486,7 @@ public class FileHandler {
 	 * @return a list containing detected file and directory names
 	 */
 	public List<String> listFilesAndDirectories(String path) {
-		List<String> filesList = new ArrayList<>();
-		File directory = new File(path);
-		File[] files = directory.listFiles();
-		if (files != null) {
-			for (File file : files) {
-				filesList.add(file.getName());
-			}
-		}
-		return filesList;
+		return listDirectory(path, attributes -> true);
 	}
 
 	/**
@@ -259,17 +496,7 @@ public class FileHandler {
 	 * @return a list containing detected filenames
 	 */
 	public List<String> listFiles(String path) {
-		List<String> filesList = new ArrayList<>();
-		File directory = new File(path);
-		File[] files = directory.listFiles();
-		if (files != null) {
-			for (File file : files) {
-				if (file.isFile()) {
-					filesList.add(file.getName());
-				}
-			}
-		}
-		return filesList;
+		return listDirectory(path, BasicFileAttributes::isRegularFile);
 	}
 
 	/**
@@ -279,17 +506,17 @@ public class FileHandler {
 	 * @return a list containing detected directory names.
 	 */
 	public List<String> listDirectories(String path) {
-		List<String> filesList = new ArrayList<>();
-		File directory = new File(path);
-		File[] files = directory.listFiles();
-		if (files != null) {
-			for (File file : files) {
-				if (file.isDirectory()) {
-					String name = file.getName();
-					filesList.add(name);
-				}
+		return listDirectory(path, BasicFileAttributes::isDirectory);
+	}
+
+	private List<String> listDirectory(String path, Predicate<BasicFileAttributes> filter) {
+		if (path != null) {
+			try {
+				return bulkFileReader.listDirectory(Paths.get(path), filter);
+			} catch (InvalidPathException exception) {
+				return new ArrayList<>();
 			}
 		}
-		return filesList;
+		return new ArrayList<>();
 	}
 }
@@ -0,0 +1,144 @@
+package hu.open.assistant.commons.data;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A batch of file writes which are committed together. Every file is written to a sibling temporary file first, so the
+ * target files are untouched until the commit. On commit all temporary files are flushed to the disk and then moved over
+ * their targets one by one with an atomic rename, so a reader never sees a partially written file. If any of the
+ * temporary files failed to be written or flushed, none of the targets is replaced. Obtained from the FileHandler.
+ */
+public class FileTransaction {
+
+	private static final String TEMP_EXTENSION = ".tmp";
+
+	private final Map<Path, Path> tempFiles = new LinkedHashMap<>();
+	private boolean failed;
+
+	FileTransaction() {
+
+	}
+
+	/**
+	 * Write raw text content in UTF-8 format to the temporary file of the target. A target written more than once in the
+	 * same transaction gets the last content. The temporary file is registered before the write, so a partially written
+	 * one is deleted by the rollback.
+	 *
+	 * @param filePath    target file
+	 * @param textContent raw text
+	 */
+	public void writeUtf8Text(String filePath, List<String> textContent) {
+		Path target = Paths.get(filePath);
+		Path temp = Paths.get(filePath + TEMP_EXTENSION);
+		tempFiles.put(target, temp);
+		try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+			for (String line : textContent) {
+				writer.append(line);
+				writer.newLine();
+			}
+		} catch (IOException exception) {
+			System.out.println("File write error: " + filePath);
+			failed = true;
+		}
+	}
+
+	/**
+	 * Write raw text content in UTF-8 format compressed with GZIP to the temporary file of the target.
+	 *
+	 * @param filePath    target file
+	 * @param textContent raw text
+	 */
+	public void writeGzipUtf8Text(String filePath, List<String> textContent) {
+		Path target = Paths.get(filePath);
+		Path temp = Paths.get(filePath + TEMP_EXTENSION);
+		tempFiles.put(target, temp);
+		try (OutputStream outputStream = Files.newOutputStream(temp);
+			 GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream);
+			 OutputStreamWriter outputStreamWriter = new OutputStreamWriter(gzipOutputStream, StandardCharsets.UTF_8);
+			 BufferedWriter writer = new BufferedWriter(outputStreamWriter)) {
+			for (String line : textContent) {
+				writer.append(line);
+				writer.newLine();
+			}
+		} catch (IOException exception) {
+			System.out.println("File write error: " + filePath);
+			failed = true;
+		}
+	}
+
+	/**
+	 * Flush all temporary files to the disk and move them over their targets. When a write or flush has failed the
+	 * transaction is rolled back instead.
+	 *
+	 * @return true if all target files were replaced
+	 */
+	public boolean commit() {
+		if (!failed) {
+			for (Path temp : tempFiles.values()) {
+				try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+					channel.force(true);
+				} catch (IOException exception) {
+					System.out.println("File flush error: " + temp);
+					failed = true;
+					break;
+				}
+			}
+		}
+		if (failed) {
+			rollback();
+			return false;
+		}
+		boolean success = true;
+		for (Map.Entry<Path, Path> entry : tempFiles.entrySet()) {
+			if (!moveFile(entry.getValue(), entry.getKey())) {
+				success = false;
+			}
+		}
+		tempFiles.clear();
+		return success;
+	}
+
+	/**
+	 * Delete all temporary files, the target files are left untouched.
+	 */
+	public void rollback() {
+		for (Path temp : tempFiles.values()) {
+			try {
+				Files.deleteIfExists(temp);
+			} catch (IOException exception) {
+				System.out.println("File delete error: " + temp);
+			}
+		}
+		tempFiles.clear();
+		failed = false;
+	}
+
+	private boolean moveFile(Path source, Path target) {
+		try {
+			try {
+				Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException exception) {
+				Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+			}
+			return true;
+		} catch (IOException exception) {
+			System.out.println("File write error: " + target);
+			return false;
+		}
+	}
+}
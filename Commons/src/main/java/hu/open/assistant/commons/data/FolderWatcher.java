@@ -0,0 +1,155 @@
+package hu.open.assistant.commons.data;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps track of the files in a single folder and tells which files were created, modified or deleted since the last
+ * poll. Files are identified by their last modification time and size (the file stamps of the FileHandler). When the
+ * file system supports it a WatchService is used so only the files named by the change events are checked, otherwise
+ * (or when events were lost) the whole folder is scanned again.
+ */
+public class FolderWatcher {
+
+	private final String path;
+	private final FileHandler fileHandler;
+	private final Map<String, String> fileStamps = new HashMap<>();
+	private final List<String> changedFiles = new ArrayList<>();
+	private final List<String> deletedFiles = new ArrayList<>();
+	private WatchService watchService;
+	private WatchKey watchKey;
+
+	/**
+	 * Create a watcher for the given folder. The folder is scanned on the first poll.
+	 *
+	 * @param path        folder to watch
+	 * @param fileHandler file handler used for listing and checking the files
+	 */
+	public FolderWatcher(String path, FileHandler fileHandler) {
+		this.path = path;
+		this.fileHandler = fileHandler;
+	}
+
+	public String getPath() {
+		return path;
+	}
+
+	/**
+	 * Check the folder for changes. The results can be queried by the getChangedFiles and getDeletedFiles methods.
+	 *
+	 * @return true if there were any changes since the last poll
+	 */
+	public boolean poll() {
+		changedFiles.clear();
+		deletedFiles.clear();
+		if (watchKey != null && watchKey.isValid()) {
+			processEvents();
+		} else {
+			startWatching();
+			scan();
+		}
+		return !changedFiles.isEmpty() || !deletedFiles.isEmpty();
+	}
+
+	/**
+	 * @return names of the files which were created or modified since the previous poll
+	 */
+	public List<String> getChangedFiles() {
+		return changedFiles;
+	}
+
+	/**
+	 * @return names of the files which were deleted since the previous poll
+	 */
+	public List<String> getDeletedFiles() {
+		return deletedFiles;
+	}
+
+	/**
+	 * Stop watching the folder and release the underlying WatchService.
+	 */
+	public void close() {
+		watchKey = null;
+		if (watchService != null) {
+			try {
+				watchService.close();
+			} catch (IOException exception) {
+				System.out.println("Folder watch close error: " + path);
+			}
+			watchService = null;
+		}
+	}
+
+	private void startWatching() {
+		close();
+		try {
+			watchService = FileSystems.getDefault().newWatchService();
+			watchKey = Paths.get(path).register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+					StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+		} catch (IOException | InvalidPathException | UnsupportedOperationException exception) {
+			close();
+		}
+	}
+
+	private void processEvents() {
+		boolean overflow = false;
+		Set<String> filenames = new HashSet<>();
+		WatchKey key;
+		while ((key = watchService.poll()) != null) {
+			for (WatchEvent<?> event : key.pollEvents()) {
+				if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+					overflow = true;
+				} else {
+					filenames.add(((Path) event.context()).getFileName().toString());
+				}
+			}
+			key.reset();
+		}
+		if (overflow || !watchKey.isValid()) {
+			scan();
+		} else {
+			for (String filename : filenames) {
+				checkFile(filename);
+			}
+		}
+	}
+
+	private void scan() {
+		Set<String> knownFiles = new HashSet<>(fileStamps.keySet());
+		for (Map.Entry<String, String> entry : fileHandler.listFileStamps(path).entrySet()) {
+			knownFiles.remove(entry.getKey());
+			checkFile(entry.getKey(), entry.getValue());
+		}
+		for (String filename : knownFiles) {
+			checkFile(filename, null);
+		}
+	}
+
+	private void checkFile(String filename) {
+		String filePath = path + "\\" + filename;
+		checkFile(filename, fileHandler.fileExists(filePath) ? fileHandler.getFileStamp(filePath) : null);
+	}
+
+	private void checkFile(String filename, String fileStamp) {
+		if (fileStamp != null) {
+			if (!fileStamp.equals(fileStamps.put(filename, fileStamp))) {
+				changedFiles.add(filename);
+			}
+		} else if (fileStamps.remove(filename) != null) {
+			deletedFiles.add(filename);
+		}
+	}
+}
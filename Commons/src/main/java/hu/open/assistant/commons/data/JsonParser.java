@@ -49,6 +49,21 @@ public class JsonParser {
         return null;
     }
 
+    /**
+     * Open a JSON file from disk for streaming (token by token) processing.
+     *
+     * @param filepath .json file to process
+     * @return a stream reader which must be closed after use or null if the file doesn't exist
+     */
+    public JsonStreamReader openJsonStream(String filepath) {
+        try {
+            return new JsonStreamReader(new BufferedReader(new InputStreamReader(new FileInputStream(filepath), StandardCharsets.UTF_8)));
+        } catch (IOException exception) {
+            System.out.println("Json file read error: " + filepath);
+        }
+        return null;
+    }
+
     /**
      * Create a .json file on disk with the given data.
      *
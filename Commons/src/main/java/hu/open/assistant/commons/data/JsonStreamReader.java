@@ -0,0 +1,131 @@
+package hu.open.assistant.commons.data;
+
+import org.json.JSONException;
+import org.json.JSONTokener;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * A pull parser for JSON content which reads the tokens one by one from the underlying reader, so large JSON files can
+ * be processed without building the whole JSON object tree in memory. Objects are read by asking for the next field
+ * name until there are no more, arrays by checking for the next element. Every value has to be read (or skipped)
+ * before the next name or element is requested. Syntax errors are reported with a JSONException.
+ */
+public class JsonStreamReader implements Closeable {
+
+    private final Reader reader;
+    private final JSONTokener tokener;
+
+    /**
+     * Initialise the stream reader on the given reader. The reader is closed together with the stream reader.
+     *
+     * @param reader source of the JSON content
+     */
+    public JsonStreamReader(Reader reader) {
+        this.reader = reader;
+        this.tokener = new JSONTokener(reader);
+    }
+
+    /**
+     * Read the start of an object.
+     */
+    public void beginObject() {
+        expect('{');
+    }
+
+    /**
+     * Read the name of the next field of the current object.
+     *
+     * @return the field name or null if the end of the object is reached
+     */
+    public String nextName() {
+        char character = tokener.nextClean();
+        if (character == ',') {
+            character = tokener.nextClean();
+        }
+        if (character == '}') {
+            return null;
+        }
+        if (character != '"' && character != '\'') {
+            throw tokener.syntaxError("Expected a field name");
+        }
+        String name = tokener.nextString(character);
+        expect(':');
+        return name;
+    }
+
+    /**
+     * Read the start of an array.
+     */
+    public void beginArray() {
+        expect('[');
+    }
+
+    /**
+     * Check if the current array has a next element to read.
+     *
+     * @return true if an element follows, false if the end of the array is reached
+     */
+    public boolean hasNextElement() {
+        char character = tokener.nextClean();
+        if (character == ',') {
+            character = tokener.nextClean();
+        }
+        if (character == ']') {
+            return false;
+        }
+        if (character == 0) {
+            throw tokener.syntaxError("Unterminated array");
+        }
+        tokener.back();
+        return true;
+    }
+
+    public String nextString() {
+        char character = tokener.nextClean();
+        if (character != '"' && character != '\'') {
+            throw tokener.syntaxError("Expected a string");
+        }
+        return tokener.nextString(character);
+    }
+
+    public double nextDouble() {
+        return nextNumber().doubleValue();
+    }
+
+    public long nextLong() {
+        return nextNumber().longValue();
+    }
+
+    public int nextInt() {
+        return nextNumber().intValue();
+    }
+
+    /**
+     * Read and drop the next value including nested objects and arrays.
+     */
+    public void skipValue() {
+        tokener.nextValue();
+    }
+
+    private Number nextNumber() {
+        Object value = tokener.nextValue();
+        if (value instanceof Number) {
+            return (Number) value;
+        }
+        throw tokener.syntaxError("Expected a number");
+    }
+
+    private void expect(char expected) {
+        if (tokener.nextClean() != expected) {
+            throw tokener.syntaxError("Expected '" + expected + "'");
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
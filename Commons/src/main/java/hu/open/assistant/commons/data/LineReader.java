@@ -0,0 +1,195 @@
+package hu.open.assistant.commons.data;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+
+/**
+ * A streaming line reader which works directly on raw bytes. Lines are read one by one into an internal buffer which is
+ * kept and reused between files, so a reader can process many files without allocating a String for every line. The
+ * current line can be searched for ASCII patterns on byte level and only the needed parts have to be decoded. A reader
+ * is not thread safe, it is meant to be kept per thread.
+ */
+public class LineReader {
+
+	private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+	private byte[] buffer = new byte[DEFAULT_BUFFER_SIZE];
+	private InputStream inputStream;
+	private String filePath;
+	private int limit;
+	private int lineStart;
+	private int lineEnd;
+	private int next;
+	private int lineNumber;
+	private boolean endOfStream;
+
+	/**
+	 * Open a file for reading. The previously opened file is closed.
+	 *
+	 * @param filePath target file
+	 * @return true if the file is opened, false if the file doesn't exist (or can't be opened)
+	 */
+	public boolean open(String filePath) {
+		close();
+		this.filePath = filePath;
+		limit = 0;
+		lineStart = 0;
+		lineEnd = 0;
+		next = 0;
+		lineNumber = -1;
+		endOfStream = false;
+		try {
+			inputStream = new FileInputStream(filePath);
+			return true;
+		} catch (IOException exception) {
+			System.out.println("File read error: " + filePath);
+			endOfStream = true;
+			return false;
+		}
+	}
+
+	/**
+	 * Close the currently opened file. The buffer is kept for the next file.
+	 */
+	public void close() {
+		if (inputStream != null) {
+			try {
+				inputStream.close();
+			} catch (IOException exception) {
+				System.out.println("File close error: " + filePath);
+			}
+			inputStream = null;
+		}
+	}
+
+	/**
+	 * Step to the next line of the file. Both LF and CRLF line endings are accepted.
+	 *
+	 * @return true if there is a next line, false at the end of the file (or on read error)
+	 */
+	public boolean nextLine() {
+		int start = next;
+		int scan = next;
+		while (true) {
+			for (int i = scan; i < limit; i++) {
+				if (buffer[i] == '\n') {
+					setLine(start, i, i + 1);
+					return true;
+				}
+			}
+			if (endOfStream) {
+				if (start < limit) {
+					setLine(start, limit, limit);
+					return true;
+				}
+				close();
+				return false;
+			}
+			if (start > 0) {
+				System.arraycopy(buffer, start, buffer, 0, limit - start);
+				limit -= start;
+				start = 0;
+			}
+			scan = limit;
+			if (limit == buffer.length) {
+				byte[] grownBuffer = new byte[buffer.length * 2];
+				System.arraycopy(buffer, 0, grownBuffer, 0, limit);
+				buffer = grownBuffer;
+			}
+			fill();
+		}
+	}
+
+	private void setLine(int start, int end, int next) {
+		lineStart = start;
+		lineEnd = end > start && buffer[end - 1] == '\r' ? end - 1 : end;
+		this.next = next;
+		lineNumber++;
+	}
+
+	private void fill() {
+		try {
+			int count = inputStream.read(buffer, limit, buffer.length - limit);
+			if (count < 0) {
+				endOfStream = true;
+			} else {
+				limit += count;
+			}
+		} catch (IOException exception) {
+			System.out.println("File read error: " + filePath);
+			endOfStream = true;
+		}
+	}
+
+	/**
+	 * @return zero based index of the current line
+	 */
+	public int getLineNumber() {
+		return lineNumber;
+	}
+
+	/**
+	 * @return length of the current line in bytes
+	 */
+	public int getLineLength() {
+		return lineEnd - lineStart;
+	}
+
+	/**
+	 * Search for a pattern in the current line.
+	 *
+	 * @param pattern ASCII pattern as bytes
+	 * @return true if the current line contains the pattern
+	 */
+	public boolean contains(byte[] pattern) {
+		return indexOf(pattern, 0) >= 0;
+	}
+
+	/**
+	 * Search for a pattern in the current line from the given position.
+	 *
+	 * @param pattern ASCII pattern as bytes
+	 * @param from    position in the line to start the search from
+	 * @return position of the pattern in the line or -1 if the pattern is not found
+	 */
+	public int indexOf(byte[] pattern, int from) {
+		int last = lineEnd - pattern.length;
+		for (int i = lineStart + Math.max(from, 0); i <= last; i++) {
+			int j = 0;
+			while (j < pattern.length && buffer[i + j] == pattern[j]) {
+				j++;
+			}
+			if (j == pattern.length) {
+				return i - lineStart;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Decode the whole current line.
+	 *
+	 * @param charset charset of the file
+	 * @return the current line as String
+	 */
+	public String getLine(Charset charset) {
+		return new String(buffer, lineStart, lineEnd - lineStart, charset);
+	}
+
+	/**
+	 * Decode a part of the current line.
+	 *
+	 * @param from    start position in the line (inclusive)
+	 * @param to      end position in the line (exclusive)
+	 * @param charset charset of the file
+	 * @return the given part of the current line as String
+	 */
+	public String getText(int from, int to, Charset charset) {
+		if (from < 0 || to > lineEnd - lineStart || from > to) {
+			throw new IndexOutOfBoundsException("Line range " + from + " - " + to);
+		}
+		return new String(buffer, lineStart + from, to - from, charset);
+	}
+}
@@ -1,5 +1,9 @@
 package hu.open.assistant.commons.util;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
 /**
  * Helper class for character coding tasks.
  */
@@ -50,6 +54,35 @@ public class CodingHelper {
         return "";
     }
 
+    /**
+     * Create a SHA-256 hash of the text which can be used as a content key.
+     *
+     * @param text text to hash (in UTF-8 format)
+     * @return hash in hexadecimal format
+     */
+    public static String textToSha256Hex(String text) {
+        return bytesToSha256Hex(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Create a SHA-256 hash of raw binary content which can be used as a checksum.
+     *
+     * @param content raw bytes to hash
+     * @return hash in hexadecimal format
+     */
+    public static String bytesToSha256Hex(byte[] content) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(content);
+            StringBuilder stringBuilder = new StringBuilder(hash.length * 2);
+            for (byte value : hash) {
+                stringBuilder.append(Character.forDigit((value >> 4) & 0xF, 16)).append(Character.forDigit(value & 0xF, 16));
+            }
+            return stringBuilder.toString();
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
     private static char[] shiftLetters(char[] characters, int shift) {
         for (int i = 0; i < characters.length; i++) {
             characters[i] = (char) (characters[i] + shift);
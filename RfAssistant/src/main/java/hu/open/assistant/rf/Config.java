@@ -33,6 +33,8 @@ public class Config {
     private boolean preloadCmu;
     private boolean preloadCmw;
     private boolean preloadReports;
+    private int reportThreads;
+    private int reportCacheSize;
 
 
     public Config() {
@@ -278,4 +280,20 @@ public class Config {
     public void setPreloadReports(boolean preloadReports) {
         this.preloadReports = preloadReports;
     }
+
+    public int getReportThreads() {
+        return reportThreads;
+    }
+
+    public void setReportThreads(int reportThreads) {
+        this.reportThreads = reportThreads;
+    }
+
+    public int getReportCacheSize() {
+        return reportCacheSize;
+    }
+
+    public void setReportCacheSize(int reportCacheSize) {
+        this.reportCacheSize = reportCacheSize;
+    }
 }
@@ -6,14 +6,13 @@ import hu.open.assistant.rf.data.DatabaseLogData;
 import hu.open.assistant.rf.data.EquipmentData;
 import hu.open.assistant.rf.data.ProfileLogData;
 import hu.open.assistant.rf.data.ReportCacheData;
+import hu.open.assistant.rf.data.TodayReportData;
 import hu.open.assistant.rf.data.cmu.CmuProfileData;
 import hu.open.assistant.rf.data.cmu.CmuReportData;
 import hu.open.assistant.rf.data.cmu.ShortcutData;
 import hu.open.assistant.rf.data.cmw.CmwProfileData;
 import hu.open.assistant.rf.data.cmw.CmwReportData;
-import hu.open.assistant.rf.filter.DatabaseLogBatchFilter;
 import hu.open.assistant.rf.filter.EquipmentFilter;
-import hu.open.assistant.rf.filter.ProfileLogBatchFilter;
 import hu.open.assistant.rf.filter.ShortcutFilter;
 import hu.open.assistant.rf.graphical.RfNotice;
 import hu.open.assistant.rf.graphical.RfWindow;
@@ -35,7 +34,6 @@ import hu.open.assistant.rf.model.log.event.ProfileLogEvent;
 import hu.open.assistant.rf.model.profile.CmwProfile;
 import hu.open.assistant.rf.model.profile.Profile;
 import hu.open.assistant.rf.model.profile.parts.ProfileParts;
-import hu.open.assistant.rf.model.report.CmuReport;
 import hu.open.assistant.rf.model.report.CmwReport;
 import hu.open.assistant.rf.model.report.Report;
 import hu.open.assistant.rf.model.report.limits.CmuReportLimits;
@@ -49,6 +47,7 @@ import hu.open.assistant.commons.data.UpdateHandler;
 import hu.open.assistant.commons.util.SystemHelper;
 import hu.open.assistant.commons.util.DateHelper;
 import hu.open.assistant.commons.util.TextHelper;
+import hu.open.assistant.commons.util.ValidationHelper;
 import hu.open.assistant.commons.data.CsvParser;
 import hu.open.assistant.commons.data.FileHandler;
 import hu.open.assistant.rf.data.ProfilePartsData;
@@ -58,7 +57,17 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
 /**
  * Data controller for the application as well as the main entry point. It holds various data classes responsible for
@@ -76,6 +85,8 @@ public class RfAssistant {
 	private final CmwProfileData cmwProfileData;
 	private final CmuProfileData cmuProfileData;
 	private final ReportCacheData reportCacheData;
+	private final TodayReportData todayCmuReportData;
+	private final TodayReportData todayCmwReportData;
 	private final ShortcutData shortcutData;
 	private final ProfilePartsData profilePartsData;
 	private final EquipmentData equipmentData;
@@ -89,12 +100,14 @@ public class RfAssistant {
 	private final FileHandler fileHandler = new FileHandler();
 	private final String networkFolder;
 	private final RfWindow window;
-	private ProfileParts cmuProfileParts;
+	private final ExecutorService reportFolderExecutor;
+	private final ExecutorService reportFileExecutor;
+	private final ExecutorService databaseExecutor;
+	private final ExecutorService databaseFileExecutor;
+	private volatile ProfileParts cmuProfileParts;
 	private String notificationBuffer = "";
 	private Config localConfig;
 	private final Config globalConfig;
-	private boolean cmuDatabaseRefresh;
-	private boolean cmwDatabaseRefresh;
 	private boolean databaseCleanup;
 
 	public static void main(String[] args) {
@@ -115,17 +128,22 @@ public class RfAssistant {
 		cmuProfileParts = profilePartsData.readProfileParts(TesterType.CMU);
 		shortcutData = new ShortcutData(globalConfig.getCmuShortcutPath(), fileHandler, cmuProfileParts);
 		cmuProfileData = new CmuProfileData(globalConfig.getCmuDatabasePath(), globalConfig.getDefaultValue(), fileHandler, cmuProfileParts);
-		cmwProfileData = new CmwProfileData(globalConfig.getCmwDatabasePath(), globalConfig.getDefaultValue(), fileHandler, this);
-		profileLogData = new ProfileLogData(networkFolder + "\\Data", csvParser);
-		databaseLogData = new DatabaseLogData(networkFolder + "\\Data", csvParser);
-		databaseBackupData = new DatabaseBackupData(networkFolder + "\\Data\\Backup", jsonParser, fileHandler, cmuProfileParts, readEquipments());
+		databaseExecutor = Executors.newFixedThreadPool(localConfig.getReportThreads(), createWorkerFactory("database"));
+		databaseFileExecutor = Executors.newFixedThreadPool(localConfig.getReportThreads(), createWorkerFactory("database-file"));
+		cmwProfileData = new CmwProfileData(globalConfig.getCmwDatabasePath(), globalConfig.getDefaultValue(), fileHandler, this,
+				databaseExecutor, databaseFileExecutor);
+		profileLogData = new ProfileLogData(networkFolder + "\\Data", csvParser, fileHandler, databaseExecutor);
+		databaseLogData = new DatabaseLogData(networkFolder + "\\Data", csvParser, fileHandler);
+		databaseBackupData = new DatabaseBackupData(networkFolder + "\\Data\\Backup", jsonParser, csvParser, fileHandler, cmuProfileParts, readEquipments());
 		cmuLimits = globalConfig.getCmuLimits();
 		cmwLimits = globalConfig.getCmwLimits();
 		cmuReportData = new CmuReportData(cmuLimits, fileHandler);
-		cmwReportData = new CmwReportData(cmwLimits, fileHandler);
-		reportCacheData = new ReportCacheData(cmuLimits, cmwLimits, fileHandler, csvParser);
-		cmuDatabaseRefresh = true;
-		cmwDatabaseRefresh = true;
+		todayCmuReportData = new TodayReportData(fileHandler);
+		todayCmwReportData = new TodayReportData(fileHandler);
+		cmwReportData = new CmwReportData(cmwLimits);
+		reportCacheData = new ReportCacheData(cmuLimits, cmwLimits, fileHandler, csvParser, localConfig.getReportCacheSize());
+		reportFolderExecutor = Executors.newFixedThreadPool(localConfig.getReportThreads(), createWorkerFactory("report-folder"));
+		reportFileExecutor = Executors.newFixedThreadPool(localConfig.getReportThreads(), createWorkerFactory("report-file"));
 		LocalDate date = LocalDate.now();
 		date = date.minusYears(1);
 		minYear = date.getYear();
@@ -332,9 +350,8 @@ public class RfAssistant {
 		return equipments;
 	}
 
-	private void updateEquipments(TesterType testerType, List<Equipment> backupEquipments) {
+	private void updateEquipments(TesterType testerType, List<Equipment> backupEquipments, List<Database> databases) {
 		List<Equipment> equipments = readEquipments();
-		List<Database> databases = readDatabases(testerType);
 		addMissingEquipments(equipments, databases);
 		for (Equipment equipment : equipments) {
 			Equipment backupEquipment = EquipmentFilter.getEquipmentByName(backupEquipments, equipment.getName());
@@ -396,11 +413,17 @@ public class RfAssistant {
 	// Databases - profiles
 
 	public void cmuDatabaseRefresh() {
-		cmuDatabaseRefresh = true;
+		cmuProfileData.invalidateDatabases();
 	}
 
 	public void cmwDatabaseRefresh() {
-		cmwDatabaseRefresh = true;
+		cmwProfileData.invalidateDatabases();
+	}
+
+	public void loadProfileValues(Database database) {
+		if (database.getTesterType() == TesterType.CMW) {
+			cmwProfileData.loadValues(database);
+		}
 	}
 
 	public List<String> readDatabaseNames(TesterType testerType) {
@@ -421,11 +444,17 @@ public class RfAssistant {
 	}
 
 	public List<String> readCmuDatabaseFolders() {
-		return fileHandler.listDirectories(globalConfig.getCmuDatabasePath());
+		return readSerialFolders(globalConfig.getCmuDatabasePath());
 	}
 
 	public List<String> readCmwDatabaseFolders() {
-		return fileHandler.listDirectories(globalConfig.getCmwDatabasePath());
+		return readSerialFolders(globalConfig.getCmwDatabasePath());
+	}
+
+	private List<String> readSerialFolders(String path) {
+		List<String> folderNames = fileHandler.listDirectories(path);
+		folderNames.removeIf(name -> !ValidationHelper.hasOnlyNumbers(name));
+		return folderNames;
 	}
 
 	public void preloadResources() {
@@ -443,28 +472,29 @@ public class RfAssistant {
 	public List<Database> readDatabases(TesterType testerType) {
 		List<Database> databases;
 		if (testerType == TesterType.CMU) {
-			if (cmuDatabaseRefresh) {
+			List<String> folderNames = readCmuDatabaseFolders();
+			if (!cmuProfileData.isUpToDate(folderNames)) {
                 window.showNotification(RfNotice.CMU_DATABASE_READ);
-                databases = cmuProfileData.readDatabases(readCmuDatabaseFolders());
-				cmuDatabaseRefresh = false;
+                databases = cmuProfileData.readDatabases(folderNames);
 			} else {
 				databases = cmuProfileData.getDatabases();
 			}
 		} else {
-			if (cmwDatabaseRefresh) {
+			List<String> folderNames = readCmwDatabaseFolders();
+			if (!cmwProfileData.isUpToDate(folderNames)) {
                 window.showNotification(RfNotice.CMW_DATABASE_READ);
-                databases = cmwProfileData.readDatabases(readCmwDatabaseFolders());
-				cmwDatabaseRefresh = false;
+                databases = cmwProfileData.readDatabases(folderNames);
 			} else {
 				databases = cmwProfileData.getDatabases();
 			}
 		}
-		List<DatabaseLogBatch> databaseLogBatches = readDatabaseLogs();
-		List<ProfileLogBatch> profileLogBatches = readProfileLogs();
+		Map<Integer, DatabaseLogBatch> databaseLogBatches = databaseLogData.readDatabaseLogsBySerial();
+		Map<Integer, Map<String, ProfileLogBatch>> profileLogBatches = profileLogData.readProfileLogsBySerial();
 		for (Database database : databases) {
-			database.setLogBatch(DatabaseLogBatchFilter.getDatabaseLogBatchBySerial(databaseLogBatches, database.getSerial()));
+			database.setLogBatch(databaseLogBatches.get(database.getSerial()));
+			Map<String, ProfileLogBatch> stationLogBatches = profileLogBatches.getOrDefault(database.getSerial(), Collections.emptyMap());
 			for (Profile profile : database.getProfiles()) {
-				profile.setLogBatch(ProfileLogBatchFilter.getProfileLogBatchBySerialAndByName(profileLogBatches, profile.getSerial(), profile.getName()));
+				profile.setLogBatch(stationLogBatches.get(profile.getName()));
 			}
 		}
 		window.closeNotification();
@@ -526,11 +556,11 @@ public class RfAssistant {
 		if (database.getTesterType() == TesterType.CMW) {
 			window.showNotification(RfNotice.CMW_DATABASE_WRITE);
 			cmwProfileData.writeDatabase((CmwDatabase) database, databaseCleanup);
-			cmwDatabaseRefresh();
+			cmwProfileData.invalidateDatabase(database.getSerial());
 		} else {
 			window.showNotification(RfNotice.CMU_DATABASE_WRITE);
 			cmuProfileData.writeDatabase((CmuDatabase) database, databaseCleanup);
-			cmuDatabaseRefresh();
+			cmuProfileData.invalidateDatabase(database.getSerial());
 		}
 		window.closeNotification();
 	}
@@ -646,14 +676,53 @@ public class RfAssistant {
 
 	public List<Report> readReports(int interval) {
         window.showNotification(RfNotice.REPORT_PROCESS);
+		List<Report> allReports = readReportFolders(interval);
+		Collections.sort(allReports);
+		window.closeNotification();
+		return allReports;
+	}
+
+	private List<Report> readReportFolders(int interval) {
+		LocalDate currentDate = LocalDate.now();
+		List<String> cmuFolders = new ArrayList<>();
+		List<String> cmwFolders = new ArrayList<>();
+		for (int i = 0; i < interval; i++) {
+			cmuFolders.add(localDateTimeToCmuFolder(LocalDateTime.now().minusDays(i)));
+			cmwFolders.add(DateHelper.localDateTimeToIsoTextDate(LocalDateTime.now().minusDays(i)));
+		}
+		List<Future<List<Report>>> cmuResults = submitReportFolders(TesterType.CMU, cmuFolders, currentDate, 5);
+		List<Future<List<Report>>> cmwResults = submitReportFolders(TesterType.CMW, cmwFolders, currentDate, 5);
 		List<Report> allReports = new ArrayList<>();
 		for (int i = 0; i < interval; i++) {
-			String folder = localDateTimeToCmuFolder(LocalDateTime.now().minusDays(i));
-			List<Report> reports = readCmuReports(folder, LocalDate.now(), 5);
-			allReports.addAll(reports);
-			folder = DateHelper.localDateTimeToIsoTextDate(LocalDateTime.now().minusDays(i));
-			reports = readCmwReports(folder, LocalDate.now(), 5);
-			allReports.addAll(reports);
+			allReports.addAll(awaitReportFolder(cmuFolders.get(i), cmuResults.get(i)));
+			allReports.addAll(awaitReportFolder(cmwFolders.get(i), cmwResults.get(i)));
+		}
+		return allReports;
+	}
+
+	/**
+	 * Read the reports of the given interval and add the older reports of a handset found by the IMEI index of the
+	 * report caches. The report folders of the interval are read (and cached) first, so the index covers every past day
+	 * of the interval, even the ones which were never processed before.
+	 *
+	 * @param interval number of days to read
+	 * @param imei     IMEI of the handset
+	 * @return the reports of the interval and all reports of the handset
+	 */
+	public List<Report> readReportsWithImeiHistory(int interval, long imei) {
+		window.showNotification(RfNotice.REPORT_PROCESS);
+		List<Report> allReports = readReportFolders(interval);
+		Set<String> reportPaths = new HashSet<>();
+		for (Report report : allReports) {
+			reportPaths.add(report.getFolder() + "\\" + report.getFilename());
+		}
+		List<Report> imeiReports = new ArrayList<>();
+		imeiReports.addAll(reportCacheData.findReports(globalConfig.getCmuReportPath(), globalConfig.getCmuCachePath(), imei, 5));
+		imeiReports.addAll(reportCacheData.findReports(globalConfig.getCmwReportPath(), globalConfig.getCmwCachePath(), imei, 5));
+		for (Report report : imeiReports) {
+			if (reportPaths.add(report.getFolder() + "\\" + report.getFilename())) {
+				allReports.add(report);
+			}
 		}
 		Collections.sort(allReports);
 		window.closeNotification();
@@ -664,21 +733,71 @@ public class RfAssistant {
 		return dateTime.getYear() + TextHelper.addZero(dateTime.getMonthValue()) + TextHelper.addZero(dateTime.getDayOfMonth());
 	}
 
-	private List<Report> readCmuReports(String folder, LocalDate currentDate, int passableLimit) {
+	private List<Future<List<Report>>> submitReportFolders(TesterType testerType, List<String> folders, LocalDate currentDate, int passableLimit) {
+		List<Future<List<Report>>> results = new ArrayList<>();
+		for (String folder : folders) {
+			if (testerType == TesterType.CMU) {
+				results.add(reportFolderExecutor.submit(() -> readCmuReports(folder, currentDate, passableLimit)));
+			} else {
+				results.add(reportFolderExecutor.submit(() -> readCmwReports(folder, currentDate, passableLimit)));
+			}
+		}
+		return results;
+	}
+
+	private List<Report> awaitReportFolder(String folder, Future<List<Report>> result) {
 		window.changeNotificationText("Teszt riportok feldolgozása: " + folder);
+		List<Report> reports = awaitResult(result, folder);
+		return reports != null ? reports : new ArrayList<>();
+	}
+
+	private List<Report> readReportFiles(TesterType testerType, String reportPath, List<String> filesList, int passableLimit) {
+		List<Future<Report>> results = new ArrayList<>();
+		for (String filename : filesList) {
+			if (testerType == TesterType.CMU) {
+				results.add(reportFileExecutor.submit(() -> cmuReportData.readReport(reportPath, filename, passableLimit)));
+			} else {
+				results.add(reportFileExecutor.submit(() -> cmwReportData.readReport(reportPath, filename, passableLimit)));
+			}
+		}
+		List<Report> reports = new ArrayList<>();
+		for (int i = 0; i < results.size(); i++) {
+			Report report = awaitResult(results.get(i), filesList.get(i));
+			if (report != null) {
+				reports.add(report);
+			}
+		}
+		return reports;
+	}
+
+	private <T> T awaitResult(Future<T> result, String name) {
+		try {
+			return result.get();
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+			System.out.println("Report processing interrupted: " + name);
+		} catch (ExecutionException exception) {
+			System.out.println("Report processing error: " + name);
+		}
+		return null;
+	}
+
+	private ThreadFactory createWorkerFactory(String name) {
+		return runnable -> {
+			Thread thread = new Thread(runnable, name);
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+
+	private List<Report> readCmuReports(String folder, LocalDate currentDate, int passableLimit) {
 		List<Report> reports = reportCacheData.readReportCache(globalConfig.getCmuReportPath(), globalConfig.getCmuCachePath(), folder, passableLimit);
 		if (reports == null) {
-			reports = new ArrayList<>();
 			LocalDate folderDate = LocalDate.of(Integer.parseInt(folder.substring(0, 4)), Integer.parseInt(folder.substring(4, 6)), Integer.parseInt(folder.substring(6, 8)));
 			String reportPath = globalConfig.getCmuReportPath() + "\\" + folder;
-			List<String> filesList = fileHandler.listFiles(reportPath);
-			for (String filename : filesList) {
-				CmuReport report = cmuReportData.readReport(reportPath, filename, passableLimit);
-				if (report != null) {
-					reports.add(report);
-				}
-			}
 			if (folderDate.isBefore(currentDate)) {
+				List<String> filesList = fileHandler.listFiles(reportPath);
+				reports = readReportFiles(TesterType.CMU, reportPath, filesList, passableLimit);
 				List<Report> validReports = new ArrayList<>();
 				for (Report report : reports) {
 					if (report.getScriptVersion() >= globalConfig.getMinCmuScriptVersion()) {
@@ -686,28 +805,23 @@ public class RfAssistant {
 					}
 				}
 				if (!validReports.isEmpty()) {
-					reportCacheData.writeReportCache(globalConfig.getCmuCachePath(), folder + ".csv", validReports);
+					reportCacheData.writeReportCache(globalConfig.getCmuCachePath(), folder, validReports);
 				}
+			} else {
+				reports = todayCmuReportData.readReports(reportPath, passableLimit, changedFiles -> readReportFiles(TesterType.CMU, reportPath, changedFiles, passableLimit));
 			}
 		}
 		return reports;
 	}
 
 	private List<Report> readCmwReports(String folder, LocalDate currentDate, int passableLimit) {
-		window.changeNotificationText("Teszt riportok feldolgozása: " + folder);
 		List<Report> reports = reportCacheData.readReportCache(globalConfig.getCmwReportPath(), globalConfig.getCmwCachePath(), folder, passableLimit);
 		if (reports == null) {
-			reports = new ArrayList<>();
 			LocalDate folderDate = LocalDate.of(Integer.parseInt(folder.substring(0, 4)), Integer.parseInt(folder.substring(5, 7)), Integer.parseInt(folder.substring(8, 10)));
 			String reportPath = globalConfig.getCmwReportPath() + "\\" + folder;
-			List<String> filesList = fileHandler.listFiles(reportPath);
-			for (String filename : filesList) {
-				Report report = cmwReportData.readReport(reportPath, filename, passableLimit);
-				if (report != null) {
-					reports.add(report);
-				}
-			}
 			if (folderDate.isBefore(currentDate)) {
+				List<String> filesList = fileHandler.listFiles(reportPath);
+				reports = readReportFiles(TesterType.CMW, reportPath, filesList, passableLimit);
 				for (String filename : filesList) {
 					if (filename.contains(".rsmr")) {
 						fileHandler.deleteFile(reportPath + "\\" + filename);
@@ -720,30 +834,30 @@ public class RfAssistant {
 					}
 				}
 				if (!validReports.isEmpty()) {
-					reportCacheData.writeReportCache(globalConfig.getCmwCachePath(), folder + ".csv", validReports);
+					reportCacheData.writeReportCache(globalConfig.getCmwCachePath(), folder, validReports);
 				}
+			} else {
+				reports = todayCmwReportData.readReports(reportPath, passableLimit, changedFiles -> readReportFiles(TesterType.CMW, reportPath, changedFiles, passableLimit));
 			}
 		}
 		return reports;
 	}
 
 	public List<Station> processReports(TesterType testerType, List<String> folderNames, int passableLimit) {
-		List<Integer> serials = new ArrayList<>();
-		List<Station> stations = new ArrayList<>();
+		Map<Integer, Station> stations = new LinkedHashMap<>();
 		LocalDate currentDate = LocalDate.now();
 		List<Database> databases = readDatabases(testerType);
 		if (databases.size() > 0) {
             window.showNotification(RfNotice.REPORT_PROCESS);
-			for (String folder : folderNames) {
-				if (testerType == TesterType.CMU) {
-					sortReports(TesterType.CMU, serials, stations, readCmuReports(folder, currentDate, passableLimit), databases);
-				} else {
-					sortReports(TesterType.CMW, serials, stations, readCmwReports(folder, currentDate, passableLimit), databases);
-				}
+			Map<Integer, Database> databasesBySerial = new HashMap<>();
+			for (Database database : databases) {
+				databasesBySerial.put(database.getSerial(), database);
 			}
-			for (Station station : stations) {
-				station.initStation();
+			List<Future<List<Report>>> results = submitReportFolders(testerType, folderNames, currentDate, passableLimit);
+			for (int i = 0; i < folderNames.size(); i++) {
+				sortReports(testerType, stations, awaitReportFolder(folderNames.get(i), results.get(i)), databasesBySerial);
 			}
+			new ArrayList<>(stations.values()).parallelStream().forEach(Station::initStation);
 			window.closeNotification();
 		} else {
 			if (testerType == TesterType.CMW) {
@@ -752,32 +866,22 @@ public class RfAssistant {
                 window.showNotification(RfNotice.CMU_PROFILE_ERROR);
 			}
 		}
-		return stations;
+		return new ArrayList<>(stations.values());
 	}
 
-	private void sortReports(TesterType testerType, List<Integer> serials, List<Station> stations, List<Report> reports, List<Database> databases) {
+	private void sortReports(TesterType testerType, Map<Integer, Station> stations, List<Report> reports, Map<Integer, Database> databases) {
 		for (Report report : reports) {
-			if (!serials.contains(report.getSerial())) {
-				serials.add(report.getSerial());
-				Database databaseMatch = null;
-				for (Database database : databases) {
-					if (database.getSerial() == report.getSerial()) {
-						databaseMatch = database;
-					}
-				}
+			Station station = stations.get(report.getSerial());
+			if (station == null) {
+				Database databaseMatch = databases.get(report.getSerial());
 				if (testerType == TesterType.CMU) {
-					stations.add(new CmuStation(report.getSerial(), (CmuDatabase) databaseMatch, cmuLimits, globalConfig.getMinCmuScriptVersion()));
+					station = new CmuStation(report.getSerial(), (CmuDatabase) databaseMatch, cmuLimits, globalConfig.getMinCmuScriptVersion());
 				} else {
-					stations.add(new CmwStation(report.getSerial(), (CmwDatabase) databaseMatch, cmwLimits, globalConfig.getMinCmwScriptVersion()));
-				}
-			}
-		}
-		for (Report report : reports) {
-			for (Station station : stations) {
-				if (station.getSerial() == report.getSerial()) {
-					station.addReport(report);
+					station = new CmwStation(report.getSerial(), (CmwDatabase) databaseMatch, cmwLimits, globalConfig.getMinCmwScriptVersion());
 				}
+				stations.put(report.getSerial(), station);
 			}
+			station.addReport(report);
 		}
 	}
 
@@ -796,9 +900,9 @@ public class RfAssistant {
 	}
 
 	private void updateProfileLogs(Database database, LocalDateTime restoreDateTime) {
-		List<ProfileLogBatch> profileLogBatches = readProfileLogs();
+		Map<String, ProfileLogBatch> profileLogBatches = profileLogData.readProfileLogsBySerial().getOrDefault(database.getSerial(), Collections.emptyMap());
 		List<ProfileLogBatch> excessLogs = new ArrayList<>();
-		for (ProfileLogBatch logBatch : ProfileLogBatchFilter.getProfileLogBatchesBySerial(profileLogBatches, database.getSerial())) {
+		for (ProfileLogBatch logBatch : profileLogBatches.values()) {
 			Profile profile = database.getProfileByName(logBatch.getName());
 			if (profile == null) {
 				excessLogs.add(logBatch);
@@ -810,7 +914,7 @@ public class RfAssistant {
 			}
 		}
 		for (Profile profile : database.getProfiles()) {
-			if (ProfileLogBatchFilter.getProfileLogBatchBySerialAndByName(profileLogBatches, profile.getSerial(), profile.getName()) == null) {
+			if (!profileLogBatches.containsKey(profile.getName())) {
 				profile.setReverted(true);
 				profileLogData.writeProfileLog(new ProfileLog(LocalDateTime.now(), ProfileLogEvent.CREATION, profile.getSerial(), profile.getTesterType(), profile.getName(), "(visszaállításból létrehozva)"));
 			}
@@ -829,18 +933,38 @@ public class RfAssistant {
 	}
 
 	public List<DatabaseBackup> readDatabaseBackupHeaders() {
-		List<DatabaseBackup> backups = new ArrayList<>();
-		List<DatabaseLog> backupLogs = databaseLogData.readDatabaseBackupLogs();
-		for (DatabaseLog log : backupLogs) {
-			if (log.getTesterType() == TesterType.CMW) {
-				backups.add(new CmwDatabaseBackup(log.getSerial(), log.getDateTime()));
-			} else {
-				backups.add(new CmuDatabaseBackup(log.getSerial(), log.getDateTime()));
+		List<DatabaseBackup> backups = databaseBackupData.readBackupCatalog();
+		if (backups == null) {
+			backups = new ArrayList<>();
+			List<DatabaseLog> backupLogs = databaseLogData.readDatabaseBackupLogs();
+			for (DatabaseLog log : backupLogs) {
+				if (log.getTesterType() == TesterType.CMW) {
+					backups.add(new CmwDatabaseBackup(log.getSerial(), log.getDateTime()));
+				} else {
+					backups.add(new CmuDatabaseBackup(log.getSerial(), log.getDateTime()));
+				}
 			}
+			databaseBackupData.createBackupCatalog(backups);
 		}
 		return backups;
 	}
 
+	public void verifyDatabaseBackups(List<DatabaseBackup> backups, Runnable onFinished) {
+		List<Future<Boolean>> results = new ArrayList<>();
+		for (DatabaseBackup backup : backups) {
+			results.add(databaseFileExecutor.submit(() -> databaseBackupData.verifyBackup(backup)));
+		}
+		databaseExecutor.submit(() -> {
+			for (int i = 0; i < backups.size(); i++) {
+				Boolean valid = awaitResult(results.get(i), "backup " + backups.get(i).getSerial());
+				if (valid == null || !valid) {
+					backups.get(i).setCorrupted(true);
+				}
+			}
+			onFinished.run();
+		});
+	}
+
 	// DatabaseBackup
 
 	public void deleteBackup(DatabaseBackup backup) {
@@ -848,7 +972,7 @@ public class RfAssistant {
 		databaseBackupData.deleteBackup(backup);
 	}
 
-	public void createDatabaseBackup(Database database) {
+	public boolean createDatabaseBackup(Database database) {
 		DatabaseBackup backup;
 		LocalDateTime dateTime = LocalDateTime.now();
 		if (database.getTesterType() == TesterType.CMW) {
@@ -857,9 +981,16 @@ public class RfAssistant {
 			backup = new CmuDatabaseBackup(database.getSerial(), dateTime);
 			((CmuDatabaseBackup) backup).setShortcuts(readShortcuts());
 		}
+		loadProfileValues(database);
 		backup.setDatabase(database);
-		databaseBackupData.writeDatabaseBackup(backup);
+		if (!databaseBackupData.writeDatabaseBackup(backup)) {
+            window.showNotification(RfNotice.EMPTY);
+			window.changeNotificationText("Az adatbázis mentését nem sikerült kiírni (lehet, hogy betelt a lemez vagy a mappa nem írható)." +
+					"\n\nA mentés művelet megszakítva!");
+			return false;
+		}
 		databaseLogData.writeDatabaseBackupLog(database.getSerial(), database.getTesterType(), dateTime);
+		return true;
 	}
 
 	public void readDatabaseBackupContent(DatabaseBackup databaseBackup) {
@@ -875,48 +1006,68 @@ public class RfAssistant {
 	}
 
 	public boolean restoreDatabaseBackup(DatabaseBackup backup) {
-		Database database;
+		Database database = backup.getDatabase();
 		int databaseSerial = backup.getSerial();
-		String databaseFolder = backup.getTesterType() == TesterType.CMU ?
-				globalConfig.getCmuDatabasePath() + "\\" + databaseSerial : globalConfig.getCmwDatabasePath() + "\\" + databaseSerial;
-		database = backup.getDatabase();
-		List<String> nonRemovableFiles = fileHandler.deleteWholeDirectory(databaseFolder);
-		if (nonRemovableFiles.isEmpty()) {
-			if (backup.getTesterType() == TesterType.CMU) {
-				createEmptyCmuDatabaseFolder(databaseSerial);
-				cmuProfileData.writeDatabase((CmuDatabase) database, false);
-				cmuDatabaseRefresh();
-				updateProfileLogs(database, backup.getDateTime());
-				updateShortcuts(((CmuDatabaseBackup) backup).getShortcuts());
-				updateProfileParts(backup.getDatabase().getProfiles(), ((CmuDatabaseBackup) backup).getShortcuts());
-				updateEquipments(backup.getTesterType(), backup.getEquipments());
-			} else {
-				createEmptyCmwDatabaseFolder(databaseSerial);
-				cmwProfileData.writeDatabase((CmwDatabase) database, false);
-				cmwDatabaseRefresh();
-				updateProfileLogs(database, backup.getDateTime());
-				updateProfileParts(backup.getDatabase().getProfiles(), null);
-				updateEquipments(backup.getTesterType(), backup.getEquipments());
-			}
-			databaseLogData.writeDatabaseRestoreLog(backup.getDatabase().getSerial(), backup.getDatabase().getTesterType());
+		List<Database> databases = new ArrayList<>(readDatabases(backup.getTesterType()));
+		boolean restored;
+		if (backup.getTesterType() == TesterType.CMU) {
+			restored = cmuProfileData.stageDatabase((CmuDatabase) database) && cmuProfileData.replaceWithStagedDatabase(databaseSerial);
+		} else {
+			restored = cmwProfileData.stageDatabase((CmwDatabase) database) && cmwProfileData.replaceWithStagedDatabase(databaseSerial);
+		}
+		if (!restored) {
+            window.showNotification(RfNotice.EMPTY);
+			window.changeNotificationText("Az adatbázis mappáját nem sikerült lecserélni (lehet, hogy egyes fájlok használatban vannak)." +
+					"\n\nA visszállítás művelet megszakítva!");
+			return false;
+		}
+		databases.removeIf(actualDatabase -> actualDatabase.getSerial() == databaseSerial);
+		databases.add(database);
+		Map<String, Future<?>> updates = new LinkedHashMap<>();
+		updates.put("profil napló", databaseExecutor.submit(() -> updateProfileLogs(database, backup.getDateTime())));
+		if (backup.getTesterType() == TesterType.CMU) {
+			List<Shortcut> shortcuts = ((CmuDatabaseBackup) backup).getShortcuts();
+			updates.put("parancsikonok és profil elemek", databaseExecutor.submit(() -> {
+				updateShortcuts(shortcuts, databases);
+				updateProfileParts(database.getProfiles(), shortcuts);
+			}));
 		} else {
+			updates.put("profil elemek", databaseExecutor.submit(() -> updateProfileParts(database.getProfiles(), null)));
+		}
+		updates.put("eszközök", databaseExecutor.submit(() -> updateEquipments(backup.getTesterType(), backup.getEquipments(), databases)));
+		List<String> failedUpdates = new ArrayList<>();
+		for (Map.Entry<String, Future<?>> update : updates.entrySet()) {
+			if (!awaitRestoreUpdate(update.getValue(), update.getKey(), databaseSerial)) {
+				failedUpdates.add(update.getKey());
+			}
+		}
+		if (!failedUpdates.isEmpty()) {
             window.showNotification(RfNotice.EMPTY);
-			String notificationText = "A következő fájlokat nem sikerült törölni:";
-			for (String filename : nonRemovableFiles) {
-				notificationText = notificationText.concat("\n").concat(filename);
+			String notificationText = "Az adatbázis visszaállt, de a következő adatokat nem sikerült frissíteni:";
+			for (String name : failedUpdates) {
+				notificationText = notificationText.concat("\n").concat(name);
 			}
-			notificationText = notificationText.concat("\n\nA visszállítás művelet megszakítva!");
+			notificationText = notificationText.concat("\n\nA visszállítás művelet nem teljes!");
 			window.changeNotificationText(notificationText);
-			if (backup.getTesterType() == TesterType.CMU) {
-				cmuDatabaseRefresh();
-			} else {
-				cmwDatabaseRefresh();
-			}
 			return false;
 		}
+		databaseLogData.writeDatabaseRestoreLog(database.getSerial(), database.getTesterType());
 		return true;
 	}
 
+	private boolean awaitRestoreUpdate(Future<?> update, String name, int serial) {
+		try {
+			update.get();
+			return true;
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+			System.out.println("Restore update interrupted: " + serial + " " + name);
+		} catch (ExecutionException exception) {
+			System.out.println("Restore update error: " + serial + " " + name + " - " + exception.getCause());
+		}
+		return false;
+	}
+
 	private void updateProfileParts(List<Profile> profiles, List<Shortcut> shortcuts) {
 		TesterType testerType = profiles.get(0).getTesterType();
 		ProfileParts profileParts = readProfileParts(testerType);
@@ -945,7 +1096,7 @@ public class RfAssistant {
 		writeProfileParts(profileParts);
 	}
 
-	private void updateShortcuts(List<Shortcut> backupShortcuts) {
+	private void updateShortcuts(List<Shortcut> backupShortcuts, List<Database> databases) {
 		List<Shortcut> actualShortcuts = readShortcuts();
 		for (Shortcut backupShortcut : backupShortcuts) {
 			Shortcut actualShortcut = ShortcutFilter.getShortcutByName(actualShortcuts, backupShortcut.getName());
@@ -955,7 +1106,6 @@ public class RfAssistant {
 				actualShortcuts.add(backupShortcut);
 			}
 		}
-		List<Database> databases = readDatabases(TesterType.CMU);
 		List<Shortcut> unusedShortcuts = new ArrayList<>();
 		for (Shortcut actualShortcut : actualShortcuts) {
 			if (findProfileByName(databases, actualShortcut.getName()) == null) {
@@ -38,6 +38,10 @@ public class ConfigData {
 	private static final String DEFAULT_CMW_DATABASE_FOLDER = "\\Profiles\\CMWrun Folders";
 	private static final String DEFAULT_CMU_SHORTCUT_FOLDER = "\\Profiles\\CMUgo Folders\\Scripts";
 	private static final int PASSWORD_SHIFT_VALUE = 0;
+	private static final int DEFAULT_REPORT_THREADS = 4;
+	private static final int MAX_REPORT_THREADS = 16;
+	private static final int DEFAULT_REPORT_CACHE_SIZE = 100000;
+	private static final int MIN_REPORT_CACHE_SIZE = 1000;
 
 	private final IniParser iniParser;
 	private String networkFolder;
@@ -309,6 +313,8 @@ public class ConfigData {
 		settingsMap.put("preloadCmu", String.valueOf(config.isPreloadCmu()));
 		settingsMap.put("preloadCmw", String.valueOf(config.isPreloadCmw()));
 		settingsMap.put("preloadReports", String.valueOf(config.isPreloadReports()));
+		settingsMap.put("reportThreads", String.valueOf(config.getReportThreads()));
+		settingsMap.put("reportCacheSize", String.valueOf(config.getReportCacheSize()));
 		String dataFile = testMode ? DATAFILE_TEST : DATAFILE;
 		iniParser.writeIniFile(dataFile, settingsMap);
 	}
@@ -347,6 +353,26 @@ public class ConfigData {
 				case "preloadReports":
 					config.setPreloadReports(Boolean.parseBoolean(entry.getValue()));
 					break;
+				case "reportThreads":
+					try {
+						int reportThreads = Integer.parseInt(entry.getValue());
+						if (reportThreads > 0 && reportThreads <= MAX_REPORT_THREADS) {
+							config.setReportThreads(reportThreads);
+						}
+					} catch (NumberFormatException exception) {
+						System.out.println("Invalid report thread count: " + entry.getValue());
+					}
+					break;
+				case "reportCacheSize":
+					try {
+						int reportCacheSize = Integer.parseInt(entry.getValue());
+						if (reportCacheSize >= MIN_REPORT_CACHE_SIZE) {
+							config.setReportCacheSize(reportCacheSize);
+						}
+					} catch (NumberFormatException exception) {
+						System.out.println("Invalid report cache size: " + entry.getValue());
+					}
+					break;
 			}
 		}
 		if (config.getFilterOption().isEmpty()) {
@@ -358,6 +384,12 @@ public class ConfigData {
 		if (config.getDefaultSource().isEmpty()) {
 			config.setDefaultSource(VALID_SOURCE_OPTIONS.get(0));
 		}
+		if (config.getReportThreads() == 0) {
+			config.setReportThreads(DEFAULT_REPORT_THREADS);
+		}
+		if (config.getReportCacheSize() == 0) {
+			config.setReportCacheSize(DEFAULT_REPORT_CACHE_SIZE);
+		}
 		return config;
 	}
 
@@ -11,6 +11,7 @@ import hu.open.assistant.rf.model.database.CmuDatabase;
 import hu.open.assistant.rf.model.database.CmwDatabase;
 import hu.open.assistant.rf.model.database.Database;
 import hu.open.assistant.rf.model.database.backup.CmuDatabaseBackup;
+import hu.open.assistant.rf.model.database.backup.CmwDatabaseBackup;
 import hu.open.assistant.rf.model.database.backup.DatabaseBackup;
 import hu.open.assistant.rf.model.profile.CmuProfile;
 import hu.open.assistant.rf.model.profile.CmwProfile;
@@ -19,37 +20,69 @@ import hu.open.assistant.rf.model.profile.parts.ProfileParts;
 import hu.open.assistant.rf.model.profile.values.CmuProfileValues;
 import hu.open.assistant.rf.model.profile.values.CmwProfileValues;
 import hu.open.assistant.rf.model.profile.values.ProfileValues;
+import hu.open.assistant.commons.data.CsvParser;
 import hu.open.assistant.commons.data.FileHandler;
+import hu.open.assistant.commons.data.FileTransaction;
 import hu.open.assistant.commons.data.JsonParser;
+import hu.open.assistant.commons.data.JsonStreamReader;
+import hu.open.assistant.commons.util.CodingHelper;
 import hu.open.assistant.commons.util.DateHelper;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.DateTimeException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Data class which reads pre-processed attenuation databases and writes logical databases from or to the disk. Beside
  * the database and its profiles the backup file also contains extra position and script (for CMU) information related
  * to the profiles. Backup files are stored separately by each time a backup is made (CMU or CMW type) in JSON format.
  * The profiles, equipments and shortcuts are placed and handled within a logical profile backup (CMU or CMW type).
- * There is an option to delete an already existing backup file.
+ * There is an option to delete an already existing backup file. A backup file only lists the content hashes of its
+ * profile records, the records themselves are kept in a profile record store per station. A backup with new records
+ * rewrites the store together with the backup file in one transaction, so a failed write never damages the store of
+ * earlier backups. Both files are GZIP compressed and only the needed records are kept in memory when reading. Records no longer used by any backup are removed
+ * from the store when a backup is deleted. Backups written in the former plain JSON format can still be read. The
+ * profile records are read token by token, the profiles are built directly without a JSON object tree of the backup.
+ * A backup catalogue (serial, tester type, date, profile count, file size and checksum of every backup) is maintained
+ * on write and delete, so the backups can be listed without reading them and verified against their files later.
  */
 public class DatabaseBackupData {
 
-    private static final String DATAFILE_EXTENSION = ".json";
+    private static final String DATAFILE_EXTENSION = ".json.gz";
+    private static final String LEGACY_DATAFILE_EXTENSION = ".json";
+    private static final String RECORDS_DATAFILE_SUFFIX = "_profiles.gz";
+    private static final int PROFILE_HASH_LENGTH = 32;
+    private static final String CATALOG_DATAFILE = "backup_catalog.csv";
+
+    private static final String[] CATALOG_HEADER = {"serial", "testerType", "dateTime", "profileCount", "size", "checksum"};
 
     private final JsonParser jsonParser;
+    private final CsvParser csvParser;
     private final FileHandler fileHandler;
     private final String backupFolder;
     private ProfileParts profileParts;
     private List<Equipment> equipments;
+    private final Map<Integer, Set<String>> profileRecordHashes = new HashMap<>();
+    private final Map<Integer, String> profileRecordStamps = new HashMap<>();
 
-    public DatabaseBackupData(String backupFolder, JsonParser jsonParser, FileHandler fileHandler, ProfileParts profileParts, List<Equipment> equipments) {
+    public DatabaseBackupData(String backupFolder, JsonParser jsonParser, CsvParser csvParser, FileHandler fileHandler, ProfileParts profileParts, List<Equipment> equipments) {
         this.backupFolder = backupFolder;
         this.jsonParser = jsonParser;
+        this.csvParser = csvParser;
         this.fileHandler = fileHandler;
         this.profileParts = profileParts;
         this.equipments = equipments;
@@ -63,118 +96,563 @@ public class DatabaseBackupData {
         this.equipments = equipments;
     }
 
-    private String getBackupFilename(int serial, LocalDateTime dateTime) {
-        return serial + "_" + DateHelper.localDateTimeToFilename(dateTime) + DATAFILE_EXTENSION;
+    private String getBackupPath(int serial, LocalDateTime dateTime, String extension) {
+        return backupFolder + "\\" + serial + "_" + DateHelper.localDateTimeToFilename(dateTime) + extension;
     }
 
-    public void deleteBackup(DatabaseBackup databaseBackup) {
-        String filename = getBackupFilename(databaseBackup.getSerial(), databaseBackup.getDateTime());
-        fileHandler.deleteFile(backupFolder + "\\" + filename);
+    private String getProfileRecordsPath(int serial) {
+        return backupFolder + "\\" + serial + RECORDS_DATAFILE_SUFFIX;
     }
 
-    public void readDatabaseBackupContent(DatabaseBackup databaseBackup) {
-        Database database;
-        List<Shortcut> shortcuts = null;
-        String filename = getBackupFilename(databaseBackup.getSerial(), databaseBackup.getDateTime());
-        JSONObject rootJsonObject = jsonParser.readJsonObject(backupFolder + "\\" + filename, false);
-        if (rootJsonObject == null) {
-            System.out.println("Backup file validation failed: " + filename);
-            return;
+    private String getBackupFilePath(DatabaseBackup databaseBackup) {
+        String legacyFilePath = getBackupPath(databaseBackup.getSerial(), databaseBackup.getDateTime(), LEGACY_DATAFILE_EXTENSION);
+        if (fileHandler.fileExists(legacyFilePath)) {
+            return legacyFilePath;
+        }
+        return getBackupPath(databaseBackup.getSerial(), databaseBackup.getDateTime(), DATAFILE_EXTENSION);
+    }
+
+    /**
+     * Read the backup headers from the backup catalogue without touching the backup files.
+     *
+     * @return backups (without content) newest first or null if there is no valid catalogue yet
+     */
+    public synchronized List<DatabaseBackup> readBackupCatalog() {
+        String filePath = backupFolder + "\\" + CATALOG_DATAFILE;
+        if (!fileHandler.fileExists(filePath)) {
+            return null;
         }
-        TesterType backupType = null;
-        if (rootJsonObject.optString("testerType").equals("cmu")) {
-            backupType = TesterType.CMU;
-            shortcuts = new ArrayList<>();
-        } else if (rootJsonObject.optString("testerType").equals("cmw")) {
-            backupType = TesterType.CMW;
+        List<String[]> records = csvParser.readCsvFile(filePath);
+        if (records.isEmpty() || !Arrays.equals(records.get(0), CATALOG_HEADER)) {
+            return null;
         }
-        int serial = rootJsonObject.optInt("serial");
-        LocalDateTime dateTime = DateHelper.isoTextDateTimeToLocalDateTime(rootJsonObject.getString("dateTime"));
-        if (backupType == null || serial != databaseBackup.getSerial() || !dateTime.equals(databaseBackup.getDateTime())) {
-            System.out.println("Backup file validation failed: " + filename);
+        records.remove(0);
+        List<DatabaseBackup> backups = new ArrayList<>();
+        for (String[] record : records) {
+            if (record[CATALOG_HEADER.length - 1] == null) {
+                System.out.println("Corrupted backup catalogue record: " + String.join(",", Arrays.asList(record)));
+                continue;
+            }
+            try {
+                int serial = Integer.parseInt(record[0]);
+                LocalDateTime dateTime = DateHelper.isoTextDateTimeToLocalDateTime(record[2]);
+                DatabaseBackup backup;
+                if (TesterType.getByName(record[1]) == TesterType.CMW) {
+                    backup = new CmwDatabaseBackup(serial, dateTime);
+                } else {
+                    backup = new CmuDatabaseBackup(serial, dateTime);
+                }
+                backup.setProfileCount(Integer.parseInt(record[3]));
+                backup.setSize(Long.parseLong(record[4]));
+                backup.setChecksum(record[5]);
+                backups.add(backup);
+            } catch (IllegalArgumentException | DateTimeException exception) {
+                System.out.println("Corrupted backup catalogue record: " + String.join(",", Arrays.asList(record)));
+            }
+        }
+        backups.sort(Comparator.comparing(DatabaseBackup::getDateTime).reversed());
+        return backups;
+    }
+
+    /**
+     * Create the backup catalogue for already existing backups (which were made before the catalogue was introduced).
+     * The catalogue information is read from the backup files.
+     *
+     * @param backups backup headers to catalogue
+     */
+    public synchronized void createBackupCatalog(List<DatabaseBackup> backups) {
+        List<String[]> records = new ArrayList<>();
+        for (DatabaseBackup backup : backups) {
+            readCatalogInfo(backup);
+            records.add(backupToCatalogRecord(backup));
+        }
+        csvParser.writeCsvFileAtomic(backupFolder + "\\" + CATALOG_DATAFILE, records, CATALOG_HEADER);
+    }
+
+    private void addCatalogEntry(DatabaseBackup backup) {
+        String filePath = backupFolder + "\\" + CATALOG_DATAFILE;
+        if (fileHandler.fileExists(filePath)) {
+            readCatalogInfo(backup);
+            List<String[]> records = new ArrayList<>();
+            records.add(backupToCatalogRecord(backup));
+            csvParser.writeCsvFile(filePath, records, CATALOG_HEADER, true);
+        }
+    }
+
+    private void removeCatalogEntry(DatabaseBackup backup) {
+        String filePath = backupFolder + "\\" + CATALOG_DATAFILE;
+        if (fileHandler.fileExists(filePath)) {
+            String serial = String.valueOf(backup.getSerial());
+            String dateTime = DateHelper.localDateTimeToIsoTextDateTime(backup.getDateTime());
+            List<String[]> records = csvParser.readCsvFile(filePath);
+            if (!records.isEmpty() && Arrays.equals(records.get(0), CATALOG_HEADER)) {
+                records.remove(0);
+                records.removeIf(record -> serial.equals(record[0]) && dateTime.equals(record[2]));
+                csvParser.writeCsvFileAtomic(filePath, records, CATALOG_HEADER);
+            }
+        }
+    }
+
+    private String[] backupToCatalogRecord(DatabaseBackup backup) {
+        String[] record = new String[CATALOG_HEADER.length];
+        record[0] = String.valueOf(backup.getSerial());
+        record[1] = backup.getTesterType().getName();
+        record[2] = DateHelper.localDateTimeToIsoTextDateTime(backup.getDateTime());
+        record[3] = String.valueOf(backup.getProfileCount());
+        record[4] = String.valueOf(backup.getSize());
+        record[5] = backup.getChecksum();
+        return record;
+    }
+
+    private void readCatalogInfo(DatabaseBackup backup) {
+        String filePath = getBackupFilePath(backup);
+        byte[] content = fileHandler.fileExists(filePath) ? fileHandler.readBytes(filePath) : null;
+        if (content == null) {
             return;
         }
-        database = backupType == TesterType.CMU ? new CmuDatabase(serial) : new CmwDatabase(serial);
-        JSONArray jsonArray = rootJsonObject.optJSONArray("profiles");
-        if (jsonArray != null) {
-            for (int i = 0; i < jsonArray.length(); i++) {
-                JSONObject jsonObject = (JSONObject) jsonArray.get(i);
-                String profileType;
-                String profileManufacturer;
-                String profileBox;
-                String profilePosition;
-                long storeTac;
-                Profile profile;
-                Equipment equipment = new Equipment();
-                ProfileValues values = backupType == TesterType.CMU ? new CmuProfileValues() : new CmwProfileValues();
-                try {
-                    profileType = jsonObject.getString("type");
-                    profileManufacturer = jsonObject.getString("manufacturer");
-                    profileBox = jsonObject.getString("box");
-                    profilePosition = jsonObject.getString("position");
-                    for (int j = 0; j < 3; j++) {
-                        values.setWcdma1InValue(jsonObject.getJSONArray("wcdma1InValues").getDouble(j), j);
-                        values.setWcdma1OutValue(jsonObject.getJSONArray("wcdma1OutValues").getDouble(j), j);
-                        values.setWcdma8InValue(jsonObject.getJSONArray("wcdma8InValues").getDouble(j), j);
-                        values.setWcdma8OutValue(jsonObject.getJSONArray("wcdma8OutValues").getDouble(j), j);
-                        values.setGsm900InValue(jsonObject.getJSONArray("gsm900InValues").getDouble(j), j);
-                        values.setGsm900OutValue(jsonObject.getJSONArray("gsm900OutValues").getDouble(j), j);
-                        values.setGsm1800InValue(jsonObject.getJSONArray("gsm1800InValues").getDouble(j), j);
-                        values.setGsm1800OutValue(jsonObject.getJSONArray("gsm1800OutValues").getDouble(j), j);
-                    }
-                    equipment.setType(profileType);
-                    equipment.setManufacturer(profileManufacturer);
-                    if (backupType == TesterType.CMU) {
-                        equipment.setCmuPositionDetail(jsonObject.getString("positionDetail"));
-                        profile = new CmuProfile(serial, profileType, profileManufacturer, profileBox, profilePosition, (CmuProfileValues) values, 0);
-                        int listNumber = jsonObject.getInt("listNumber");
-                        String script = jsonObject.getString("script");
-                        String shortBox = jsonObject.getString("shortBox");
-                        shortcuts.add(new Shortcut(listNumber, profileManufacturer, profileType, new ShieldBox(new Contraction(profileBox, shortBox)), profilePosition, script));
-                    } else {
-                        equipment.setCmwPositionDetail(jsonObject.getString("positionDetail"));
-                        for (int j = 0; j < 3; j++) {
-                            ((CmwProfileValues) values).setLte1InValue(jsonObject.getJSONArray("lte1InValues").getDouble(j), j);
-                            ((CmwProfileValues) values).setLte1OutValue(jsonObject.getJSONArray("lte1OutValues").getDouble(j), j);
-                            ((CmwProfileValues) values).setLte3InValue(jsonObject.getJSONArray("lte3InValues").getDouble(j), j);
-                            ((CmwProfileValues) values).setLte3OutValue(jsonObject.getJSONArray("lte3OutValues").getDouble(j), j);
-                            ((CmwProfileValues) values).setLte7InValue(jsonObject.getJSONArray("lte7InValues").getDouble(j), j);
-                            ((CmwProfileValues) values).setLte7OutValue(jsonObject.getJSONArray("lte7OutValues").getDouble(j), j);
-                            ((CmwProfileValues) values).setLte20InValue(jsonObject.getJSONArray("lte20InValues").getDouble(j), j);
-                            ((CmwProfileValues) values).setLte20OutValue(jsonObject.getJSONArray("lte20OutValues").getDouble(j), j);
-                        }
-                        storeTac = jsonObject.getLong("storeTac");
-                        JSONArray tacJsonArray = jsonObject.getJSONArray("tacList");
-                        List<Long> tacList = new ArrayList<>();
-                        for (int j = 0; j < tacJsonArray.length(); j++) {
-                            tacList.add(tacJsonArray.getLong(j));
+        backup.setSize(content.length);
+        backup.setChecksum(CodingHelper.bytesToSha256Hex(content));
+        if (filePath.endsWith(DATAFILE_EXTENSION)) {
+            JSONObject rootJsonObject = readCompressedJsonObject(filePath);
+            JSONArray hashJsonArray = rootJsonObject != null ? rootJsonObject.optJSONArray("profileHashes") : null;
+            if (hashJsonArray != null) {
+                backup.setProfileCount(hashJsonArray.length());
+            }
+        } else {
+            backup.setProfileCount(countLegacyProfiles(filePath));
+        }
+    }
+
+    private int countLegacyProfiles(String filePath) {
+        int profileCount = -1;
+        try (JsonStreamReader reader = jsonParser.openJsonStream(filePath)) {
+            if (reader != null) {
+                reader.beginObject();
+                String name;
+                while ((name = reader.nextName()) != null) {
+                    if (name.equals("profiles")) {
+                        profileCount = 0;
+                        reader.beginArray();
+                        while (reader.hasNextElement()) {
+                            reader.skipValue();
+                            profileCount++;
                         }
-                        profile = new CmwProfile(serial, profileType, profileManufacturer, profileBox, profilePosition, (CmwProfileValues) values, 0, storeTac, tacList);
+                    } else {
+                        reader.skipValue();
                     }
-                    profile.checkCondition();
-                    database.addProfile(profile);
-                    equipment.initDefaultValues();
-                    databaseBackup.getEquipments().add(equipment);
-                } catch (JSONException exception) {
-                    System.out.println("Backup processing error: ");
-                    System.out.println(exception.getMessage());
+                }
+            }
+        } catch (IOException | JSONException exception) {
+            System.out.println("Backup processing error: " + filePath);
+            profileCount = -1;
+        }
+        return profileCount;
+    }
+
+    /**
+     * Check the backup file against the catalogue information (size and checksum) and check that all profile records
+     * of the backup are present. Can be called in parallel for several backups.
+     *
+     * @param backup backup to verify
+     * @return true if the backup can be restored
+     */
+    public boolean verifyBackup(DatabaseBackup backup) {
+        String filePath = getBackupFilePath(backup);
+        byte[] content = fileHandler.fileExists(filePath) ? fileHandler.readBytes(filePath) : null;
+        if (content == null || content.length != backup.getSize() || !CodingHelper.bytesToSha256Hex(content).equals(backup.getChecksum())) {
+            return false;
+        }
+        if (filePath.endsWith(DATAFILE_EXTENSION)) {
+            JSONObject rootJsonObject = readCompressedJsonObject(filePath);
+            JSONArray hashJsonArray = rootJsonObject != null ? rootJsonObject.optJSONArray("profileHashes") : null;
+            if (hashJsonArray == null) {
+                return false;
+            }
+            List<String> hashes = new ArrayList<>();
+            for (int i = 0; i < hashJsonArray.length(); i++) {
+                hashes.add(hashJsonArray.optString(i));
+            }
+            synchronized (this) {
+                if (!readProfileRecordHashes(backup.getSerial(), false).containsAll(hashes)) {
+                    return readProfileRecordHashes(backup.getSerial(), true).containsAll(hashes);
+                }
+            }
+        }
+        return true;
+    }
+
+    public synchronized void deleteBackup(DatabaseBackup databaseBackup) {
+        String legacyFilePath = getBackupPath(databaseBackup.getSerial(), databaseBackup.getDateTime(), LEGACY_DATAFILE_EXTENSION);
+        if (fileHandler.fileExists(legacyFilePath)) {
+            fileHandler.deleteFile(legacyFilePath);
+        } else {
+            fileHandler.deleteFile(getBackupPath(databaseBackup.getSerial(), databaseBackup.getDateTime(), DATAFILE_EXTENSION));
+            removeUnusedProfileRecords(databaseBackup.getSerial());
+        }
+        removeCatalogEntry(databaseBackup);
+    }
+
+    private void removeUnusedProfileRecords(int serial) {
+        Set<String> usedHashes = new HashSet<>();
+        String prefix = serial + "_";
+        for (String filename : fileHandler.listFiles(backupFolder)) {
+            if (filename.startsWith(prefix) && filename.endsWith(DATAFILE_EXTENSION)) {
+                JSONObject jsonObject = readCompressedJsonObject(backupFolder + "\\" + filename);
+                JSONArray hashJsonArray = jsonObject != null ? jsonObject.optJSONArray("profileHashes") : null;
+                if (hashJsonArray == null) {
                     return;
                 }
+                for (int i = 0; i < hashJsonArray.length(); i++) {
+                    usedHashes.add(hashJsonArray.optString(i));
+                }
             }
         }
+        String filePath = getProfileRecordsPath(serial);
+        if (usedHashes.isEmpty()) {
+            if (fileHandler.fileExists(filePath)) {
+                fileHandler.deleteFile(filePath);
+            }
+            profileRecordHashes.remove(serial);
+            profileRecordStamps.remove(serial);
+            return;
+        }
+        Map<String, String> records = readProfileRecords(serial, null);
+        if (!usedHashes.containsAll(records.keySet())) {
+            records.keySet().retainAll(usedHashes);
+            FileTransaction transaction = fileHandler.beginTransaction();
+            transaction.writeGzipUtf8Text(filePath, recordsToLines(records));
+            transaction.commit();
+            profileRecordHashes.remove(serial);
+            profileRecordStamps.remove(serial);
+        }
+    }
+
+    private Set<String> readProfileRecordHashes(int serial, boolean forceRead) {
+        String filePath = getProfileRecordsPath(serial);
+        String stamp = fileHandler.getFileStamp(filePath);
+        Set<String> hashes = profileRecordHashes.get(serial);
+        if (forceRead || hashes == null || stamp == null || !stamp.equals(profileRecordStamps.get(serial))) {
+            Set<String> storedHashes = new HashSet<>();
+            if (stamp != null) {
+                fileHandler.readGzipUtf8TextToList(filePath, line -> {
+                    int separator = line.indexOf('\t');
+                    if (separator > 0) {
+                        storedHashes.add(line.substring(0, separator));
+                    }
+                    return false;
+                });
+            }
+            hashes = storedHashes;
+            profileRecordHashes.put(serial, hashes);
+            profileRecordStamps.put(serial, stamp);
+        }
+        return hashes;
+    }
+
+    private Map<String, String> readProfileRecords(int serial, Set<String> hashes) {
+        Map<String, String> records = new LinkedHashMap<>();
+        String filePath = getProfileRecordsPath(serial);
+        if (fileHandler.fileExists(filePath)) {
+            List<String> lines = fileHandler.readGzipUtf8TextToList(filePath, line -> {
+                int separator = line.indexOf('\t');
+                return separator > 0 && (hashes == null || hashes.contains(line.substring(0, separator)));
+            });
+            if (lines != null) {
+                for (String line : lines) {
+                    int separator = line.indexOf('\t');
+                    records.put(line.substring(0, separator), line.substring(separator + 1));
+                }
+            }
+        }
+        return records;
+    }
+
+    private List<String> recordsToLines(Map<String, String> records) {
+        List<String> lines = new ArrayList<>(records.size());
+        records.forEach((hash, record) -> lines.add(hash + "\t" + record));
+        return lines;
+    }
+
+    private JSONObject readCompressedJsonObject(String filePath) {
+        List<String> lines = fileHandler.readGzipUtf8TextToList(filePath);
+        if (lines != null) {
+            try {
+                return new JSONObject(String.join("", lines));
+            } catch (JSONException exception) {
+                System.out.println(exception.getMessage());
+            }
+        }
+        return null;
+    }
+
+    public synchronized void readDatabaseBackupContent(DatabaseBackup databaseBackup) {
+        int serial = databaseBackup.getSerial();
+        String filename = serial + "_" + DateHelper.localDateTimeToFilename(databaseBackup.getDateTime());
+        Database database = databaseBackup.getTesterType() == TesterType.CMU ? new CmuDatabase(serial) : new CmwDatabase(serial);
+        List<Equipment> backupEquipments = new ArrayList<>();
+        List<Shortcut> shortcuts = new ArrayList<>();
+        boolean valid;
+        String legacyFilePath = getBackupPath(serial, databaseBackup.getDateTime(), LEGACY_DATAFILE_EXTENSION);
+        try {
+            if (fileHandler.fileExists(legacyFilePath)) {
+                valid = readLegacyBackupFile(legacyFilePath, databaseBackup, database, backupEquipments, shortcuts);
+            } else {
+                valid = readBackupFile(databaseBackup, database, backupEquipments, shortcuts);
+            }
+        } catch (JSONException | DateTimeException exception) {
+            System.out.println("Backup processing error: ");
+            System.out.println(exception.getMessage());
+            return;
+        }
+        if (!valid) {
+            System.out.println("Backup file validation failed: " + filename);
+            return;
+        }
+        databaseBackup.getEquipments().addAll(backupEquipments);
         databaseBackup.setDatabase(database);
-        if (backupType == TesterType.CMU) {
+        if (databaseBackup.getTesterType() == TesterType.CMU) {
             ((CmuDatabaseBackup) databaseBackup).setShortcuts(shortcuts);
         }
     }
 
-    public void writeDatabaseBackup(DatabaseBackup backup) {
+    private boolean readBackupFile(DatabaseBackup databaseBackup, Database database, List<Equipment> backupEquipments, List<Shortcut> shortcuts) {
+        JSONObject rootJsonObject = readCompressedJsonObject(getBackupPath(databaseBackup.getSerial(), databaseBackup.getDateTime(), DATAFILE_EXTENSION));
+        if (rootJsonObject == null || !isBackupOf(databaseBackup, rootJsonObject.optInt("serial"),
+                rootJsonObject.optString("testerType"), rootJsonObject.optString("dateTime"))) {
+            return false;
+        }
+        JSONArray hashJsonArray = rootJsonObject.optJSONArray("profileHashes");
+        if (hashJsonArray != null) {
+            Set<String> hashes = new HashSet<>();
+            for (int i = 0; i < hashJsonArray.length(); i++) {
+                hashes.add(hashJsonArray.optString(i));
+            }
+            Map<String, String> records = readProfileRecords(databaseBackup.getSerial(), hashes);
+            for (int i = 0; i < hashJsonArray.length(); i++) {
+                String hash = hashJsonArray.optString(i);
+                String record = records.get(hash);
+                if (record == null) {
+                    System.out.println("Backup profile record not found: " + hash);
+                    return false;
+                }
+                readProfile(new JsonStreamReader(new StringReader(record)), databaseBackup, database, backupEquipments, shortcuts);
+            }
+        }
+        return true;
+    }
+
+    private boolean readLegacyBackupFile(String filePath, DatabaseBackup databaseBackup, Database database, List<Equipment> backupEquipments, List<Shortcut> shortcuts) {
+        int serial = -1;
+        String testerType = "";
+        String dateTime = "";
+        try (JsonStreamReader reader = jsonParser.openJsonStream(filePath)) {
+            if (reader == null) {
+                return false;
+            }
+            reader.beginObject();
+            String name;
+            while ((name = reader.nextName()) != null) {
+                switch (name) {
+                    case "serial":
+                        serial = reader.nextInt();
+                        break;
+                    case "testerType":
+                        testerType = reader.nextString();
+                        break;
+                    case "dateTime":
+                        dateTime = reader.nextString();
+                        break;
+                    case "profiles":
+                        reader.beginArray();
+                        while (reader.hasNextElement()) {
+                            readProfile(reader, databaseBackup, database, backupEquipments, shortcuts);
+                        }
+                        break;
+                    default:
+                        reader.skipValue();
+                }
+            }
+        } catch (IOException exception) {
+            System.out.println("Json file read error: " + filePath);
+            return false;
+        }
+        return isBackupOf(databaseBackup, serial, testerType, dateTime);
+    }
+
+    private boolean isBackupOf(DatabaseBackup databaseBackup, int serial, String testerType, String dateTime) {
+        return serial == databaseBackup.getSerial() && testerType.equals(databaseBackup.getTesterType().getName()) && !dateTime.isEmpty() &&
+                DateHelper.isoTextDateTimeToLocalDateTime(dateTime).equals(databaseBackup.getDateTime());
+    }
+
+    private void readProfile(JsonStreamReader reader, DatabaseBackup databaseBackup, Database database, List<Equipment> backupEquipments, List<Shortcut> shortcuts) {
+        TesterType backupType = databaseBackup.getTesterType();
+        int serial = databaseBackup.getSerial();
+        String profileType = null;
+        String profileManufacturer = null;
+        String profileBox = null;
+        String profilePosition = null;
+        String positionDetail = null;
+        String script = null;
+        String shortBox = null;
+        Integer listNumber = null;
+        Long storeTac = null;
+        List<Long> tacList = null;
+        int valueArrays = 0;
+        ProfileValues values = backupType == TesterType.CMU ? new CmuProfileValues() : new CmwProfileValues();
+        reader.beginObject();
+        String name;
+        while ((name = reader.nextName()) != null) {
+            ValueSetter valueSetter = getValueSetter(name, values);
+            if (valueSetter != null) {
+                readValues(reader, valueSetter);
+                valueArrays++;
+                continue;
+            }
+            switch (name) {
+                case "type":
+                    profileType = reader.nextString();
+                    break;
+                case "manufacturer":
+                    profileManufacturer = reader.nextString();
+                    break;
+                case "box":
+                    profileBox = reader.nextString();
+                    break;
+                case "position":
+                    profilePosition = reader.nextString();
+                    break;
+                case "positionDetail":
+                    positionDetail = reader.nextString();
+                    break;
+                case "script":
+                    script = reader.nextString();
+                    break;
+                case "shortBox":
+                    shortBox = reader.nextString();
+                    break;
+                case "listNumber":
+                    listNumber = reader.nextInt();
+                    break;
+                case "storeTac":
+                    storeTac = reader.nextLong();
+                    break;
+                case "tacList":
+                    tacList = new ArrayList<>();
+                    reader.beginArray();
+                    while (reader.hasNextElement()) {
+                        tacList.add(reader.nextLong());
+                    }
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        if (profileType == null || profileManufacturer == null || profileBox == null || profilePosition == null || positionDetail == null ||
+                valueArrays < (backupType == TesterType.CMU ? 8 : 16)) {
+            throw new JSONException("Incomplete profile in backup: " + profileManufacturer + " " + profileType);
+        }
+        Profile profile;
+        Equipment equipment = new Equipment();
+        equipment.setType(profileType);
+        equipment.setManufacturer(profileManufacturer);
+        if (backupType == TesterType.CMU) {
+            if (listNumber == null || script == null || shortBox == null) {
+                throw new JSONException("Incomplete shortcut in backup: " + profileManufacturer + " " + profileType);
+            }
+            equipment.setCmuPositionDetail(positionDetail);
+            profile = new CmuProfile(serial, profileType, profileManufacturer, profileBox, profilePosition, (CmuProfileValues) values, 0);
+            shortcuts.add(new Shortcut(listNumber, profileManufacturer, profileType, new ShieldBox(new Contraction(profileBox, shortBox)), profilePosition, script));
+        } else {
+            if (storeTac == null || tacList == null) {
+                throw new JSONException("Incomplete TAC list in backup: " + profileManufacturer + " " + profileType);
+            }
+            equipment.setCmwPositionDetail(positionDetail);
+            profile = new CmwProfile(serial, profileType, profileManufacturer, profileBox, profilePosition, (CmwProfileValues) values, 0, storeTac, tacList);
+        }
+        profile.checkCondition();
+        database.addProfile(profile);
+        equipment.initDefaultValues();
+        backupEquipments.add(equipment);
+    }
+
+    private ValueSetter getValueSetter(String name, ProfileValues values) {
+        switch (name) {
+            case "wcdma1InValues":
+                return values::setWcdma1InValue;
+            case "wcdma1OutValues":
+                return values::setWcdma1OutValue;
+            case "wcdma8InValues":
+                return values::setWcdma8InValue;
+            case "wcdma8OutValues":
+                return values::setWcdma8OutValue;
+            case "gsm900InValues":
+                return values::setGsm900InValue;
+            case "gsm900OutValues":
+                return values::setGsm900OutValue;
+            case "gsm1800InValues":
+                return values::setGsm1800InValue;
+            case "gsm1800OutValues":
+                return values::setGsm1800OutValue;
+        }
+        if (values instanceof CmwProfileValues) {
+            CmwProfileValues cmwValues = (CmwProfileValues) values;
+            switch (name) {
+                case "lte1InValues":
+                    return cmwValues::setLte1InValue;
+                case "lte1OutValues":
+                    return cmwValues::setLte1OutValue;
+                case "lte3InValues":
+                    return cmwValues::setLte3InValue;
+                case "lte3OutValues":
+                    return cmwValues::setLte3OutValue;
+                case "lte7InValues":
+                    return cmwValues::setLte7InValue;
+                case "lte7OutValues":
+                    return cmwValues::setLte7OutValue;
+                case "lte20InValues":
+                    return cmwValues::setLte20InValue;
+                case "lte20OutValues":
+                    return cmwValues::setLte20OutValue;
+            }
+        }
+        return null;
+    }
+
+    private void readValues(JsonStreamReader reader, ValueSetter valueSetter) {
+        int index = 0;
+        reader.beginArray();
+        while (reader.hasNextElement()) {
+            double value = reader.nextDouble();
+            if (index < 3) {
+                valueSetter.setValue(value, index);
+            }
+            index++;
+        }
+        if (index < 3) {
+            throw new JSONException("Missing profile values");
+        }
+    }
+
+    private interface ValueSetter {
+        void setValue(double value, int index);
+    }
+
+    /**
+     * Write a backup of a database. The new profile records are added to the record store of the station by rewriting
+     * the store, and the store and the backup file are replaced together in one transaction.
+     *
+     * @param backup backup to write
+     * @return true if the backup was written
+     */
+    public synchronized boolean writeDatabaseBackup(DatabaseBackup backup) {
         JSONObject rootJsonObject = new JSONObject();
         LocalDateTime dateTime = backup.getDateTime();
         rootJsonObject.put("serial", backup.getSerial());
         rootJsonObject.put("testerType", backup.getTesterType().getName());
         rootJsonObject.put("dateTime", DateHelper.localDateTimeToIsoTextDateTime(dateTime));
-        JSONArray jsonArray = new JSONArray();
+        Set<String> storedHashes = readProfileRecordHashes(backup.getSerial(), false);
+        Map<String, String> newRecords = new LinkedHashMap<>();
+        JSONArray hashJsonArray = new JSONArray();
         for (Profile profile : backup.getDatabase().getProfiles()) {
             JSONObject jsonObject = new JSONObject();
             Equipment equipment = EquipmentFilter.getEquipmentByName(equipments, profile.getName());
@@ -222,9 +700,31 @@ public class DatabaseBackupData {
                     jsonObject.put("positionDetail", "");
                 }
             }
-            jsonArray.put(jsonObject);
+            String record = jsonObject.toString();
+            String hash = CodingHelper.textToSha256Hex(record).substring(0, PROFILE_HASH_LENGTH);
+            if (!storedHashes.contains(hash)) {
+                newRecords.put(hash, record);
+            }
+            hashJsonArray.put(hash);
+        }
+        rootJsonObject.put("profileHashes", hashJsonArray);
+        FileTransaction transaction = fileHandler.beginTransaction();
+        if (!newRecords.isEmpty()) {
+            Map<String, String> records = readProfileRecords(backup.getSerial(), null);
+            records.putAll(newRecords);
+            transaction.writeGzipUtf8Text(getProfileRecordsPath(backup.getSerial()), recordsToLines(records));
+        }
+        transaction.writeGzipUtf8Text(getBackupPath(backup.getSerial(), backup.getDateTime(), DATAFILE_EXTENSION),
+                Collections.singletonList(rootJsonObject.toString()));
+        boolean written = transaction.commit();
+        if (written) {
+            storedHashes.addAll(newRecords.keySet());
+            profileRecordStamps.put(backup.getSerial(), fileHandler.getFileStamp(getProfileRecordsPath(backup.getSerial())));
+            addCatalogEntry(backup);
+        } else {
+            profileRecordHashes.remove(backup.getSerial());
+            profileRecordStamps.remove(backup.getSerial());
         }
-        rootJsonObject.put("profiles", jsonArray);
-        jsonParser.writeJsonObject(backupFolder + "\\" + getBackupFilename(backup.getSerial(), backup.getDateTime()), rootJsonObject);
+        return written;
     }
 }
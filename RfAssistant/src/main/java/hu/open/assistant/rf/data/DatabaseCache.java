@@ -0,0 +1,55 @@
+package hu.open.assistant.rf.data;
+
+import hu.open.assistant.rf.model.database.Database;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the last read database of every station together with the stamp of its files at the time of the read. A cached
+ * database is only handed out while the stamp of the station is unchanged, so a station is read again only when its
+ * files were modified (by this or another workstation) or when it was invalidated.
+ */
+public class DatabaseCache {
+
+    private final Map<Integer, Database> databases = new HashMap<>();
+    private final Map<Integer, String> stamps = new HashMap<>();
+    private final Map<Integer, List<String>> invalidTacs = new HashMap<>();
+
+    public Database getDatabase(int serial, String stamp) {
+        if (stamp != null && stamp.equals(stamps.get(serial))) {
+            return databases.get(serial);
+        }
+        return null;
+    }
+
+    public List<String> getInvalidTacs(int serial) {
+        return invalidTacs.get(serial);
+    }
+
+    public void putDatabase(Database database, String stamp, List<String> databaseInvalidTacs) {
+        databases.put(database.getSerial(), database);
+        stamps.put(database.getSerial(), stamp);
+        invalidTacs.put(database.getSerial(), databaseInvalidTacs);
+    }
+
+    public boolean isUpToDate(int serial, String stamp) {
+        return getDatabase(serial, stamp) != null;
+    }
+
+    public void retainSerials(Collection<Integer> serials) {
+        databases.keySet().retainAll(serials);
+        stamps.keySet().retainAll(serials);
+        invalidTacs.keySet().retainAll(serials);
+    }
+
+    public void invalidate(int serial) {
+        stamps.remove(serial);
+    }
+
+    public void invalidateAll() {
+        stamps.clear();
+    }
+}
@@ -1,25 +1,32 @@
 package hu.open.assistant.rf.data;
 
-import hu.open.assistant.rf.filter.DatabaseLogBatchFilter;
 import hu.open.assistant.rf.model.TesterType;
 import hu.open.assistant.rf.model.log.DatabaseLog;
 import hu.open.assistant.rf.model.log.batch.DatabaseLogBatch;
 import hu.open.assistant.rf.model.log.event.DatabaseLogEvent;
 import hu.open.assistant.commons.util.DateHelper;
 import hu.open.assistant.commons.data.CsvParser;
+import hu.open.assistant.commons.data.FileHandler;
 
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Data class which reads and writes database log from or to the disk. CMU and CMW database log is stored separately
  * in a compact CSV format. All log types can be written to disk without replacing the data file (appending). There
  * is an option to clear the excess log (when a database backup is removed). The logical logs are organised into
- * database log batches and placed in a database log batch container.
+ * database log batches which can be read as a sorted list or mapped by serial for direct lookup. The batches and the
+ * backup logs are kept in memory, the file is only read again when its stamp changed and then only the lines appended
+ * since the last read are parsed.
  */
 public class DatabaseLogData {
 
@@ -29,83 +36,159 @@ public class DatabaseLogData {
 
     private final String dataFolder;
     private final CsvParser csvParser;
-
-    public DatabaseLogData(String logPath, CsvParser csvParser) {
+    private final FileHandler fileHandler;
+    private final Map<Integer, DatabaseLogBatch> logBatches = new HashMap<>();
+    private final List<DatabaseLog> backupLogs = new ArrayList<>();
+    private String fileStamp;
+    private long readPosition;
+    private byte[] lastLine = new byte[0];
+
+    public DatabaseLogData(String logPath, CsvParser csvParser, FileHandler fileHandler) {
         this.dataFolder = logPath;
         this.csvParser = csvParser;
+        this.fileHandler = fileHandler;
     }
 
-    public List<DatabaseLogBatch> readDatabaseLogs() {
-        List<DatabaseLogBatch> logBatches = new ArrayList<>();
-        List<String[]> records = csvParser.readCsvFile(dataFolder + "\\" + DATAFILE);
-        if (!records.isEmpty()) {
-            if (Arrays.equals(records.get(0), HEADER)) {
-                records.remove(0);
-                List<DatabaseLog> logs = new ArrayList<>();
-                LocalDateTime dateTime;
-                DatabaseLogEvent event;
-                int serial;
-                TesterType testerType;
-                for (String[] record : records) {
-                    dateTime = DateHelper.isoTextDateTimeToLocalDateTime(record[0]);
-                    event = DatabaseLogEvent.getByName(record[1]);
-                    serial = Integer.parseInt(record[2]);
-                    testerType = TesterType.getByName(record[3]);
-                    logs.add(new DatabaseLog(dateTime, event, serial, testerType));
-                }
-                for (DatabaseLog log : logs) {
-                    sortLogIntoLogBatches(log, logBatches);
-                }
-                for (DatabaseLogBatch batch : logBatches) {
-                    batch.sortLogs();
-                }
-                Collections.sort(logBatches);
+    public synchronized List<DatabaseLogBatch> readDatabaseLogs() {
+        updateLogs();
+        List<DatabaseLogBatch> databaseLogBatches = new ArrayList<>(logBatches.values());
+        Collections.sort(databaseLogBatches);
+        return databaseLogBatches;
+    }
+
+    public synchronized Map<Integer, DatabaseLogBatch> readDatabaseLogsBySerial() {
+        updateLogs();
+        return new HashMap<>(logBatches);
+    }
+
+    public synchronized List<DatabaseLog> readDatabaseBackupLogs() {
+        updateLogs();
+        return new ArrayList<>(backupLogs);
+    }
+
+    public synchronized void removeExcessDatabaseLog(int serial, LocalDateTime dateTime) {
+        updateLogs();
+        DatabaseLog excessLog = backupLogs.stream().filter(databaseLog ->
+                databaseLog.getSerial() == serial && databaseLog.getDateTime().equals(dateTime)).findAny().orElse(null);
+        if (excessLog == null) {
+            return;
+        }
+        List<DatabaseLog> databaseLogs = new ArrayList<>();
+        for (DatabaseLogBatch logBatch : logBatches.values()) {
+            databaseLogs.addAll(logBatch.getLogs());
+        }
+        databaseLogs.remove(excessLog);
+        Collections.sort(databaseLogs);
+        List<String[]> records = new ArrayList<>(databaseLogs.size());
+        databaseLogs.forEach(log -> records.add(logToRecord(log)));
+        List<String> rawText = csvParser.writeCsvFileAtomic(dataFolder + "\\" + DATAFILE, records, HEADER);
+        if (rawText != null) {
+            backupLogs.remove(excessLog);
+            DatabaseLogBatch logBatch = logBatches.get(serial);
+            logBatch.getLogs().remove(excessLog);
+            if (logBatch.getLogs().isEmpty()) {
+                logBatches.remove(serial);
             }
+            readPosition = 0;
+            for (String line : rawText) {
+                lastLine = (line + System.lineSeparator()).getBytes(StandardCharsets.UTF_8);
+                readPosition += lastLine.length;
+            }
+            fileStamp = null;
+        } else {
+            resetLogs();
         }
-        return logBatches;
     }
 
-    public List<DatabaseLog> readDatabaseBackupLogs() {
-        List<DatabaseLog> backupLogs = new ArrayList<>();
-        List<String[]> records = csvParser.readCsvFile(dataFolder + "\\" + DATAFILE);
-        if (!records.isEmpty()) {
-            if (Arrays.equals(records.get(0), HEADER)) {
-                records.remove(0);
-                LocalDateTime dateTime;
-                DatabaseLogEvent event;
-                int serial;
-                TesterType testerType;
-                for (String[] record : records) {
-                    dateTime = DateHelper.isoTextDateTimeToLocalDateTime(record[0]);
-                    event = DatabaseLogEvent.getByName(record[1]);
-                    serial = Integer.parseInt(record[2]);
-                    testerType = TesterType.getByName(record[3]);
-                    if (event == DatabaseLogEvent.BACKUP) {
-                        backupLogs.add(new DatabaseLog(dateTime, event, serial, testerType));
+    private void updateLogs() {
+        String filePath = dataFolder + "\\" + DATAFILE;
+        String stamp = fileHandler.getFileStamp(filePath);
+        if (stamp != null && stamp.equals(fileStamp)) {
+            return;
+        }
+        long start = readPosition - lastLine.length;
+        byte[] content = fileHandler.readBytes(filePath, start);
+        if (content != null && !startsWith(content, lastLine)) {
+            resetLogs();
+            start = 0;
+            content = fileHandler.readBytes(filePath, start);
+        }
+        if (content == null) {
+            resetLogs();
+            return;
+        }
+        boolean headerLine = readPosition == 0;
+        int lineStart = lastLine.length;
+        int lastLineStart = -1;
+        Set<DatabaseLogBatch> changedBatches = new HashSet<>();
+        boolean backupsChanged = false;
+        for (int i = lineStart; i < content.length; i++) {
+            if (content[i] == '\n') {
+                int lineEnd = i > lineStart && content[i - 1] == '\r' ? i - 1 : i;
+                String[] record = csvParser.parseLine(new String(content, lineStart, lineEnd - lineStart, StandardCharsets.UTF_8), HEADER.length);
+                if (headerLine) {
+                    if (!Arrays.equals(record, HEADER)) {
+                        resetLogs();
+                        return;
+                    }
+                    headerLine = false;
+                } else {
+                    DatabaseLog log = processRecord(record, changedBatches);
+                    if (log != null && log.getEvent() == DatabaseLogEvent.BACKUP) {
+                        backupLogs.add(log);
+                        backupsChanged = true;
                     }
                 }
-                Collections.sort(backupLogs);
+                lastLineStart = lineStart;
+                lineStart = i + 1;
             }
         }
-        return backupLogs;
+        if (lastLineStart >= 0) {
+            lastLine = Arrays.copyOfRange(content, lastLineStart, lineStart);
+            readPosition = start + lineStart;
+        }
+        if (lineStart == content.length) {
+            fileStamp = stamp;
+        }
+        for (DatabaseLogBatch logBatch : changedBatches) {
+            logBatch.sortLogs();
+        }
+        if (backupsChanged) {
+            Collections.sort(backupLogs);
+        }
     }
 
-    public void removeExcessDatabaseLog(int serial, LocalDateTime dateTime) {
-        List<DatabaseLog> databaseLogs = readDatabaseLogs().stream()
-                .flatMap(databaseLogBatch -> databaseLogBatch.getLogs().stream()).collect(Collectors.toList());
-        DatabaseLog excessLog = databaseLogs.stream().filter(databaseLog ->
-                databaseLog.getEvent().equals(DatabaseLogEvent.BACKUP) &&
-                        databaseLog.getSerial() == serial &&
-                        databaseLog.getDateTime().equals(dateTime)).findAny().orElse(null);
-        databaseLogs.remove(excessLog);
-        Collections.sort(databaseLogs);
-        writeDatabaseLogs(databaseLogs);
+    private boolean startsWith(byte[] content, byte[] prefix) {
+        return content.length >= prefix.length && Arrays.equals(content, 0, prefix.length, prefix, 0, prefix.length);
     }
 
-    private void writeDatabaseLogs(List<DatabaseLog> databaseLogs) {
-        List<String[]> records = new ArrayList<>();
-        databaseLogs.forEach(log -> records.add(logToRecord(log)));
-        csvParser.writeCsvFile(dataFolder + "\\" + DATAFILE, records, HEADER, false);
+    private void resetLogs() {
+        logBatches.clear();
+        backupLogs.clear();
+        fileStamp = null;
+        readPosition = 0;
+        lastLine = new byte[0];
+    }
+
+    private DatabaseLog processRecord(String[] record, Set<DatabaseLogBatch> changedBatches) {
+        if (record[HEADER.length - 1] == null || DatabaseLogEvent.getByName(record[1]) == null) {
+            System.out.println("Corrupted database log record: " + String.join(",", Arrays.asList(record)));
+            return null;
+        }
+        try {
+            LocalDateTime dateTime = DateHelper.isoTextDateTimeToLocalDateTime(record[0]);
+            DatabaseLogEvent event = DatabaseLogEvent.getByName(record[1]);
+            int serial = Integer.parseInt(record[2]);
+            TesterType testerType = TesterType.getByName(record[3]);
+            DatabaseLog log = new DatabaseLog(dateTime, event, serial, testerType);
+            DatabaseLogBatch logBatch = logBatches.computeIfAbsent(serial, DatabaseLogBatch::new);
+            logBatch.addLog(log);
+            changedBatches.add(logBatch);
+            return log;
+        } catch (IllegalArgumentException | DateTimeException exception) {
+            System.out.println("Corrupted database log record: " + String.join(",", Arrays.asList(record)));
+            return null;
+        }
     }
 
     public void writeDatabaseCheckLog(int serial, TesterType testerType) {
@@ -137,15 +220,4 @@ public class DatabaseLogData {
         record[3] = log.getTesterType().getName();
         return record;
     }
-
-    private void sortLogIntoLogBatches(DatabaseLog log, List<DatabaseLogBatch> databaseLogs) {
-        DatabaseLogBatch logBatch = DatabaseLogBatchFilter.getDatabaseLogBatchBySerial(databaseLogs, log.getSerial());
-        if (logBatch != null) {
-            logBatch.addLog(log);
-        } else {
-            logBatch = new DatabaseLogBatch(log.getSerial());
-            logBatch.addLog(log);
-            databaseLogs.add(logBatch);
-        }
-    }
 }
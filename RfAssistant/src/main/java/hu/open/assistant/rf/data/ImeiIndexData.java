@@ -0,0 +1,220 @@
+package hu.open.assistant.rf.data;
+
+import hu.open.assistant.commons.data.FileHandler;
+import hu.open.assistant.rf.model.report.Report;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Data class which keeps a persistent IMEI index for the report cache folders. For every cached day the IMEIs are stored
+ * in the same order as the reports in the cache file of the day, so the position of an IMEI is the offset of its report.
+ * The index file is stored next to the cache folder and is only appended to: a new block of a day supersedes the
+ * previous one. The file is rewritten when the superseded blocks outnumber the live ones or when it can't be read. When
+ * the file is changed by another client, only the blocks appended since the last read are read again.
+ */
+public class ImeiIndexData {
+
+    private static final String INDEX_EXTENSION = ".idx";
+    private static final int INDEX_MAGIC = 0x52464949;
+    private static final short INDEX_VERSION = 1;
+
+    private final FileHandler fileHandler;
+    private final Map<String, Map<String, long[]>> indexes = new HashMap<>();
+    private final Map<String, Integer> supersededCounts = new HashMap<>();
+    private final Map<String, String> indexStamps = new HashMap<>();
+    private final Map<String, Long> indexLengths = new HashMap<>();
+
+    public ImeiIndexData(FileHandler fileHandler) {
+        this.fileHandler = fileHandler;
+    }
+
+    public synchronized boolean hasDay(String cacheFolder, String day) {
+        return getIndex(cacheFolder).containsKey(day);
+    }
+
+    /**
+     * Store the IMEIs of a cached day. The order of the reports must be the same as in the cache file.
+     *
+     * @param cacheFolder cache folder of the tester type
+     * @param day         name of the cache file (without extension)
+     * @param reports     reports of the day
+     */
+    public synchronized void updateDay(String cacheFolder, String day, List<Report> reports) {
+        Map<String, long[]> index = getIndex(cacheFolder);
+        long[] imeis = new long[reports.size()];
+        for (int i = 0; i < imeis.length; i++) {
+            imeis[i] = reports.get(i).getImei();
+        }
+        int superseded = supersededCounts.get(cacheFolder);
+        if (index.put(day, imeis) != null) {
+            superseded++;
+        }
+        String filePath = cacheFolder + INDEX_EXTENSION;
+        if (superseded > index.size() || !fileHandler.fileExists(filePath)) {
+            writeIndex(cacheFolder, index, false);
+            superseded = 0;
+        } else {
+            Map<String, long[]> block = new HashMap<>();
+            block.put(day, imeis);
+            writeIndex(cacheFolder, block, true);
+        }
+        supersededCounts.put(cacheFolder, superseded);
+    }
+
+    /**
+     * Look up the reports of a handset.
+     *
+     * @param cacheFolder cache folder of the tester type
+     * @param imei        IMEI of the handset
+     * @return offsets of the matching reports within the cache files, mapped by day in ascending order
+     */
+    public synchronized Map<String, List<Integer>> findImei(String cacheFolder, long imei) {
+        Map<String, List<Integer>> locations = new LinkedHashMap<>();
+        for (Map.Entry<String, long[]> entry : getIndex(cacheFolder).entrySet()) {
+            long[] imeis = entry.getValue();
+            for (int i = 0; i < imeis.length; i++) {
+                if (imeis[i] == imei) {
+                    locations.computeIfAbsent(entry.getKey(), day -> new ArrayList<>()).add(i);
+                }
+            }
+        }
+        return locations;
+    }
+
+    private Map<String, long[]> getIndex(String cacheFolder) {
+        Map<String, long[]> index = indexes.get(cacheFolder);
+        String filePath = cacheFolder + INDEX_EXTENSION;
+        String stamp = fileHandler.getFileStamp(filePath);
+        if (index != null && (stamp == null || stamp.equals(indexStamps.get(cacheFolder)) || readIndexTail(cacheFolder, index))) {
+            return index;
+        }
+        index = new TreeMap<>();
+        int superseded = 0;
+        if (stamp != null) {
+            superseded = readIndex(cacheFolder, index);
+            if (superseded < 0 || superseded > index.size()) {
+                writeIndex(cacheFolder, index, false);
+                superseded = 0;
+            }
+        }
+        indexes.put(cacheFolder, index);
+        supersededCounts.put(cacheFolder, superseded);
+        return index;
+    }
+
+    /**
+     * Read the blocks appended to the index file since it was last read or written.
+     *
+     * @return true if the index is up to date, false if the file was rewritten and has to be read again
+     */
+    private boolean readIndexTail(String cacheFolder, Map<String, long[]> index) {
+        String filePath = cacheFolder + INDEX_EXTENSION;
+        long length = indexLengths.getOrDefault(cacheFolder, 0L);
+        byte[] tail = length > 0 ? fileHandler.readBytes(filePath, length) : null;
+        if (tail == null || tail.length == 0) {
+            return false;
+        }
+        Map<String, long[]> blocks = new TreeMap<>();
+        int superseded = readBlocks(ByteBuffer.wrap(tail), blocks);
+        if (superseded < 0) {
+            return false;
+        }
+        for (Map.Entry<String, long[]> entry : blocks.entrySet()) {
+            if (index.put(entry.getKey(), entry.getValue()) != null) {
+                superseded++;
+            }
+        }
+        supersededCounts.merge(cacheFolder, superseded, Integer::sum);
+        indexLengths.put(cacheFolder, length + tail.length);
+        indexStamps.put(cacheFolder, fileHandler.getFileStamp(filePath));
+        return true;
+    }
+
+    private int readIndex(String cacheFolder, Map<String, long[]> index) {
+        String filePath = cacheFolder + INDEX_EXTENSION;
+        byte[] content = fileHandler.readBytes(filePath);
+        if (content == null) {
+            return -1;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(content);
+        try {
+            if (buffer.getInt() != INDEX_MAGIC || buffer.getShort() != INDEX_VERSION) {
+                System.out.println("Unsupported IMEI index format: " + filePath);
+                return -1;
+            }
+        } catch (BufferUnderflowException exception) {
+            System.out.println("Corrupted IMEI index: " + filePath);
+            return -1;
+        }
+        int superseded = readBlocks(buffer, index);
+        if (superseded < 0) {
+            System.out.println("Corrupted IMEI index: " + filePath);
+            return -1;
+        }
+        indexLengths.put(cacheFolder, (long) content.length);
+        indexStamps.put(cacheFolder, fileHandler.getFileStamp(filePath));
+        return superseded;
+    }
+
+    private int readBlocks(ByteBuffer buffer, Map<String, long[]> index) {
+        byte[] content = buffer.array();
+        int superseded = 0;
+        try {
+            while (buffer.hasRemaining()) {
+                int length = buffer.getShort() & 0xFFFF;
+                String day = new String(content, buffer.position(), length, StandardCharsets.UTF_8);
+                buffer.position(buffer.position() + length);
+                int count = buffer.getInt();
+                if (count < 0 || count > buffer.remaining() / Long.BYTES) {
+                    return -1;
+                }
+                long[] imeis = new long[count];
+                buffer.asLongBuffer().get(imeis);
+                buffer.position(buffer.position() + imeis.length * Long.BYTES);
+                if (index.put(day, imeis) != null) {
+                    superseded++;
+                }
+            }
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException exception) {
+            return -1;
+        }
+        return superseded;
+    }
+
+    private void writeIndex(String cacheFolder, Map<String, long[]> index, boolean append) {
+        String filePath = cacheFolder + INDEX_EXTENSION;
+        ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(byteStream)) {
+            if (!append) {
+                output.writeInt(INDEX_MAGIC);
+                output.writeShort(INDEX_VERSION);
+            }
+            for (Map.Entry<String, long[]> entry : index.entrySet()) {
+                byte[] day = entry.getKey().getBytes(StandardCharsets.UTF_8);
+                output.writeShort(day.length);
+                output.write(day);
+                output.writeInt(entry.getValue().length);
+                for (long imei : entry.getValue()) {
+                    output.writeLong(imei);
+                }
+            }
+        } catch (IOException exception) {
+            System.out.println("IMEI index write error: " + filePath);
+            return;
+        }
+        fileHandler.writeBytes(filePath, byteStream.toByteArray(), append);
+        indexLengths.merge(cacheFolder, (long) byteStream.size(), append ? Long::sum : (oldLength, newLength) -> newLength);
+        indexStamps.put(cacheFolder, fileHandler.getFileStamp(filePath));
+    }
+}
@@ -1,6 +1,5 @@
 package hu.open.assistant.rf.data;
 
-import hu.open.assistant.rf.filter.ProfileLogBatchFilter;
 import hu.open.assistant.rf.model.TesterType;
 import hu.open.assistant.rf.model.compensation.CmuCompensation;
 import hu.open.assistant.rf.model.compensation.CmwCompensation;
@@ -11,20 +10,32 @@ import hu.open.assistant.rf.model.log.event.ProfileLogEvent;
 import hu.open.assistant.rf.model.profile.Profile;
 import hu.open.assistant.commons.util.DateHelper;
 import hu.open.assistant.commons.data.CsvParser;
+import hu.open.assistant.commons.data.FileHandler;
 import hu.open.assistant.commons.util.NumberHelper;
 
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Data class which reads and writes profile log from or to the disk. CMU and CMW profile log is stored separately
  * in a compact CSV format. Specific log types can be written to disk without replacing the data file (appending). There
  * is an option to clear the excess logs (logs from non-existing profiles). When reading a compensation or revert type
  * log a compensation is also created during the process and stored in the logical log. The logical logs are organised
- * into report batches and placed in a report batch container.
+ * into report batches and placed in a report batch container. The log file is only appended to: the batches are kept in
+ * memory by serial and name, and only the lines appended since the last read are parsed. Clearing the logs of a profile
+ * appends a deletion record, the file is rewritten in the background when the cleared records outnumber the live ones.
+ * Appending and rewriting share the same lock, and the rewrite is dropped when the file still grew in the meantime.
+ * Batches which get new logs are replaced by updated copies, the batches handed out before are left unchanged.
  */
 public class ProfileLogData {
 
@@ -34,36 +45,75 @@ public class ProfileLogData {
 
     private final String dataFolder;
     private final CsvParser csvParser;
+    private final FileHandler fileHandler;
+    private final ExecutorService compactionExecutor;
+    private final Map<Integer, Map<String, ProfileLogBatch>> logBatches = new HashMap<>();
+    private long readPosition;
+    private byte[] lastLine = new byte[0];
+    private int liveRecords;
+    private int deadRecords;
+    private boolean compactionPending;
 
-    public ProfileLogData(String dataFolder, CsvParser csvParser) {
+    public ProfileLogData(String dataFolder, CsvParser csvParser, FileHandler fileHandler, ExecutorService compactionExecutor) {
         this.dataFolder = dataFolder;
         this.csvParser = csvParser;
+        this.fileHandler = fileHandler;
+        this.compactionExecutor = compactionExecutor;
     }
 
-    public void clearExcessLogs(List<ProfileLogBatch> excessLogs) {
-        List<ProfileLogBatch> profileLogBatches = readProfileLogs();
+    public synchronized void clearExcessLogs(List<ProfileLogBatch> excessLogs) {
+        List<String[]> records = new ArrayList<>();
+        String dateTime = DateHelper.localDateTimeToIsoTextDateTime(LocalDateTime.now());
         for (ProfileLogBatch excessLog : excessLogs) {
             if (excessLog != null) {
-                ProfileLogBatch logBatch = ProfileLogBatchFilter.getProfileLogBatchBySerialAndByName(profileLogBatches, excessLog.getSerial(), excessLog.getName());
-                if (logBatch != null) {
-                    profileLogBatches.remove(logBatch);
-                }
+                String[] record = new String[HEADER.length];
+                record[0] = dateTime;
+                record[1] = ProfileLogEvent.DELETION.getName();
+                record[2] = String.valueOf(excessLog.getSerial());
+                record[4] = excessLog.getName();
+                records.add(record);
+            }
+        }
+        if (!records.isEmpty()) {
+            csvParser.writeCsvFile(dataFolder + "\\" + DATAFILE, records, HEADER, true);
+            updateLogs();
+            if (!compactionPending && deadRecords > liveRecords) {
+                compactionPending = true;
+                compactionExecutor.submit(this::compactLogs);
             }
         }
-        writeLogs(profileLogBatches);
     }
 
-    public void writeLogs(List<ProfileLogBatch> profileLogBatches) {
-        List<String[]> records = new ArrayList<>();
+    private synchronized void compactLogs() {
+        compactionPending = false;
+        updateLogs();
         List<ProfileLog> logs = new ArrayList<>();
-        for (ProfileLogBatch logBatch : profileLogBatches) {
-            logs.addAll(logBatch.getLogs());
+        for (Map<String, ProfileLogBatch> stationLogBatches : logBatches.values()) {
+            for (ProfileLogBatch logBatch : stationLogBatches.values()) {
+                logs.addAll(logBatch.getLogs());
+            }
         }
         Collections.sort(logs);
+        Collections.reverse(logs);
+        List<String[]> records = new ArrayList<>(logs.size());
         for (ProfileLog log : logs) {
-            records.add(0, logToRecord(log));
+            records.add(logToRecord(log));
+        }
+        if (!isTailUnchanged()) {
+            System.out.println("Profile log compaction aborted, the log file was modified: " + DATAFILE);
+            return;
+        }
+        List<String> rawText = csvParser.writeCsvFileAtomic(dataFolder + "\\" + DATAFILE, records, HEADER);
+        if (rawText != null) {
+            readPosition = 0;
+            for (String line : rawText) {
+                lastLine = (line + System.lineSeparator()).getBytes(StandardCharsets.UTF_8);
+                readPosition += lastLine.length;
+            }
+            deadRecords = 0;
+        } else {
+            resetLogs();
         }
-        csvParser.writeCsvFile(dataFolder + "\\" + DATAFILE, records, HEADER, false);
     }
 
     private String[] logToRecord(ProfileLog log) {
@@ -99,54 +149,159 @@ public class ProfileLogData {
         }
     }
 
-    public List<ProfileLogBatch> readProfileLogs() {
+    public synchronized List<ProfileLogBatch> readProfileLogs() {
+        updateLogs();
         List<ProfileLogBatch> profileLogBatches = new ArrayList<>();
-        List<String[]> records = csvParser.readCsvFile(dataFolder + "\\" + DATAFILE);
-        if (!records.isEmpty()) {
-            if (Arrays.equals(records.get(0), HEADER)) {
-                records.remove(0);
-                List<ProfileLog> logs = new ArrayList<>();
-                LocalDateTime dateTime;
-                ProfileLogEvent event;
-                TesterType testerType;
-                int serial;
-                String name;
-                String comment;
-                double[] compValues;
-                for (String[] record : records) {
-                    dateTime = DateHelper.isoTextDateTimeToLocalDateTime(record[0]);
-                    event = ProfileLogEvent.getByName(record[1]);
-                    serial = Integer.parseInt(record[2]);
-                    testerType = TesterType.getByName(record[3]);
-                    name = record[4];
-                    comment = record[5];
-                    if (event == ProfileLogEvent.CREATION) {
-                        logs.add(new ProfileLog(dateTime, event, serial, testerType, name, comment));
-                    } else if (event == ProfileLogEvent.COMPENSATION || event == ProfileLogEvent.REVERT) {
-                        Compensation compensation;
-                        if (testerType == TesterType.CMU) {
-                            compValues = readValues(new double[24], record);
-                            compensation = new CmuCompensation(serial, name);
-                            fillCompensation(compensation, readValues(compValues, record));
-                        } else {
-                            compValues = readValues(new double[48], record);
-                            compensation = new CmwCompensation(serial, name);
-                            fillCompensation(compensation, compValues);
-                            fillLteCompensation((CmwCompensation) compensation, compValues);
-                        }
-                        logs.add(new ProfileLog(dateTime, event, serial, testerType, name, compensation));
+        for (Map<String, ProfileLogBatch> stationLogBatches : logBatches.values()) {
+            profileLogBatches.addAll(stationLogBatches.values());
+        }
+        Collections.sort(profileLogBatches);
+        return profileLogBatches;
+    }
+
+    /**
+     * Read the profile logs for lookup by station and profile.
+     *
+     * @return log batches mapped by serial and then by profile name
+     */
+    public synchronized Map<Integer, Map<String, ProfileLogBatch>> readProfileLogsBySerial() {
+        updateLogs();
+        Map<Integer, Map<String, ProfileLogBatch>> profileLogBatches = new HashMap<>();
+        for (Map.Entry<Integer, Map<String, ProfileLogBatch>> entry : logBatches.entrySet()) {
+            profileLogBatches.put(entry.getKey(), new HashMap<>(entry.getValue()));
+        }
+        return profileLogBatches;
+    }
+
+    private void updateLogs() {
+        String filePath = dataFolder + "\\" + DATAFILE;
+        long start = readPosition - lastLine.length;
+        byte[] content = fileHandler.readBytes(filePath, start);
+        if (content != null && !startsWith(content, lastLine)) {
+            resetLogs();
+            start = 0;
+            content = fileHandler.readBytes(filePath, start);
+        }
+        if (content == null) {
+            resetLogs();
+            return;
+        }
+        boolean headerLine = readPosition == 0;
+        int lineStart = lastLine.length;
+        int lastLineStart = -1;
+        Set<ProfileLogBatch> changedBatches = new HashSet<>();
+        for (int i = lineStart; i < content.length; i++) {
+            if (content[i] == '\n') {
+                int lineEnd = i > lineStart && content[i - 1] == '\r' ? i - 1 : i;
+                String[] record = csvParser.parseLine(new String(content, lineStart, lineEnd - lineStart, StandardCharsets.UTF_8), HEADER.length);
+                if (headerLine) {
+                    if (!Arrays.equals(record, HEADER)) {
+                        resetLogs();
+                        return;
                     }
+                    headerLine = false;
+                } else {
+                    processRecord(record, changedBatches);
                 }
-                for (ProfileLog log : logs) {
-                    sortLogIntoLogBatches(log, profileLogBatches);
+                lastLineStart = lineStart;
+                lineStart = i + 1;
+            }
+        }
+        if (lastLineStart >= 0) {
+            lastLine = Arrays.copyOfRange(content, lastLineStart, lineStart);
+            readPosition = start + lineStart;
+        }
+        for (ProfileLogBatch logBatch : changedBatches) {
+            logBatch.sortLogs();
+        }
+    }
+
+    private boolean isTailUnchanged() {
+        byte[] content = fileHandler.readBytes(dataFolder + "\\" + DATAFILE, readPosition - lastLine.length);
+        return content != null && Arrays.equals(content, lastLine);
+    }
+
+    private boolean startsWith(byte[] content, byte[] prefix) {
+        return content.length >= prefix.length && Arrays.equals(content, 0, prefix.length, prefix, 0, prefix.length);
+    }
+
+    private void resetLogs() {
+        logBatches.clear();
+        readPosition = 0;
+        lastLine = new byte[0];
+        liveRecords = 0;
+        deadRecords = 0;
+    }
+
+    private void processRecord(String[] record, Set<ProfileLogBatch> changedBatches) {
+        if (record[HEADER.length - 1] == null) {
+            System.out.println("Corrupted profile log record: " + String.join(",", Arrays.asList(record)));
+            deadRecords++;
+            return;
+        }
+        try {
+            LocalDateTime dateTime = DateHelper.isoTextDateTimeToLocalDateTime(record[0]);
+            ProfileLogEvent event = ProfileLogEvent.getByName(record[1]);
+            int serial = Integer.parseInt(record[2]);
+            TesterType testerType = TesterType.getByName(record[3]);
+            String name = record[4];
+            String comment = record[5];
+            ProfileLog log;
+            if (event == ProfileLogEvent.CREATION) {
+                log = new ProfileLog(dateTime, event, serial, testerType, name, comment);
+            } else if (event == ProfileLogEvent.COMPENSATION || event == ProfileLogEvent.REVERT) {
+                Compensation compensation;
+                double[] compValues;
+                if (testerType == TesterType.CMU) {
+                    compValues = readValues(new double[24], record);
+                    compensation = new CmuCompensation(serial, name);
+                    fillCompensation(compensation, readValues(compValues, record));
+                } else {
+                    compValues = readValues(new double[48], record);
+                    compensation = new CmwCompensation(serial, name);
+                    fillCompensation(compensation, compValues);
+                    fillLteCompensation((CmwCompensation) compensation, compValues);
                 }
-                for (ProfileLogBatch logBatch : profileLogBatches) {
-                    logBatch.sortLogs();
+                log = new ProfileLog(dateTime, event, serial, testerType, name, compensation);
+            } else {
+                if (event == ProfileLogEvent.DELETION) {
+                    ProfileLogBatch logBatch = logBatches.getOrDefault(serial, Collections.emptyMap()).remove(name);
+                    if (logBatch != null) {
+                        liveRecords -= logBatch.getLogs().size();
+                        deadRecords += logBatch.getLogs().size();
+                        changedBatches.remove(logBatch);
+                    }
                 }
-                Collections.sort(profileLogBatches);
+                deadRecords++;
+                return;
+            }
+            Map<String, ProfileLogBatch> stationLogBatches = logBatches.computeIfAbsent(serial, batchSerial -> new HashMap<>());
+            ProfileLogBatch logBatch = stationLogBatches.get(name);
+            if (logBatch == null || !changedBatches.contains(logBatch)) {
+                logBatch = copyBatch(serial, name, logBatch);
+                stationLogBatches.put(name, logBatch);
             }
+            logBatch.addLog(log);
+            changedBatches.add(logBatch);
+            liveRecords++;
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeException exception) {
+            System.out.println("Corrupted profile log record: " + String.join(",", Arrays.asList(record)));
+            deadRecords++;
         }
-        return profileLogBatches;
+    }
+
+    /**
+     * Create a new batch for the appended logs of a profile. The batches already handed out are never modified, so they
+     * can be read on other threads while the log is updated.
+     */
+    private ProfileLogBatch copyBatch(int serial, String name, ProfileLogBatch logBatch) {
+        ProfileLogBatch copiedBatch = new ProfileLogBatch(serial, name);
+        if (logBatch != null) {
+            for (ProfileLog log : logBatch.getLogs()) {
+                copiedBatch.addLog(log);
+            }
+        }
+        return copiedBatch;
     }
 
     private double[] readValues(double[] compValues, String[] record) {
@@ -161,7 +316,7 @@ public class ProfileLogData {
         return compValues;
     }
 
-    public void writeProfileSyncLog(List<Profile> missingProfiles, int sourceSerial, int targetSerial) {
+    public synchronized void writeProfileSyncLog(List<Profile> missingProfiles, int sourceSerial, int targetSerial) {
         List<String[]> records = new ArrayList<>();
         for (Profile profile : missingProfiles) {
             ProfileLog log = new ProfileLog(LocalDateTime.now(), ProfileLogEvent.CREATION, targetSerial, profile.getTesterType(),
@@ -171,7 +326,7 @@ public class ProfileLogData {
         csvParser.writeCsvFile(dataFolder + "\\" + DATAFILE, records, HEADER, true);
     }
 
-    public void writeProfileCompensationLog(Profile profile) {
+    public synchronized void writeProfileCompensationLog(Profile profile) {
         List<String[]> records = new ArrayList<>();
         ProfileLog log = new ProfileLog(LocalDateTime.now(), profile.isReverted() ? ProfileLogEvent.REVERT : ProfileLogEvent.COMPENSATION,
                 profile.getSerial(), profile.getTesterType(), profile.getName(), profile.getCompensation());
@@ -179,7 +334,7 @@ public class ProfileLogData {
         csvParser.writeCsvFile(dataFolder + "\\" + DATAFILE, records, HEADER, true);
     }
 
-    public void writeProfileLog(ProfileLog log) {
+    public synchronized void writeProfileLog(ProfileLog log) {
         List<String[]> records = new ArrayList<>();
         records.add(logToRecord(log));
         csvParser.writeCsvFile(dataFolder + "\\" + DATAFILE, records, HEADER, true);
@@ -304,15 +459,4 @@ public class ProfileLogData {
             }
         }
     }
-
-    private void sortLogIntoLogBatches(ProfileLog log, List<ProfileLogBatch> profileLogBatches) {
-        ProfileLogBatch logBatch = ProfileLogBatchFilter.getProfileLogBatchBySerialAndByName(profileLogBatches, log.getSerial(), log.getName());
-        if (logBatch != null) {
-            logBatch.addLog(log);
-        } else {
-            logBatch = new ProfileLogBatch(log.getSerial(), log.getName());
-            logBatch.addLog(log);
-            profileLogBatches.add(logBatch);
-        }
-    }
 }
@@ -15,82 +15,83 @@ import hu.open.assistant.commons.util.NumberHelper;
 import hu.open.assistant.commons.data.CsvParser;
 import hu.open.assistant.commons.data.FileHandler;
 
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Data class which reads pre-processed test reports and writes logical reports from or to the disk. A daily amount of
- * test reports (CMU or CMW type) are stored separately in a compact CSV format.
+ * test reports (CMU or CMW type) are stored separately in a compact, versioned binary format. The binary file holds a
+ * fixed-width header, a dictionary of the repeating text fields and the report fields in separate columns, so a whole
+ * day can be loaded with one bulk read. The CSV cache is still written next to it for older clients, days which only
+ * have a CSV cache are read and migrated to the binary format. The IMEIs of the cached days are kept in a persistent
+ * index, so the reports of a handset can be found without reading every day.
  */
 public class ReportCacheData {
 
     private static final String DATAFILE_EXTENSION = ".csv";
+    private static final String BINARY_DATAFILE_EXTENSION = ".dat";
+    private static final int BINARY_MAGIC = 0x52464343;
+    private static final short BINARY_VERSION = 1;
+    private static final int CMU_VALUE_COUNT = CmuReportValues.VALUE_COUNT;
+    private static final int CMW_VALUE_COUNT = CmwReportValues.VALUE_COUNT;
+    private static final int VALUE_SCALE = 100;
+    private static final byte PASSED_FLAG = 1;
+    private static final byte CMW_FLAG = 2;
 
     private static final String[] HEADER = {"filename", "dateTime", "type", "manufacturer", "serial", "testerType", "position", "version", "imei", "passed", "values"};
 
     private final CmuReportLimits limits;
     private final CmwReportLimits cmwLimits;
     private final CsvParser csvParser;
-    private final ReportCache reportCache = new ReportCache();
+    private final ReportCache reportCache;
     private final FileHandler fileHandler;
+    private final ImeiIndexData imeiIndexData;
+    private final Map<String, String> failedDayStamps = new ConcurrentHashMap<>();
 
-    public ReportCacheData(CmuReportLimits limits, CmwReportLimits cmwLimits, FileHandler fileHandler, CsvParser csvParser) {
+    public ReportCacheData(CmuReportLimits limits, CmwReportLimits cmwLimits, FileHandler fileHandler, CsvParser csvParser, int cacheSize) {
         this.limits = limits;
         this.cmwLimits = cmwLimits;
         this.fileHandler = fileHandler;
         this.csvParser = csvParser;
+        reportCache = new ReportCache(cacheSize, true);
+        imeiIndexData = new ImeiIndexData(fileHandler);
     }
 
     public List<Report> readReportCache(String originalPath, String cacheFolder, String cacheFilename, int passableLimit) {
         List<Report> reports = reportCache.getReports(cacheFilename);
         if (reports == null) {
-            if (fileHandler.fileExists(cacheFolder + "\\" + cacheFilename + DATAFILE_EXTENSION)) {
-                reports = new ArrayList<>();
-                List<String[]> records = csvParser.readCsvFile(cacheFolder + "\\" + cacheFilename + DATAFILE_EXTENSION);
-                if (Arrays.equals(records.get(0), HEADER)) {
-                    records.remove(0);
-                    long imei;
-                    float scriptVersion;
-                    String type;
-                    String manufacturer;
-                    int serial;
-                    boolean passed;
-                    String filename;
-                    String position;
-                    LocalDateTime dateTime;
-                    TesterType testerType;
-                    for (String[] parts : records) {
-                        filename = parts[0];
-                        dateTime = DateHelper.isoTextDateTimeToLocalDateTime(parts[1]);
-                        type = parts[2];
-                        manufacturer = parts[3];
-                        serial = Integer.parseInt(parts[4]);
-                        testerType = TesterType.getByName(parts[5]);
-                        if (!parts[6].isBlank()) {
-                            position = parts[6];
-                        } else {
-                            position = "";
-                        }
-                        scriptVersion = Float.parseFloat(parts[7]);
-                        imei = Long.parseLong(parts[8]);
-                        passed = Boolean.parseBoolean(parts[9]);
-                        String[] valueParts = parts[10].split(",");
-                        Report report;
-                        if (testerType == TesterType.CMU) {
-                            report = new CmuReport(filename, originalPath + "\\" + cacheFilename, dateTime, type, manufacturer, serial, position,
-                                    scriptVersion, imei, passed, (CmuReportValues) fillValues(valueParts, TesterType.CMU), limits);
-                        } else {
-                            report = new CmwReport(filename, originalPath + "\\" + cacheFilename, dateTime, type, manufacturer, serial, position,
-                                    scriptVersion, imei, passed, (CmwReportValues) fillValues(valueParts, TesterType.CMW), cmwLimits);
-                        }
-                        report.checkValues(passableLimit);
-                        reports.add(report);
-                    }
+            String cachePath = cacheFolder + "\\" + cacheFilename;
+            String reportFolder = originalPath + "\\" + cacheFilename;
+            if (fileHandler.fileExists(cachePath + BINARY_DATAFILE_EXTENSION)) {
+                reports = readBinaryCache(cachePath + BINARY_DATAFILE_EXTENSION, reportFolder);
+            }
+            if (reports == null && fileHandler.fileExists(cachePath + DATAFILE_EXTENSION)) {
+                reports = readCsvCache(cachePath + DATAFILE_EXTENSION, reportFolder);
+                if (!reports.isEmpty()) {
+                    writeBinaryCache(cachePath + BINARY_DATAFILE_EXTENSION, reports);
+                }
+            }
+            if (reports != null) {
+                for (Report report : reports) {
+                    report.checkValues(passableLimit);
                 }
+                if (!imeiIndexData.hasDay(cacheFolder, cacheFilename)) {
+                    imeiIndexData.updateDay(cacheFolder, cacheFilename, reports);
+                }
+                reportCache.addCache(cacheFilename, reports);
             }
-            reportCache.addCache(cacheFilename, reports);
         } else {
             for (Report report : reports) {
                 report.checkValues(passableLimit);
@@ -99,56 +100,204 @@ public class ReportCacheData {
         return reports;
     }
 
-    private ReportValues fillValues(String[] valueParts, TesterType testerType) {
-        ReportValues values;
-        int expectedValues;
+    /**
+     * Find the cached reports of a handset using the IMEI index. Only the days containing the IMEI are read. Cached days
+     * missing from the index (written before the index existed) are indexed first.
+     *
+     * @param originalPath  folder of the original reports
+     * @param cacheFolder   cache folder of the tester type
+     * @param imei          IMEI of the handset
+     * @param passableLimit limit used to check the reports
+     * @return reports of the handset from all cached days
+     */
+    public List<Report> findReports(String originalPath, String cacheFolder, long imei, int passableLimit) {
+        List<Report> reports = new ArrayList<>();
+        if (!fileHandler.directoryExists(cacheFolder)) {
+            return reports;
+        }
+        indexCachedDays(originalPath, cacheFolder, passableLimit);
+        for (Map.Entry<String, List<Integer>> entry : imeiIndexData.findImei(cacheFolder, imei).entrySet()) {
+            List<Report> dayReports = readReportCache(originalPath, cacheFolder, entry.getKey(), passableLimit);
+            if (dayReports != null) {
+                List<Report> matches = new ArrayList<>();
+                for (int offset : entry.getValue()) {
+                    if (offset < dayReports.size() && dayReports.get(offset).getImei() == imei) {
+                        matches.add(dayReports.get(offset));
+                    }
+                }
+                if (matches.size() < entry.getValue().size()) {
+                    matches.clear();
+                    for (Report report : dayReports) {
+                        if (report.getImei() == imei) {
+                            matches.add(report);
+                        }
+                    }
+                }
+                reports.addAll(matches);
+            }
+        }
+        return reports;
+    }
+
+    /**
+     * Index the cached days missing from the IMEI index. Days which can't be read are remembered with the stamp of their
+     * cache file and are only tried again when the file changes.
+     */
+    private void indexCachedDays(String originalPath, String cacheFolder, int passableLimit) {
+        for (Map.Entry<String, String> entry : fileHandler.listFileStamps(cacheFolder).entrySet()) {
+            String filename = entry.getKey();
+            String day = null;
+            if (filename.endsWith(BINARY_DATAFILE_EXTENSION)) {
+                day = filename.substring(0, filename.length() - BINARY_DATAFILE_EXTENSION.length());
+            } else if (filename.endsWith(DATAFILE_EXTENSION)) {
+                day = filename.substring(0, filename.length() - DATAFILE_EXTENSION.length());
+            }
+            String cachePath = cacheFolder + "\\" + filename;
+            if (day != null && !entry.getValue().equals(failedDayStamps.get(cachePath)) && !imeiIndexData.hasDay(cacheFolder, day)) {
+                if (readReportCache(originalPath, cacheFolder, day, passableLimit) == null) {
+                    failedDayStamps.put(cachePath, entry.getValue());
+                } else {
+                    failedDayStamps.remove(cachePath);
+                }
+            }
+        }
+    }
+
+    private List<Report> readCsvCache(String filePath, String reportFolder) {
+        List<Report> reports = new ArrayList<>();
+        List<String[]> records = csvParser.readCsvFile(filePath);
+        if (!records.isEmpty() && Arrays.equals(records.get(0), HEADER)) {
+            records.remove(0);
+            for (String[] parts : records) {
+                LocalDateTime dateTime = DateHelper.isoTextDateTimeToLocalDateTime(parts[1]);
+                int serial = Integer.parseInt(parts[4]);
+                TesterType testerType = TesterType.getByName(parts[5]);
+                String position = parts[6].isBlank() ? "" : parts[6];
+                float scriptVersion = Float.parseFloat(parts[7]);
+                long imei = Long.parseLong(parts[8]);
+                boolean passed = Boolean.parseBoolean(parts[9]);
+                String[] valueParts = parts[10].split(",");
+                ReportValues values = createValues(testerType);
+                for (int i = 0; i < getValueCount(testerType); i++) {
+                    setValue(values, i, Double.parseDouble(valueParts[i]));
+                }
+                reports.add(createReport(parts[0], reportFolder, dateTime, parts[2], parts[3], serial, testerType, position,
+                        scriptVersion, imei, passed, values));
+            }
+        }
+        return reports;
+    }
+
+    private List<Report> readBinaryCache(String filePath, String reportFolder) {
+        byte[] content = fileHandler.readBytes(filePath);
+        if (content == null) {
+            return null;
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(content);
+            if (buffer.getInt() != BINARY_MAGIC || buffer.getShort() != BINARY_VERSION) {
+                System.out.println("Unsupported report cache format: " + filePath);
+                return null;
+            }
+            int recordCount = buffer.getInt();
+            int valueCount = buffer.getInt();
+            String[] dictionary = new String[buffer.getInt()];
+            for (int i = 0; i < dictionary.length; i++) {
+                dictionary[i] = readString(buffer);
+            }
+            String[] filenames = new String[recordCount];
+            for (int i = 0; i < recordCount; i++) {
+                filenames[i] = readString(buffer);
+            }
+            long[] dateTimes = new long[recordCount];
+            buffer.asLongBuffer().get(dateTimes);
+            buffer.position(buffer.position() + recordCount * Long.BYTES);
+            long[] imeis = new long[recordCount];
+            buffer.asLongBuffer().get(imeis);
+            buffer.position(buffer.position() + recordCount * Long.BYTES);
+            int[] serials = new int[recordCount];
+            buffer.asIntBuffer().get(serials);
+            buffer.position(buffer.position() + recordCount * Integer.BYTES);
+            float[] scriptVersions = new float[recordCount];
+            buffer.asFloatBuffer().get(scriptVersions);
+            buffer.position(buffer.position() + recordCount * Float.BYTES);
+            int[] textIndexes = new int[recordCount * 3];
+            buffer.asIntBuffer().get(textIndexes);
+            buffer.position(buffer.position() + recordCount * 3 * Integer.BYTES);
+            byte[] flags = new byte[recordCount];
+            buffer.get(flags);
+            short[] packedValues = new short[recordCount * valueCount];
+            buffer.asShortBuffer().get(packedValues);
+            double[] valueStore = new double[packedValues.length];
+            for (int i = 0; i < packedValues.length; i++) {
+                valueStore[i] = (double) packedValues[i] / VALUE_SCALE;
+            }
+            List<Report> reports = new ArrayList<>(recordCount);
+            for (int i = 0; i < recordCount; i++) {
+                TesterType testerType = (flags[i] & CMW_FLAG) != 0 ? TesterType.CMW : TesterType.CMU;
+                ReportValues values = createValues(testerType, valueStore, i * valueCount);
+                reports.add(createReport(filenames[i], reportFolder, LocalDateTime.ofEpochSecond(dateTimes[i], 0, ZoneOffset.UTC),
+                        dictionary[textIndexes[i * 3]], dictionary[textIndexes[i * 3 + 1]], serials[i], testerType,
+                        dictionary[textIndexes[i * 3 + 2]], scriptVersions[i], imeis[i], (flags[i] & PASSED_FLAG) != 0, values));
+            }
+            return reports;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException exception) {
+            System.out.println("Corrupted report cache: " + filePath);
+            return null;
+        }
+    }
+
+    private String readString(ByteBuffer buffer) {
+        int length = buffer.getShort() & 0xFFFF;
+        String text = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return text;
+    }
+
+    private Report createReport(String filename, String reportFolder, LocalDateTime dateTime, String type, String manufacturer, int serial,
+                                TesterType testerType, String position, float scriptVersion, long imei, boolean passed, ReportValues values) {
         if (testerType == TesterType.CMU) {
-            values = new CmuReportValues();
-            expectedValues = 24;
+            return new CmuReport(filename, reportFolder, dateTime, type, manufacturer, serial, position,
+                    scriptVersion, imei, passed, (CmuReportValues) values, limits);
         } else {
-            values = new CmwReportValues();
-            expectedValues = 48;
-        }
-        for (int i = 0; i < expectedValues; i++) {
-            double value = Double.parseDouble(valueParts[i]);
-            if (i < 3) {
-                values.setWcdma1TxValue(value, i);
-            } else if (i < 6) {
-                values.setWcdma1RxValue(value, i - 3);
-            } else if (i < 9) {
-                values.setWcdma8TxValue(value, i - 6);
-            } else if (i < 12) {
-                values.setWcdma8RxValue(value, i - 9);
-            } else if (i < 15) {
-                values.setGsm900TxValue(value, i - 12);
-            } else if (i < 18) {
-                values.setGsm900RxValue(value, i - 15);
-            } else if (i < 21) {
-                values.setGsm1800TxValue(value, i - 18);
-            } else if (i < 24) {
-                values.setGsm1800RxValue(value, i - 21);
-            } else if (i < 27) {
-                ((CmwReportValues) values).setLte1TxValue(value, i - 24);
-            } else if (i < 30) {
-                ((CmwReportValues) values).setLte1RxValue(value, i - 27);
-            } else if (i < 33) {
-                ((CmwReportValues) values).setLte3TxValue(value, i - 30);
-            } else if (i < 36) {
-                ((CmwReportValues) values).setLte3RxValue(value, i - 33);
-            } else if (i < 39) {
-                ((CmwReportValues) values).setLte7TxValue(value, i - 36);
-            } else if (i < 42) {
-                ((CmwReportValues) values).setLte7RxValue(value, i - 39);
-            } else if (i < 45) {
-                ((CmwReportValues) values).setLte20TxValue(value, i - 42);
-            } else {
-                ((CmwReportValues) values).setLte20RxValue(value, i - 45);
-            }
+            return new CmwReport(filename, reportFolder, dateTime, type, manufacturer, serial, position,
+                    scriptVersion, imei, passed, (CmwReportValues) values, cmwLimits);
         }
-        return values;
     }
 
-    public void writeReportCache(String cacheFolder, String filename, List<Report> reports) {
+    private ReportValues createValues(TesterType testerType) {
+        if (testerType == TesterType.CMU) {
+            return new CmuReportValues();
+        }
+        return new CmwReportValues();
+    }
+
+    private ReportValues createValues(TesterType testerType, double[] valueStore, int offset) {
+        if (testerType == TesterType.CMU) {
+            return new CmuReportValues(valueStore, offset);
+        }
+        return new CmwReportValues(valueStore, offset);
+    }
+
+    private int getValueCount(TesterType testerType) {
+        return testerType == TesterType.CMU ? CMU_VALUE_COUNT : CMW_VALUE_COUNT;
+    }
+
+    private void setValue(ReportValues values, int i, double value) {
+        values.setValue(i - i % ReportValues.CHANNEL_COUNT, i % ReportValues.CHANNEL_COUNT, value);
+    }
+
+    public void writeReportCache(String cacheFolder, String cacheFilename, List<Report> reports) {
+        if (!fileHandler.directoryExists(cacheFolder)) {
+            fileHandler.createDirectory(cacheFolder);
+        }
+        String cachePath = cacheFolder + "\\" + cacheFilename;
+        writeBinaryCache(cachePath + BINARY_DATAFILE_EXTENSION, reports);
+        writeCsvCache(cachePath + DATAFILE_EXTENSION, reports);
+        imeiIndexData.updateDay(cacheFolder, cacheFilename, reports);
+    }
+
+    private void writeCsvCache(String filePath, List<Report> reports) {
         List<String[]> records = new ArrayList<>();
         for (Report report : reports) {
             String[] record = new String[HEADER.length];
@@ -165,10 +314,93 @@ public class ReportCacheData {
             record[10] = chainValues(report);
             records.add(record);
         }
-        if (!fileHandler.directoryExists(cacheFolder)) {
-            fileHandler.createDirectory(cacheFolder);
+        csvParser.writeCsvFile(filePath, records, HEADER, false);
+    }
+
+    private boolean writeBinaryCache(String filePath, List<Report> reports) {
+        int recordCount = reports.size();
+        int valueCount = CMU_VALUE_COUNT;
+        for (Report report : reports) {
+            if (report.getTesterType() == TesterType.CMW) {
+                valueCount = CMW_VALUE_COUNT;
+            }
+        }
+        short[] packedValues = new short[recordCount * valueCount];
+        for (int i = 0; i < recordCount; i++) {
+            if (!packValues(reports.get(i), packedValues, i * valueCount)) {
+                return false;
+            }
+        }
+        Map<String, Integer> dictionary = new LinkedHashMap<>();
+        int[] textIndexes = new int[recordCount * 3];
+        for (int i = 0; i < recordCount; i++) {
+            Report report = reports.get(i);
+            textIndexes[i * 3] = dictionary.computeIfAbsent(report.getType(), text -> dictionary.size());
+            textIndexes[i * 3 + 1] = dictionary.computeIfAbsent(report.getManufacturer(), text -> dictionary.size());
+            textIndexes[i * 3 + 2] = dictionary.computeIfAbsent(report.getPosition(), text -> dictionary.size());
+        }
+        ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(byteStream)) {
+            output.writeInt(BINARY_MAGIC);
+            output.writeShort(BINARY_VERSION);
+            output.writeInt(recordCount);
+            output.writeInt(valueCount);
+            output.writeInt(dictionary.size());
+            for (String text : dictionary.keySet()) {
+                writeString(output, text);
+            }
+            for (Report report : reports) {
+                writeString(output, report.getFilename());
+            }
+            for (Report report : reports) {
+                output.writeLong(report.getDateTime().toEpochSecond(ZoneOffset.UTC));
+            }
+            for (Report report : reports) {
+                output.writeLong(report.getImei());
+            }
+            for (Report report : reports) {
+                output.writeInt(report.getSerial());
+            }
+            for (Report report : reports) {
+                output.writeFloat((float) NumberHelper.twoDecimalPlaceOf(report.getScriptVersion()));
+            }
+            for (int textIndex : textIndexes) {
+                output.writeInt(textIndex);
+            }
+            for (Report report : reports) {
+                byte flag = report.isPassed() ? PASSED_FLAG : 0;
+                if (report.getTesterType() == TesterType.CMW) {
+                    flag |= CMW_FLAG;
+                }
+                output.writeByte(flag);
+            }
+            for (short value : packedValues) {
+                output.writeShort(value);
+            }
+        } catch (IOException exception) {
+            System.out.println("Report cache write error: " + filePath);
+            return false;
+        }
+        fileHandler.writeBytes(filePath, byteStream.toByteArray());
+        return true;
+    }
+
+    private void writeString(DataOutputStream output, String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        output.writeShort(bytes.length);
+        output.write(bytes);
+    }
+
+    private boolean packValues(Report report, short[] packedValues, int offset) {
+        for (int i = 0; i < getValueCount(report.getTesterType()); i++) {
+            long packedValue = Math.round(NumberHelper.twoDecimalPlaceOf(report.getValue(i - i % ReportValues.CHANNEL_COUNT,
+                    i % ReportValues.CHANNEL_COUNT)) * VALUE_SCALE);
+            if (packedValue > Short.MAX_VALUE || packedValue < Short.MIN_VALUE) {
+                return false;
+            }
+            packedValues[offset + i] = (short) packedValue;
         }
-        csvParser.writeCsvFile(cacheFolder + "\\" + filename, records, HEADER, false);
+        return true;
     }
 
     private String fillBlank(String string) {
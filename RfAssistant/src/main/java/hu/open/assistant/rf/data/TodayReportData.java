@@ -0,0 +1,63 @@
+package hu.open.assistant.rf.data;
+
+import hu.open.assistant.commons.data.FileHandler;
+import hu.open.assistant.commons.data.FolderWatcher;
+import hu.open.assistant.rf.model.report.Report;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Data class which keeps the processed reports of the current day's report folder in memory. The current day is never
+ * cached on disk, so instead of processing the whole folder on every refresh only the created or modified reports are
+ * processed and the deleted ones are dropped. One instance is used for each tester type.
+ */
+public class TodayReportData {
+
+    private final Map<String, Report> reports = new TreeMap<>();
+    private final FileHandler fileHandler;
+    private FolderWatcher folderWatcher;
+
+    public TodayReportData(FileHandler fileHandler) {
+        this.fileHandler = fileHandler;
+    }
+
+    /**
+     * Refresh and return the reports of the given folder. When the folder differs from the previous one (a new day has
+     * started) the held reports are discarded.
+     *
+     * @param reportPath    path of the current day's report folder
+     * @param passableLimit limit used to recheck the held reports
+     * @param reader        processes the given report files and returns the valid reports
+     * @return the reports of the folder
+     */
+    public synchronized List<Report> readReports(String reportPath, int passableLimit, Function<List<String>, List<Report>> reader) {
+        if (folderWatcher == null || !folderWatcher.getPath().equals(reportPath)) {
+            if (folderWatcher != null) {
+                folderWatcher.close();
+            }
+            folderWatcher = new FolderWatcher(reportPath, fileHandler);
+            reports.clear();
+        }
+        if (folderWatcher.poll()) {
+            for (String filename : folderWatcher.getDeletedFiles()) {
+                reports.remove(filename);
+            }
+            List<String> changedFiles = folderWatcher.getChangedFiles();
+            for (String filename : changedFiles) {
+                reports.remove(filename);
+            }
+            for (Report report : reader.apply(changedFiles)) {
+                reports.put(report.getFilename(), report);
+            }
+        }
+        List<Report> folderReports = new ArrayList<>(reports.values());
+        for (Report report : folderReports) {
+            report.checkValues(passableLimit);
+        }
+        return folderReports;
+    }
+}
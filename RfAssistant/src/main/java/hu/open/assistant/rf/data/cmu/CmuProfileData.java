@@ -1,5 +1,6 @@
 package hu.open.assistant.rf.data.cmu;
 
+import hu.open.assistant.rf.data.DatabaseCache;
 import hu.open.assistant.rf.model.database.CmuDatabase;
 import hu.open.assistant.rf.model.database.Database;
 import hu.open.assistant.rf.model.profile.CmuProfile;
@@ -15,7 +16,11 @@ import java.util.List;
 /**
  * Data class which reads and writes raw CMU type RF profiles from or to the disk. Profile information is stored in a
  * custom text format compatible with CMUgo application. The logical profiles are organised and handled into a logical
- * database. Data files written to disk are fully generated from code and there is a cleanup option for unused data.
+ * database. Data files written to disk are fully generated from code and there is a cleanup option for unused data. The
+ * database file is replaced atomically, so the tester never reads a partially written file. The attenuation values of a
+ * profile are only parsed when they are first accessed. Databases are cached per station and a station is only read
+ * again when its database file was modified or the station was invalidated. A restored database is staged in a sibling
+ * folder first and swapped in with a rename, so the station never sees a partially restored database.
  */
 public class CmuProfileData {
 
@@ -24,6 +29,7 @@ public class CmuProfileData {
 	private static final String MAIN_DATAFILE = "GSMWCDMAPATHLOSS.TXT";
 	private static final String TAC_BACKUP_FILE = "PATHLOSS.BAK";
 	private static final String MAIN_BACKUP_FILE = "GSMWCDMAPATHLOSS.BAK";
+	private static final String STAGING_SUFFIX = ".restore";
 
 	private static final String DEFAULT_DATAFILE_HEADER = "Mobiletype	TAC	GSM400_L_IN	GSM400_L_OUT	GSM400_M_IN	GSM400_M_OUT	GSM400_H_IN	GSM400_H_OUT	GSM850_L_IN	GSM850_L_OUT	GSM850_M_IN	GSM850_M_OUT	GSM850_H_IN	GSM850_H_OUT	GSM900_L_IN	GSM900_L_OUT	GSM900_M_IN	GSM900_M_OUT	GSM900_H_IN	GSM900_H_OUT	GSM1800_L_IN	GSM1800_L_OUT	GSM1800_M_IN	GSM1800_M_OUT	GSM1800_H_IN	GSM1800_H_OUT	GSM1900_L_IN	GSM1900_L_OUT	GSM1900_M_IN	GSM1900_M_OUT	GSM1900_H_IN	GSM1900_H_OUT	WCDMA1_L_IN	WCDMA1_L_OUT	WCDMA1_M_IN	WCDMA1_M_OUT	WCDMA1_H_IN	WCDMA1_H_OUT	WCDMA2_L_IN	WCDMA2_L_OUT	WCDMA2_M_IN	WCDMA2_M_OUT	WCDMA2_H_IN	WCDMA2_H_OUT	WCDMA3_L_IN	WCDMA3_L_OUT	WCDMA3_M_IN	WCDMA3_M_OUT	WCDMA3_H_IN	WCDMA3_H_OUT	WCDMA4_L_IN	WCDMA4_L_OUT	WCDMA4_M_IN	WCDMA4_M_OUT	WCDMA4_H_IN	WCDMA4_H_OUT	WCDMA5_L_IN	WCDMA5_L_OUT	WCDMA5_M_IN	WCDMA5_M_OUT	WCDMA5_H_IN	WCDMA5_H_OUT	WCDMA6_L_IN	WCDMA6_L_OUT	WCDMA6_M_IN	WCDMA6_M_OUT	WCDMA6_H_IN	WCDMA6_H_OUT	Position	Picturefile	RequiresHandling";
 	private static final String DEFAULT_DATAFILE_DEFAULT_PROFILE = "Default	0	10,0	10,0	10,0	10,0	10,0	10,0	10,0	10,0	10,0	10,0	10,0	10,0	10,0	10,0	10,0	10,0	10,0	10,0	10,0	10,0	10,0	10,0	10,0	10,0	10,0	10,0	10,0	10,0	10,0	10,0	10,0	10,0	10,0	10,0	10,0	10,0	10,0	10,0	10,0	10,0	10,0	10,0	10,0	10,0	10,0	10,0	10,0	10,0	10,0	10,0	10,0	10,0	10,0	10,0	10,0	10,0	10,0	10,0	10,0	10,0	10,0	10,0	10	10	yes";
@@ -36,6 +42,7 @@ public class CmuProfileData {
 	private final String databaseFolder;
 	private final FileHandler fileHandler;
 	private final int centerValue;
+	private final DatabaseCache databaseCache = new DatabaseCache();
 	private List<Database> databases;
 	private ProfileParts profileParts;
 
@@ -48,12 +55,47 @@ public class CmuProfileData {
 
 	public void setProfileParts(ProfileParts profileParts) {
 		this.profileParts = profileParts;
+		databaseCache.invalidateAll();
 	}
 
 	public List<Database> getDatabases() {
 		return databases;
 	}
 
+	public void invalidateDatabase(int serial) {
+		databaseCache.invalidate(serial);
+	}
+
+	public void invalidateDatabases() {
+		databaseCache.invalidateAll();
+	}
+
+	public boolean isUpToDate(List<String> folderNames) {
+		List<Integer> serials = parseSerials(folderNames);
+		if (databases == null || databases.size() != serials.size()) {
+			return false;
+		}
+		for (int i = 0; i < serials.size(); i++) {
+			int serial = serials.get(i);
+			if (databases.get(i).getSerial() != serial || !databaseCache.isUpToDate(serial, readDatabaseStamp(serial))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private List<Integer> parseSerials(List<String> folderNames) {
+		List<Integer> serials = new ArrayList<>();
+		for (String folder : folderNames) {
+			serials.add(Integer.parseInt(folder));
+		}
+		return serials;
+	}
+
+	private String readDatabaseStamp(int serial) {
+		return fileHandler.getFileStamp(databaseFolder + "\\" + serial + "\\" + MAIN_DATAFILE);
+	}
+
 	public void createEmptyDatabaseFolder(int serial) {
 		fileHandler.createDirectory(databaseFolder + "\\" + serial);
 		createDefaultDataFile(serial);
@@ -79,23 +121,70 @@ public class CmuProfileData {
 	}
 
 	public void createTacDataFile(int serial) {
-		fileHandler.writeUtf8Text(databaseFolder + "\\" + serial + "\\" + TAC_DATAFILE,
-				Collections.singletonList(TAC_DATAFILE_HEADER), false);
+		writeTacDataFile(databaseFolder + "\\" + serial);
+	}
+
+	private boolean writeTacDataFile(String databasePath) {
+		return fileHandler.writeUtf8Text(databasePath + "\\" + TAC_DATAFILE, Collections.singletonList(TAC_DATAFILE_HEADER), false);
 	}
 
 	public void createDefaultDataFile(int serial) {
-		fileHandler.writeUtf8Text(databaseFolder + "\\" + serial + "\\" + DEFAULT_DATAFILE,
+		writeDefaultDataFile(databaseFolder + "\\" + serial);
+	}
+
+	private boolean writeDefaultDataFile(String databasePath) {
+		return fileHandler.writeUtf8Text(databasePath + "\\" + DEFAULT_DATAFILE,
 				Collections.singletonList(DEFAULT_DATAFILE_HEADER + "\n" + DEFAULT_DATAFILE_DEFAULT_PROFILE), false);
 	}
 
-	public void writeDatabase(CmuDatabase database, boolean cleanup) {
+	/**
+	 * Write the whole database into a staging folder next to the database folder of the station. The actual database is
+	 * not touched, it can be replaced with the staged one afterwards.
+	 *
+	 * @param database database to stage
+	 * @return true if all files of the database were written
+	 */
+	public boolean stageDatabase(CmuDatabase database) {
+		String stagingPath = databaseFolder + "\\" + database.getSerial() + STAGING_SUFFIX;
+		if (fileHandler.directoryExists(stagingPath)) {
+			fileHandler.deleteWholeDirectory(stagingPath);
+		}
+		boolean staged = fileHandler.createDirectory(stagingPath) && writeDefaultDataFile(stagingPath) && writeTacDataFile(stagingPath) &&
+				fileHandler.writeUtf8Text(stagingPath + "\\" + MAIN_DATAFILE, createMainData(database), false);
+		if (!staged && fileHandler.directoryExists(stagingPath)) {
+			fileHandler.deleteWholeDirectory(stagingPath);
+		}
+		return staged;
+	}
+
+	/**
+	 * Replace the database folder of the station with the previously staged one.
+	 *
+	 * @param serial serial of the station
+	 * @return true if the database folder was replaced, false if it was left untouched
+	 */
+	public boolean replaceWithStagedDatabase(int serial) {
+		String stagingPath = databaseFolder + "\\" + serial + STAGING_SUFFIX;
+		boolean replaced = fileHandler.replaceDirectory(databaseFolder + "\\" + serial, stagingPath);
+		if (!replaced && fileHandler.directoryExists(stagingPath)) {
+			fileHandler.deleteWholeDirectory(stagingPath);
+		}
+		databaseCache.invalidate(serial);
+		return replaced;
+	}
+
+	private List<String> createMainData(CmuDatabase database) {
 		List<String> newData = new ArrayList<>();
 		newData.add(MAIN_DATAFILE_HEADER);
 		newData.add(MAIN_DATAFILE_EMPTY_PROFILE);
 		for (Profile profile : database.getProfiles()) {
 			newData.add(getUpdatedData(profile));
 		}
-		fileHandler.writeUtf8Text(databaseFolder + "\\" + database.getSerial() + "\\" + MAIN_DATAFILE, newData, false);
+		return newData;
+	}
+
+	public void writeDatabase(CmuDatabase database, boolean cleanup) {
+		fileHandler.writeUtf8TextAtomic(databaseFolder + "\\" + database.getSerial() + "\\" + MAIN_DATAFILE, createMainData(database));
 		if (cleanup) {
 			clearTacDataFile(database.getSerial());
 			clearBackupFiles(database.getSerial());
@@ -104,13 +193,22 @@ public class CmuProfileData {
 
 	public List<Database> readDatabases(List<String> folderNames) {
 		databases = new ArrayList<>();
-		for (String folder : folderNames) {
-			databases.add(new CmuDatabase(Integer.parseInt(folder)));
-		}
-		for (Database database : databases) {
+		List<Integer> serials = parseSerials(folderNames);
+		databaseCache.retainSerials(serials);
+		for (int serial : serials) {
+			String stamp = readDatabaseStamp(serial);
+			Database cachedDatabase = databaseCache.getDatabase(serial, stamp);
+			if (cachedDatabase != null) {
+				databases.add(cachedDatabase);
+				continue;
+			}
+			Database database = new CmuDatabase(serial);
+			databases.add(database);
 			List<String> databaseData = fileHandler.readUtf8TextToList(databaseFolder + "\\" + database.getSerial() + "\\" + MAIN_DATAFILE, false);
 			if (databaseData == null) {
-				return new ArrayList<>();
+				databases = new ArrayList<>();
+				databaseCache.invalidateAll();
+				return databases;
 			}
 			for (int i = 2; i < databaseData.size(); i++) {
 				String[] parts = databaseData.get(i).split("\t");
@@ -136,12 +234,12 @@ public class CmuProfileData {
 						}
 						type = type.concat(phoneParts[pointer]);
 					}
-					CmuProfile profile = new CmuProfile(database.getSerial(), type, manufacturer, box, position, processValues(parts), centerValue);
-					profile.checkCondition();
+					CmuProfile profile = new CmuProfile(database.getSerial(), type, manufacturer, box, position, () -> processValues(parts), centerValue);
 					database.addProfile(profile);
 				}
 			}
 			database.sortProfiles();
+			databaseCache.putDatabase(database, stamp, Collections.emptyList());
 		}
 		return databases;
 	}
@@ -5,8 +5,11 @@ import hu.open.assistant.rf.model.report.limits.CmuReportLimits;
 import hu.open.assistant.rf.model.report.values.CmuReportValues;
 import hu.open.assistant.commons.util.DateHelper;
 import hu.open.assistant.commons.data.FileHandler;
+import hu.open.assistant.commons.data.LineReader;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -21,8 +24,11 @@ public class CmuReportData {
 			"MU_GSM900-1800_RF",
 			"MU_WCDMAI_RF"};
 
+	private static final int PROBE_LINE_COUNT = 63;
+
 	private final CmuReportLimits limits;
 	private final FileHandler fileHandler;
+	private final ThreadLocal<LineReader> lineReader = ThreadLocal.withInitial(LineReader::new);
 
 	public CmuReportData(CmuReportLimits limits, FileHandler fileHandler) {
 		this.limits = limits;
@@ -30,21 +36,10 @@ public class CmuReportData {
 	}
 
 	public CmuReport readReport(String reportFolder, String filename, int passableLimit) {
-		CmuReport report = null;
+		CmuReport report;
 		boolean process = true;
-		List<String> fileContent = fileHandler.readIsoTextToList(reportFolder + "\\" + filename, false);
 		long imei = 0;
-		float scriptVersion;
-		String script;
-		String name;
-		String manufacturer;
-		String type = "";
-		String position;
-		int serial = 0;
-		String version;
-		int deviation = 0;
 		boolean passed = false;
-		LocalDateTime dateTime = null;
 		try {
 			if (filename.length() == 22) {
 				imei = Long.parseLong(filename.split("_")[1].split("\\.")[0]);
@@ -61,22 +56,46 @@ public class CmuReportData {
 			System.out.println("Incorrect filename: " + filename);
 			process = false;
 		}
+		if (!process) {
+			return null;
+		}
+		LineReader reader = lineReader.get();
+		List<String> fileContent = probeHeader(reader, reportFolder + "\\" + filename);
 		if (fileContent == null) {
-			process = false;
+			return null;
 		}
-		if (process) {
-			dateTime = cmuReportDateToDate(fileContent.get(29).split("\t")[1].split("<")[0]);
-			if (dateTime != null) {
-				try {
-					serial = Integer.parseInt(fileContent.get(31).substring(32, 38));
-				} catch (IndexOutOfBoundsException | NumberFormatException exception) {
-					System.out.println("Incorrect header info: " + filename);
-					process = false;
-				}
-			} else {
+		try {
+			report = readReport(reader, fileContent, reportFolder, filename, imei, passed, passableLimit);
+		} finally {
+			reader.close();
+		}
+		return report;
+	}
+
+	private CmuReport readReport(LineReader reader, List<String> fileContent, String reportFolder, String filename, long imei,
+								 boolean passed, int passableLimit) {
+		CmuReport report = null;
+		boolean process = true;
+		float scriptVersion;
+		String script;
+		String name;
+		String manufacturer;
+		String type = "";
+		String position;
+		int serial = 0;
+		String version;
+		int deviation = 0;
+		LocalDateTime dateTime = cmuReportDateToDate(fileContent.get(29).split("\t")[1].split("<")[0]);
+		if (dateTime != null) {
+			try {
+				serial = Integer.parseInt(fileContent.get(31).substring(32, 38));
+			} catch (IndexOutOfBoundsException | NumberFormatException exception) {
 				System.out.println("Incorrect header info: " + filename);
 				process = false;
 			}
+		} else {
+			System.out.println("Incorrect header info: " + filename);
+			process = false;
 		}
 		if (process) {
 			try {
@@ -105,6 +124,7 @@ public class CmuReportData {
 							}
 							type = type.concat(parts[pointer]);
 						}
+						readRemainingLines(reader, fileContent);
 						CmuReportValues values = readValues(fileContent, filename);
 						if (values == null) {
 							values = new CmuReportValues();
@@ -122,6 +142,27 @@ public class CmuReportData {
 		return report;
 	}
 
+	/**
+	 * Read only the first lines of the report which hold all the header info. The rest of the file is read only when
+	 * the report turns out to be compatible.
+	 */
+	private List<String> probeHeader(LineReader reader, String filePath) {
+		if (!reader.open(filePath)) {
+			return null;
+		}
+		List<String> fileContent = new ArrayList<>(PROBE_LINE_COUNT);
+		while (fileContent.size() < PROBE_LINE_COUNT && reader.nextLine()) {
+			fileContent.add(reader.getLine(StandardCharsets.ISO_8859_1));
+		}
+		return fileContent;
+	}
+
+	private void readRemainingLines(LineReader reader, List<String> fileContent) {
+		while (reader.nextLine()) {
+			fileContent.add(reader.getLine(StandardCharsets.ISO_8859_1));
+		}
+	}
+
 	private boolean isScriptCompatible(String script) {
 		for (String compatibleScript : COMPATIBLE_SCRIPTS) {
 			if (script.contains(compatibleScript)) {
@@ -1,5 +1,6 @@
 package hu.open.assistant.rf.data.cmw;
 
+import hu.open.assistant.rf.data.DatabaseCache;
 import hu.open.assistant.rf.model.database.CmwDatabase;
 import hu.open.assistant.rf.model.database.Database;
 import hu.open.assistant.rf.model.profile.CmwProfile;
@@ -8,25 +9,43 @@ import hu.open.assistant.rf.model.profile.values.CmwProfileValues;
 import hu.open.assistant.commons.util.NumberHelper;
 import hu.open.assistant.commons.util.TextHelper;
 import hu.open.assistant.commons.data.FileHandler;
+import hu.open.assistant.commons.data.FileTransaction;
 import hu.open.assistant.rf.RfAssistant;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 /**
  * Data class which reads and writes raw CMW type RF profiles from or to disk. Profile information is stored
  * within multiple files in custom text format and XML, compatible with CMWrun application. The logical Profiles are
  * organised and handled into a logical Database. Data files (and directories) written to disk are fully generated from
  * code and there is a cleanup option for unused data. The files containing the actual profiles when corrupted or
- * missing can be regenerated with default values.
+ * missing can be regenerated with default values. Databases of the stations are read in parallel from their mapping
+ * files only, the data files of a profile are read when its values are first accessed. The values of a whole database
+ * can be loaded in advance by a bounded pool, so the reads over the network are not done one after another. The last
+ * read or written content of the data files is remembered, so only the changed files are written when a database is
+ * saved. The changed files of a database are written in one transaction and replaced atomically. Databases are cached
+ * per station and a station is only read again when its mapping file or the content of its data folders was modified,
+ * or when the station was invalidated. A restored database is staged in a sibling folder first (its data files written
+ * in parallel) and swapped in with a rename, so the station never sees a partially restored database.
  */
 public class CmwProfileData {
 
 	private static final String MAIN_DATA_FILE = "CustomerMappingDB.txt";
 	private static final String SIDE_DATA_FILE = "MappingDB.txt";
 	private static final String DATAFILE_EXTENSION = ".fda";
+	private static final String STAGING_SUFFIX = ".restore";
+	private static final String[] DATAFILE_TYPES = {"_GSM_IN@", "_GSM_OUT@", "_WCDMA_IN@", "_WCDMA_OUT@", "_LTE_IN@", "_LTE_OUT@", "_MISC@"};
 
 	private static final String MISC_CHANNELS = "796000000;806000000;815900000;837000000;847000000;856900000;882400000;890200000;897400000;897600000;912600000;914800000;927400000;935200000;942400000;942600000;957600000;959800000;1710200000;1715000000;1747400000;1747500000;1779900000;1784800000;1805200000;1810000000;1842400000;1842500000;1874900000;1879800000;1922400000;1925000000;1950000000;1950000000;1974900000;1977600000;2112400000;2115000000;2140000000;2140000000;2164900000;2167600000;2505000000;2535000000;2564900000;2625000000;2655000000;2684900000";
 	private static final String WCDMA_IN_CHANNELS = "882400000;897600000;912600000;1922400000;1950000000;1977600000";
@@ -43,45 +62,74 @@ public class CmwProfileData {
 	private final String databaseFolder;
 	private final FileHandler fileHandler;
 	private final int centerValue;
+	private final DatabaseCache databaseCache = new DatabaseCache();
 	private List<Database> databases;
 	private final RfAssistant assistant;
-
-	public CmwProfileData(String databaseFolder, int centerValue, FileHandler fileHandler, RfAssistant assistant) {
+	private final ExecutorService databaseExecutor;
+	private final ExecutorService dataFileExecutor;
+	private final Map<String, String> storedValueLines = new ConcurrentHashMap<>();
+	private final Map<String, List<String>> pendingDefaultData = new ConcurrentHashMap<>();
+	private final Map<Integer, List<String>> storedMappings = new ConcurrentHashMap<>();
+
+	public CmwProfileData(String databaseFolder, int centerValue, FileHandler fileHandler, RfAssistant assistant,
+						  ExecutorService databaseExecutor, ExecutorService dataFileExecutor) {
 		this.databaseFolder = databaseFolder;
 		this.centerValue = centerValue;
 		this.fileHandler = fileHandler;
 		this.assistant = assistant;
+		this.databaseExecutor = databaseExecutor;
+		this.dataFileExecutor = dataFileExecutor;
 	}
 
 	public void writeDatabase(CmwDatabase database, boolean cleanup) {
 		List<String> newData = new ArrayList<>();
 		newData.add(DATA_HEADER);
 		List<Profile> profiles = database.getProfiles();
+		FileTransaction transaction = fileHandler.beginTransaction();
+		List<String> writtenDefaults = new ArrayList<>();
 		for (Profile profile : profiles) {
 			pushUpdatedData((CmwProfile) profile, newData);
-			updateFileData((CmwProfile) profile);
+			updateFileData((CmwProfile) profile, transaction, writtenDefaults);
+		}
+		boolean mappingChanged = !newData.equals(storedMappings.get(database.getSerial()));
+		if (mappingChanged) {
+			transaction.writeUtf8Text(databaseFolder + "\\" + database.getSerial() + "\\TAC_DB\\" + MAIN_DATA_FILE, newData);
+		}
+		if (transaction.commit()) {
+			if (mappingChanged) {
+				storedMappings.put(database.getSerial(), newData);
+			}
+			pendingDefaultData.keySet().removeAll(writtenDefaults);
+		} else {
+			storedValueLines.clear();
+			storedMappings.clear();
 		}
-		fileHandler.writeUtf8Text(databaseFolder + "\\" + database.getSerial() + "\\TAC_DB\\" + MAIN_DATA_FILE, newData, false);
 		if (cleanup) {
 			clearUnusedFdaFolders(database.getSerial());
 		}
 	}
 
 	public void createEmptyDatabaseFolder(int serial) {
-		fileHandler.createDirectory(databaseFolder + "\\" + serial);
-		String mainFolder = databaseFolder + "\\" + serial + "\\TAC_DB";
-		String defaultsFolder = databaseFolder + "\\" + serial + "\\TAC_DB\\" + "Defaults";
-		fileHandler.createDirectory(mainFolder);
-		fileHandler.createDirectory(defaultsFolder);
+		forgetStoredData(serial);
+		createDatabaseFolder(databaseFolder + "\\" + serial);
+	}
+
+	private boolean createDatabaseFolder(String databasePath) {
+		String mainFolder = databasePath + "\\TAC_DB";
+		String defaultsFolder = databasePath + "\\TAC_DB\\" + "Defaults";
+		boolean created = fileHandler.createDirectory(databasePath);
+		created &= fileHandler.createDirectory(mainFolder);
+		created &= fileHandler.createDirectory(defaultsFolder);
 		int[] defaultValues = {1, 2, 5, 10, 12, 15, 20, 25};
 		for (int value : defaultValues) {
-			writeDefaultData(serial, value);
+			created &= writeDefaultData(databasePath, value);
 		}
-		fileHandler.writeUtf8Text(mainFolder + "\\" + SIDE_DATA_FILE, Collections.singletonList(DATA_HEADER), false);
+		created &= fileHandler.writeUtf8Text(mainFolder + "\\" + SIDE_DATA_FILE, Collections.singletonList(DATA_HEADER), false);
+		return created;
 	}
 
-	private void writeDefaultData(int serial, int value) {
-		String folderPath = databaseFolder + "\\" + serial + "\\TAC_DB\\Defaults";
+	private boolean writeDefaultData(String databasePath, int value) {
+		String folderPath = databasePath + "\\TAC_DB\\Defaults";
 		String channels = "400000000;6000000000";
 		String values = value + ".0;" + value + ".0";
 		String name = "Const_" + value + "dB";
@@ -96,7 +144,83 @@ public class CmwProfileData {
 		rawData.add("             <Vector count=\"" + channelCount + "\" type=\"r8\" data=\"" + values + "\" />");
 		rawData.add("         </CorrectionValues>");
 		addDataFileFooter(rawData);
-		fileHandler.writeUtf8Text(folderPath + "\\" + name + ".fda", rawData, false);
+		return fileHandler.writeUtf8Text(folderPath + "\\" + name + ".fda", rawData, false);
+	}
+
+	/**
+	 * Write the whole database into a staging folder next to the database folder of the station. The data files of the
+	 * profiles are written in parallel by the data file pool. The actual database is not touched, it can be replaced with
+	 * the staged one afterwards.
+	 *
+	 * @param database database to stage
+	 * @return true if all files of the database were written
+	 */
+	public boolean stageDatabase(CmwDatabase database) {
+		String stagingPath = databaseFolder + "\\" + database.getSerial() + STAGING_SUFFIX;
+		if (fileHandler.directoryExists(stagingPath)) {
+			fileHandler.deleteWholeDirectory(stagingPath);
+		}
+		boolean staged = createDatabaseFolder(stagingPath);
+		List<String> newData = new ArrayList<>();
+		newData.add(DATA_HEADER);
+		Set<String> boxes = new LinkedHashSet<>();
+		for (Profile profile : database.getProfiles()) {
+			pushUpdatedData((CmwProfile) profile, newData);
+			boxes.add(profile.getBox());
+		}
+		staged &= fileHandler.writeUtf8Text(stagingPath + "\\TAC_DB\\" + MAIN_DATA_FILE, newData, false);
+		for (String box : boxes) {
+			staged &= fileHandler.createDirectory(createProfileFolderPath(stagingPath, box));
+		}
+		List<Future<Boolean>> results = new ArrayList<>();
+		if (staged) {
+			for (Profile profile : database.getProfiles()) {
+				results.add(dataFileExecutor.submit(() -> writeStagedFileData((CmwProfile) profile, stagingPath)));
+			}
+		}
+		for (int i = 0; i < results.size(); i++) {
+			Boolean written = awaitResult(results.get(i), "CMW profile " + database.getProfiles().get(i).getName());
+			staged &= written != null && written;
+		}
+		if (!staged && fileHandler.directoryExists(stagingPath)) {
+			fileHandler.deleteWholeDirectory(stagingPath);
+		}
+		return staged;
+	}
+
+	private boolean writeStagedFileData(CmwProfile profile, String stagingPath) {
+		String filepath = createProfileFilepath(createProfileFolderPath(stagingPath, profile.getBox()),
+				profile.getType(), profile.getManufacturer(), profile.getStoreTac());
+		boolean written = true;
+		for (Map.Entry<String, double[]> entry : createValueSets(profile).entrySet()) {
+			List<String> updatedData = createUpdatedData(entry.getValue(), entry.getKey(), profile.getName(), profile.getStoreTac(), profile.getBox());
+			written &= fileHandler.writeUtf8Text(filepath + entry.getKey() + profile.getBox() + DATAFILE_EXTENSION, updatedData, false);
+		}
+		return written;
+	}
+
+	/**
+	 * Replace the database folder of the station with the previously staged one.
+	 *
+	 * @param serial serial of the station
+	 * @return true if the database folder was replaced, false if it was left untouched
+	 */
+	public boolean replaceWithStagedDatabase(int serial) {
+		String stagingPath = databaseFolder + "\\" + serial + STAGING_SUFFIX;
+		forgetStoredData(serial);
+		boolean replaced = fileHandler.replaceDirectory(databaseFolder + "\\" + serial, stagingPath);
+		if (!replaced && fileHandler.directoryExists(stagingPath)) {
+			fileHandler.deleteWholeDirectory(stagingPath);
+		}
+		databaseCache.invalidate(serial);
+		return replaced;
+	}
+
+	private void forgetStoredData(int serial) {
+		String databasePath = databaseFolder + "\\" + serial + "\\";
+		storedValueLines.keySet().removeIf(fdaPath -> fdaPath.startsWith(databasePath));
+		pendingDefaultData.keySet().removeIf(fdaPath -> fdaPath.startsWith(databasePath));
+		storedMappings.remove(serial);
 	}
 
 	private void clearUnusedFdaFolders(int serial) {
@@ -114,70 +238,145 @@ public class CmwProfileData {
 		return databases;
 	}
 
+	public void invalidateDatabase(int serial) {
+		databaseCache.invalidate(serial);
+	}
+
+	public void invalidateDatabases() {
+		databaseCache.invalidateAll();
+	}
+
+	public boolean isUpToDate(List<String> folderNames) {
+		List<Integer> serials = parseSerials(folderNames);
+		if (databases == null || databases.size() != serials.size()) {
+			return false;
+		}
+		for (int i = 0; i < serials.size(); i++) {
+			int serial = serials.get(i);
+			if (databases.get(i).getSerial() != serial || !databaseCache.isUpToDate(serial, readDatabaseStamp(serial))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	public List<Database> readDatabases(List<String> folderNames) {
 		databases = new ArrayList<>();
+		List<Integer> serials = parseSerials(folderNames);
+		databaseCache.retainSerials(serials);
+		storedMappings.keySet().retainAll(serials);
+		List<Database> staleDatabases = new ArrayList<>();
+		List<String> staleStamps = new ArrayList<>();
+		for (int serial : serials) {
+			String stamp = readDatabaseStamp(serial);
+			Database database = databaseCache.getDatabase(serial, stamp);
+			if (database == null) {
+				database = new CmwDatabase(serial);
+				forgetStoredData(serial);
+				staleDatabases.add(database);
+				staleStamps.add(stamp);
+			}
+			databases.add(database);
+		}
+		List<Future<List<String>>> results = new ArrayList<>();
+		for (Database database : staleDatabases) {
+			results.add(databaseExecutor.submit(() -> readDatabase(database)));
+		}
+		for (int i = 0; i < results.size(); i++) {
+			List<String> databaseInvalidTacs = awaitResult(results.get(i), "CMW database " + staleDatabases.get(i).getSerial());
+			if (databaseInvalidTacs == null) {
+				databases = new ArrayList<>();
+				databaseCache.invalidateAll();
+				return databases;
+			}
+			databaseCache.putDatabase(staleDatabases.get(i), staleStamps.get(i), databaseInvalidTacs);
+		}
 		List<String> invalidTacs = new ArrayList<>();
+		for (Database database : databases) {
+			invalidTacs.addAll(databaseCache.getInvalidTacs(database.getSerial()));
+		}
+		if (invalidTacs.size() > 0) {
+			assistant.setNotificationBuffer("Érvényetelen TAC szám az adatbázisban!\n\n" + TextHelper.stringListToLineBrokenString(invalidTacs));
+		} else {
+			assistant.setNotificationBuffer("");
+		}
+		return databases;
+	}
+
+	private List<Integer> parseSerials(List<String> folderNames) {
+		List<Integer> serials = new ArrayList<>();
 		try {
 			for (String folder : folderNames) {
-				databases.add(new CmwDatabase(Integer.parseInt(folder)));
+				serials.add(Integer.parseInt(folder));
 			}
 		} catch (NumberFormatException exception) {
 			System.out.println("invalid folder");
 		}
-		for (Database database : databases) {
-			int serial = database.getSerial();
-			List<String> tacData = fileHandler.readUtf8TextToList(databaseFolder + "\\" + serial + "\\TAC_DB\\CustomerMappingDB.txt", false);
-			if (tacData == null) {
-				return new ArrayList<>();
-			}
-			String name = "";
-			String type = "";
-			String manufacturer = "";
-			List<Long> tacList = new ArrayList<>();
-			long tac = 0;
-			String shieldBoxType = "";
-			String position = "";
-			boolean tacError = false;
-			for (int i = 1; i < tacData.size(); i++) {
-				String[] parts = tacData.get(i).split("\t");
-				if (parts[0].equals("Generic Splitter") || !parts[2].equals("RF_Cable")) {
-					if (!parts[0].equals(name)) {
-						addProfileToDatabase(database, serial, name, type, manufacturer, tacList, tac, shieldBoxType, position, tacError);
-						name = parts[0];
-						String[] nameparts = name.split(" ");
-						manufacturer = nameparts[0];
-						type = name.substring(manufacturer.length() + 1);
-						tacList = new ArrayList<>();
-						tac = Long.parseLong(parts[9].split("_")[1]);
-						shieldBoxType = parts[2];
-						position = parts[4];
-						tacError = processAssociatedTac(tacList, invalidTacs, serial, name, parts[1]);
-					} else {
-						if (processAssociatedTac(tacList, invalidTacs, serial, name, parts[1])) {
-							tacError = true;
-						}
-					}
-					if (i == tacData.size() - 1) {
-						addProfileToDatabase(database, serial, name, type, manufacturer, tacList, tac, shieldBoxType, position, tacError);
+		return serials;
+	}
+
+	private String readDatabaseStamp(int serial) {
+		String databasePath = databaseFolder + "\\" + serial + "\\TAC_DB";
+		String stamp = fileHandler.getFileStamp(databasePath + "\\" + MAIN_DATA_FILE);
+		if (stamp == null) {
+			return null;
+		}
+		StringBuilder builder = new StringBuilder(stamp);
+		for (String folder : fileHandler.listDirectories(databasePath)) {
+			builder.append(";").append(folder).append("=").append(fileHandler.getFileStamp(databasePath + "\\" + folder));
+		}
+		return builder.toString();
+	}
+
+	private List<String> readDatabase(Database database) {
+		int serial = database.getSerial();
+		List<String> tacData = fileHandler.readUtf8TextToList(databaseFolder + "\\" + serial + "\\TAC_DB\\CustomerMappingDB.txt", false);
+		if (tacData == null) {
+			return null;
+		}
+		storedMappings.put(serial, tacData);
+		List<String> invalidTacs = new ArrayList<>();
+		String name = "";
+		String type = "";
+		String manufacturer = "";
+		List<Long> tacList = new ArrayList<>();
+		long tac = 0;
+		String shieldBoxType = "";
+		String position = "";
+		boolean tacError = false;
+		for (int i = 1; i < tacData.size(); i++) {
+			String[] parts = tacData.get(i).split("\t");
+			if (parts[0].equals("Generic Splitter") || !parts[2].equals("RF_Cable")) {
+				if (!parts[0].equals(name)) {
+					addProfile(database, serial, name, type, manufacturer, tacList, tac, shieldBoxType, position, tacError);
+					name = parts[0];
+					String[] nameparts = name.split(" ");
+					manufacturer = nameparts[0];
+					type = name.substring(manufacturer.length() + 1);
+					tacList = new ArrayList<>();
+					tac = Long.parseLong(parts[9].split("_")[1]);
+					shieldBoxType = parts[2];
+					position = parts[4];
+					tacError = processAssociatedTac(tacList, invalidTacs, serial, name, parts[1]);
+				} else {
+					if (processAssociatedTac(tacList, invalidTacs, serial, name, parts[1])) {
+						tacError = true;
 					}
 				}
+				if (i == tacData.size() - 1) {
+					addProfile(database, serial, name, type, manufacturer, tacList, tac, shieldBoxType, position, tacError);
+				}
 			}
-			database.sortProfiles();
 		}
-		if (invalidTacs.size() > 0) {
-			assistant.setNotificationBuffer("Érvényetelen TAC szám az adatbázisban!\n\n" + TextHelper.stringListToLineBrokenString(invalidTacs));
-		} else {
-			assistant.setNotificationBuffer("");
-		}
-		return databases;
+		database.sortProfiles();
+		return invalidTacs;
 	}
 
-	private void addProfileToDatabase(Database database, int serial, String name, String type, String manufacturer, List<Long> tacList,
-									  long tac, String shieldBoxType, String position, boolean tacError) {
+	private void addProfile(Database database, int serial, String name, String type, String manufacturer, List<Long> tacList, long tac,
+							String shieldBoxType, String position, boolean tacError) {
 		if (!name.isEmpty() && tac != 0) {
-			CmwProfileValues values = readValues(serial, type, manufacturer, shieldBoxType, tac);
-			CmwProfile profile = new CmwProfile(serial, type, manufacturer, shieldBoxType, position, values, centerValue, tac, tacList);
-			profile.checkCondition();
+			CmwProfile profile = new CmwProfile(serial, type, manufacturer, shieldBoxType, position,
+					() -> readValues(serial, type, manufacturer, shieldBoxType, tac), centerValue, tac, tacList);
 			if (tacError) {
 				profile.enableTacError();
 			}
@@ -185,6 +384,35 @@ public class CmwProfileData {
 		}
 	}
 
+	/**
+	 * Read the data files of all profiles of the database which have not been accessed yet.
+	 *
+	 * @param database database of a station
+	 */
+	public void loadValues(Database database) {
+		List<Future<Integer>> results = new ArrayList<>();
+		for (Profile profile : database.getProfiles()) {
+			if (!profile.isValuesLoaded()) {
+				results.add(dataFileExecutor.submit(profile::getCondition));
+			}
+		}
+		for (Future<Integer> result : results) {
+			awaitResult(result, "CMW database " + database.getSerial());
+		}
+	}
+
+	private <T> T awaitResult(Future<T> result, String name) {
+		try {
+			return result.get();
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+			System.out.println("Database read interrupted: " + name);
+		} catch (ExecutionException exception) {
+			System.out.println("Database read error: " + name);
+		}
+		return null;
+	}
+
 	private boolean processAssociatedTac(List<Long> tacList, List<String> invalidTacs, int serial, String name, String text) {
 		long associatedTac;
 		try {
@@ -203,12 +431,41 @@ public class CmwProfileData {
 		return false;
 	}
 
-	private void updateFileData(CmwProfile profile) {
-		String folderPath = createProfileFolderPath(profile.getSerial(), profile.getBox());
-		if (!fileHandler.directoryExists(folderPath)) {
-			fileHandler.createDirectory(folderPath);
+	private void updateFileData(CmwProfile profile, FileTransaction transaction, List<String> writtenDefaults) {
+		if (!profile.isValuesLoaded()) {
+			return;
 		}
 		String filepath = createProfileFilepath(profile);
+		Map<String, double[]> changedValues = new LinkedHashMap<>();
+		Map<String, List<String>> defaultData = new LinkedHashMap<>();
+		for (Map.Entry<String, double[]> entry : createValueSets(profile).entrySet()) {
+			String fdaPath = filepath + entry.getKey() + profile.getBox() + DATAFILE_EXTENSION;
+			List<String> pendingData = pendingDefaultData.get(fdaPath);
+			if (pendingData != null) {
+				storedValueLines.put(fdaPath, pendingData.get(11));
+				defaultData.put(entry.getKey(), pendingData);
+				writtenDefaults.add(fdaPath);
+			}
+			addChangedValues(changedValues, entry.getValue(), entry.getKey(), profile.getBox(), filepath);
+		}
+		defaultData.keySet().removeAll(changedValues.keySet());
+		if (!changedValues.isEmpty() || !defaultData.isEmpty()) {
+			String folderPath = createProfileFolderPath(profile.getSerial(), profile.getBox());
+			if (!fileHandler.directoryExists(folderPath)) {
+				fileHandler.createDirectory(folderPath);
+			}
+			for (Map.Entry<String, double[]> entry : changedValues.entrySet()) {
+				List<String> updatedData = createUpdatedData(entry.getValue(), entry.getKey(), profile.getName(), profile.getStoreTac(), profile.getBox());
+				transaction.writeUtf8Text(filepath + entry.getKey() + profile.getBox() + DATAFILE_EXTENSION, updatedData);
+				storedValueLines.put(filepath + entry.getKey() + profile.getBox() + DATAFILE_EXTENSION, updatedData.get(11));
+			}
+			for (Map.Entry<String, List<String>> entry : defaultData.entrySet()) {
+				transaction.writeUtf8Text(filepath + entry.getKey() + profile.getBox() + DATAFILE_EXTENSION, entry.getValue());
+			}
+		}
+	}
+
+	private Map<String, double[]> createValueSets(CmwProfile profile) {
 		double[] gsmInValues = new double[6];
 		double[] gsmOutValues = new double[6];
 		double[] wcdmaInValues = new double[6];
@@ -239,19 +496,36 @@ public class CmwProfileData {
 			lteInValues[i] = profile.getLte7InValues()[i - 9];
 			lteOutValues[i] = profile.getLte7OutValues()[i - 9];
 		}
-		writeUpdatedData(gsmInValues, "_GSM_IN@", profile.getName(), profile.getStoreTac(), profile.getBox(), filepath);
-		writeUpdatedData(gsmOutValues, "_GSM_OUT@", profile.getName(), profile.getStoreTac(), profile.getBox(), filepath);
-		writeUpdatedData(wcdmaInValues, "_WCDMA_IN@", profile.getName(), profile.getStoreTac(), profile.getBox(), filepath);
-		writeUpdatedData(wcdmaOutValues, "_WCDMA_OUT@", profile.getName(), profile.getStoreTac(), profile.getBox(), filepath);
-		writeUpdatedData(lteInValues, "_LTE_IN@", profile.getName(), profile.getStoreTac(), profile.getBox(), filepath);
-		writeUpdatedData(lteOutValues, "_LTE_OUT@", profile.getName(), profile.getStoreTac(), profile.getBox(), filepath);
-		writeUpdatedData(new double[MISC_CHANNELS.length()], "_MISC@", profile.getName(), profile.getStoreTac(), profile.getBox(), filepath);
+		Map<String, double[]> valueSets = new LinkedHashMap<>();
+		valueSets.put("_GSM_IN@", gsmInValues);
+		valueSets.put("_GSM_OUT@", gsmOutValues);
+		valueSets.put("_WCDMA_IN@", wcdmaInValues);
+		valueSets.put("_WCDMA_OUT@", wcdmaOutValues);
+		valueSets.put("_LTE_IN@", lteInValues);
+		valueSets.put("_LTE_OUT@", lteOutValues);
+		valueSets.put("_MISC@", new double[MISC_CHANNELS.length()]);
+		return valueSets;
+	}
+
+	private void addChangedValues(Map<String, double[]> changedValues, double[] values, String valuesType, String shieldBoxType, String filepath) {
+		if (!changeValues(values).equals(storedValueLines.get(filepath + valuesType + shieldBoxType + DATAFILE_EXTENSION))) {
+			changedValues.put(valuesType, values);
+		}
 	}
 
-	private List<String> writeUpdatedData(double[] values, String valuesType, String name, long storeTac, String shieldBoxType, String filepath) {
+	/**
+	 * Create the default content of a missing data file. The file is not written here, it is only marked as pending and
+	 * created by the next database write together with the other changes of the database.
+	 */
+	private List<String> createDefaultData(double[] values, String valuesType, String name, long storeTac, String shieldBoxType, String filepath) {
+		List<String> defaultData = createUpdatedData(values, valuesType, name, storeTac, shieldBoxType);
+		pendingDefaultData.put(filepath + valuesType + shieldBoxType + DATAFILE_EXTENSION, defaultData);
+		return defaultData;
+	}
+
+	private List<String> createUpdatedData(double[] values, String valuesType, String name, long storeTac, String shieldBoxType) {
 		List<String> updatedData = createEmptyData(valuesType, name, storeTac, shieldBoxType);
 		updatedData.set(11, changeValues(values));
-		fileHandler.writeUtf8Text(filepath + valuesType + shieldBoxType + ".fda", updatedData, false);
 		return updatedData;
 	}
 
@@ -295,7 +569,11 @@ public class CmwProfileData {
 	}
 
 	private String createProfileFolderPath(int serial, String shieldBoxType) {
-		return databaseFolder + "\\" + serial + "\\TAC_DB\\" + shieldBoxType;
+		return createProfileFolderPath(databaseFolder + "\\" + serial, shieldBoxType);
+	}
+
+	private String createProfileFolderPath(String databasePath, String shieldBoxType) {
+		return databasePath + "\\TAC_DB\\" + shieldBoxType;
 	}
 
 	private String createProfileFilepath(CmwProfile profile) {
@@ -326,25 +604,39 @@ public class CmwProfileData {
 		List<String> lteOutRawData = fileHandler.readUtf8TextToList(filepath + "_LTE_OUT@" + shieldBoxType + DATAFILE_EXTENSION, false);
 		List<String> miscRawData = fileHandler.readUtf8TextToList(filepath + "_MISC@" + shieldBoxType + DATAFILE_EXTENSION, false);
 		if (gsmInRawData == null) {
-			gsmInRawData = writeUpdatedData(getCenterValues(GSM_IN_CHANNELS), "_GSM_IN@", name, storeTac, shieldBoxType, filepath);
+			gsmInRawData = createDefaultData(getCenterValues(GSM_IN_CHANNELS), "_GSM_IN@", name, storeTac, shieldBoxType, filepath);
+		} else {
+			storeValueLine(filepath + "_GSM_IN@" + shieldBoxType + DATAFILE_EXTENSION, gsmInRawData);
 		}
 		if (gsmOutRawData == null) {
-			gsmOutRawData = writeUpdatedData(getCenterValues(GSM_OUT_CHANNELS), "_GSM_OUT@", name, storeTac, shieldBoxType, filepath);
+			gsmOutRawData = createDefaultData(getCenterValues(GSM_OUT_CHANNELS), "_GSM_OUT@", name, storeTac, shieldBoxType, filepath);
+		} else {
+			storeValueLine(filepath + "_GSM_OUT@" + shieldBoxType + DATAFILE_EXTENSION, gsmOutRawData);
 		}
 		if (wcdmaInRawData == null) {
-			wcdmaInRawData = writeUpdatedData(getCenterValues(WCDMA_IN_CHANNELS), "_WCDMA_IN@", name, storeTac, shieldBoxType, filepath);
+			wcdmaInRawData = createDefaultData(getCenterValues(WCDMA_IN_CHANNELS), "_WCDMA_IN@", name, storeTac, shieldBoxType, filepath);
+		} else {
+			storeValueLine(filepath + "_WCDMA_IN@" + shieldBoxType + DATAFILE_EXTENSION, wcdmaInRawData);
 		}
 		if (wcdmaOutRawData == null) {
-			wcdmaOutRawData = writeUpdatedData(getCenterValues(WCDMA_OUT_CHANNELS), "_WCDMA_OUT@", name, storeTac, shieldBoxType, filepath);
+			wcdmaOutRawData = createDefaultData(getCenterValues(WCDMA_OUT_CHANNELS), "_WCDMA_OUT@", name, storeTac, shieldBoxType, filepath);
+		} else {
+			storeValueLine(filepath + "_WCDMA_OUT@" + shieldBoxType + DATAFILE_EXTENSION, wcdmaOutRawData);
 		}
 		if (lteInRawData == null) {
-			lteInRawData = writeUpdatedData(getCenterValues(LTE_IN_CHANNELS), "_LTE_IN@", name, storeTac, shieldBoxType, filepath);
+			lteInRawData = createDefaultData(getCenterValues(LTE_IN_CHANNELS), "_LTE_IN@", name, storeTac, shieldBoxType, filepath);
+		} else {
+			storeValueLine(filepath + "_LTE_IN@" + shieldBoxType + DATAFILE_EXTENSION, lteInRawData);
 		}
 		if (lteOutRawData == null) {
-			lteOutRawData = writeUpdatedData(getCenterValues(LTE_OUT_CHANNELS), "_LTE_OUT@", name, storeTac, shieldBoxType, filepath);
+			lteOutRawData = createDefaultData(getCenterValues(LTE_OUT_CHANNELS), "_LTE_OUT@", name, storeTac, shieldBoxType, filepath);
+		} else {
+			storeValueLine(filepath + "_LTE_OUT@" + shieldBoxType + DATAFILE_EXTENSION, lteOutRawData);
 		}
 		if (miscRawData == null) {
-			writeUpdatedData(getCenterValues(MISC_CHANNELS), "_MISC@", name, storeTac, shieldBoxType, filepath);
+			createDefaultData(getCenterValues(MISC_CHANNELS), "_MISC@", name, storeTac, shieldBoxType, filepath);
+		} else {
+			storeValueLine(filepath + "_MISC@" + shieldBoxType + DATAFILE_EXTENSION, miscRawData);
 		}
 		String[] gsmInParts = processValues(gsmInRawData);
 		String[] gsmOutParts = processValues(gsmOutRawData);
@@ -378,12 +670,20 @@ public class CmwProfileData {
 				values.setLte7OutValue(NumberHelper.oneDecimalPlaceOf(Double.parseDouble(lteOutParts[i])), i - 9);
 			}
 		} catch (NumberFormatException exception) {
-			deleteFdaFiles(filepath, shieldBoxType);
+			for (String valuesType : DATAFILE_TYPES) {
+				storedValueLines.remove(filepath + valuesType + shieldBoxType + DATAFILE_EXTENSION);
+			}
 			values = new CmwProfileValues();
 		}
 		return values;
 	}
 
+	private void storeValueLine(String fdaPath, List<String> rawData) {
+		if (rawData.size() > 11) {
+			storedValueLines.put(fdaPath, rawData.get(11));
+		}
+	}
+
 	private String[] processValues(List<String> rawData) {
 		return rawData.get(11).split("\"")[5].split(";");
 	}
@@ -395,6 +695,10 @@ public class CmwProfileData {
 	}
 
 	private void deleteFdaFiles(String filepath, String shieldBoxType) {
+		for (String valuesType : DATAFILE_TYPES) {
+			storedValueLines.remove(filepath + valuesType + shieldBoxType + DATAFILE_EXTENSION);
+			pendingDefaultData.remove(filepath + valuesType + shieldBoxType + DATAFILE_EXTENSION);
+		}
 		fileHandler.deleteFile(filepath + "_GSM_IN@" + shieldBoxType + DATAFILE_EXTENSION);
 		fileHandler.deleteFile(filepath + "_GSM_OUT@" + shieldBoxType + DATAFILE_EXTENSION);
 		fileHandler.deleteFile(filepath + "_WCDMA_IN@" + shieldBoxType + DATAFILE_EXTENSION);
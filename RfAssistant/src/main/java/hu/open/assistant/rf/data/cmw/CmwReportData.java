@@ -3,15 +3,18 @@ package hu.open.assistant.rf.data.cmw;
 import hu.open.assistant.rf.model.report.CmwReport;
 import hu.open.assistant.rf.model.report.limits.CmwReportLimits;
 import hu.open.assistant.rf.model.report.values.CmwReportValues;
-import hu.open.assistant.commons.data.FileHandler;
-import hu.open.assistant.commons.util.NumberHelper;
+import hu.open.assistant.commons.data.LineReader;
 import hu.open.assistant.commons.util.TextHelper;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Data class which reads raw CMW type reports from disk. It contains many checking stages to verify the report.
+ * Data class which reads raw CMW type reports from disk. It contains many checking stages to verify the report. Reports
+ * are streamed line by line with a reused per-thread reader, so incompatible reports are rejected after the header and
+ * the rest of the file is skipped once all expected values are collected.
  */
 public class CmwReportData {
 
@@ -22,17 +25,30 @@ public class CmwReportData {
 			"CMW_LTE1-3-7-20_RF",
 			"CMW_LTE20-1-7-3_RF"};
 
+	private static final int HEADER_LINE_COUNT = 17;
+	private static final byte[] MAX_POWER = toBytes("Max. Power");
+	private static final byte[] CPICH_RSCP_LOWER = toBytes("CPICH RSCP - Lower");
+	private static final byte[] AVERAGE_POWER = toBytes("Average Power");
+	private static final byte[] RX_LEV = toBytes("RX LEV");
+	private static final byte[] MAX_OUTPUT_POWER = toBytes("Max. Output Power");
+	private static final byte[] RSRP = toBytes("RSRP");
+	private static final byte[] UE_MEASUREMENT_REPORT = toBytes("UE Measurement Report");
+	private static final byte[] DBM = toBytes("dBm");
+	private static final byte[] DASHES = toBytes("---");
+	private static final byte[] PARENTHESIS = toBytes("(");
+	private static final byte[] ELLIPSIS = toBytes("...");
+
 	private final CmwReportLimits limits;
-	private final FileHandler fileHandler;
+	private final ThreadLocal<LineReader> lineReader = ThreadLocal.withInitial(LineReader::new);
+	private final Map<Integer, byte[]> limitPatterns = new ConcurrentHashMap<>();
+	private final Map<Integer, byte[]> lteLimitPatterns = new ConcurrentHashMap<>();
 
-	public CmwReportData(CmwReportLimits limits, FileHandler fileHandler) {
+	public CmwReportData(CmwReportLimits limits) {
 		this.limits = limits;
-		this.fileHandler = fileHandler;
 	}
 
 	public CmwReport readReport(String reportFolder, String filename, int passableLimit) {
 		CmwReport report = null;
-		List<String> rawText = fileHandler.readUtf8TextToList(reportFolder + "\\" + filename, false);
 		boolean passed = false;
 		boolean process = true;
 		LocalDateTime dateTime = null;
@@ -54,14 +70,21 @@ public class CmwReportData {
 			System.out.println("Incorrect filename: " + filename);
 			process = false;
 		}
-		if (rawText == null) {
-			process = false;
+		if (!process) {
+			return null;
 		}
-		if (process) {
+		LineReader reader = lineReader.get();
+		if (!reader.open(reportFolder + "\\" + filename)) {
+			return null;
+		}
+		try {
+			String[] header = readHeader(reader);
+			if (header != null) {
+				dateTime = cmwReportDateTimeToLocalDateTime(header[0]);
+			}
 			try {
-				dateTime = cmwReportDateTimeToLocalDateTime(rawText.get(0));
 				if (dateTime != null) {
-					serial = Integer.parseInt(rawText.get(16).split(":")[2].substring(1));
+					serial = Integer.parseInt(header[HEADER_LINE_COUNT - 1].split(":")[2].substring(1));
 				} else {
 					System.out.println("Incorrect header info: " + filename);
 					process = false;
@@ -70,35 +93,57 @@ public class CmwReportData {
 				System.out.println("Incorrect header info: " + filename);
 				process = false;
 			}
-		}
-		if (process) {
-			String script;
-			try {
-				scriptVersion = Float.parseFloat(rawText.get(8).split(":")[1].substring(1));
-				String name = rawText.get(10).split(":")[1].substring(1);
-				manufacturer = TextHelper.getFirstWord(name);
-				type = name.substring(manufacturer.length() + 1);
-				position = rawText.get(14).split(":")[1].substring(1);
-				String[] scriptParts = rawText.get(2).split("\\\\");
-				script = scriptParts[scriptParts.length - 1];
-				if (isScriptCompatible(script)) {
-					CmwReportValues values = readValues(rawText);
-					if (values == null || !allValuesPresent(values, script)) {
-						System.out.println("Incomplete report: " + filename);
-						values = new CmwReportValues();
+			if (process) {
+				String script;
+				try {
+					scriptVersion = Float.parseFloat(header[8].split(":")[1].substring(1));
+					String name = header[10].split(":")[1].substring(1);
+					manufacturer = TextHelper.getFirstWord(name);
+					type = name.substring(manufacturer.length() + 1);
+					position = header[14].split(":")[1].substring(1);
+					String[] scriptParts = header[2].split("\\\\");
+					script = scriptParts[scriptParts.length - 1];
+					if (isScriptCompatible(script)) {
+						CmwReportValues values = readValues(reader);
+						if (values == null || !allValuesPresent(values, script)) {
+							System.out.println("Incomplete report: " + filename);
+							values = new CmwReportValues();
+						}
+						report = new CmwReport(filename, reportFolder, dateTime, type, manufacturer, serial, position, scriptVersion, imei, passed, values, limits);
+						report.checkValues(passableLimit);
+					} else {
+						System.out.println("Script not supported: " + filename);
 					}
-					report = new CmwReport(filename, reportFolder, dateTime, type, manufacturer, serial, position, scriptVersion, imei, passed, values, limits);
-					report.checkValues(passableLimit);
-				} else {
-					System.out.println("Script not supported: " + filename);
+				} catch (NumberFormatException | IndexOutOfBoundsException exception) {
+					System.out.println("Incorrect report format: " + filename);
 				}
-			} catch (NumberFormatException | IndexOutOfBoundsException exception) {
-				System.out.println("Incorrect report format: " + filename);
 			}
+		} finally {
+			reader.close();
 		}
 		return report;
 	}
 
+	private String[] readHeader(LineReader reader) {
+		String[] header = new String[HEADER_LINE_COUNT];
+		while (reader.getLineNumber() < HEADER_LINE_COUNT - 1) {
+			if (!reader.nextLine()) {
+				return null;
+			}
+			switch (reader.getLineNumber()) {
+				case 0:
+				case 2:
+				case 8:
+				case 10:
+				case 14:
+				case HEADER_LINE_COUNT - 1:
+					header[reader.getLineNumber()] = reader.getLine(StandardCharsets.UTF_8);
+					break;
+			}
+		}
+		return header;
+	}
+
 	private boolean isScriptCompatible(String script) {
 		for (String compatibleScript : COMPATIBLE_SCRIPTS) {
 			if (script.contains(compatibleScript)) {
@@ -108,35 +153,55 @@ public class CmwReportData {
 		return false;
 	}
 
-	private double readValue(String line, String limit, String unit) {
+	private double readValue(LineReader reader, byte[] limit, byte[] unit) {
 		double value;
-		value = Double.parseDouble(line.substring(line.indexOf(limit) + limit.length(), line.indexOf(unit)).stripLeading());
+		value = Double.parseDouble(reader.getText(reader.indexOf(limit, 0) + limit.length, reader.indexOf(unit, 0), StandardCharsets.ISO_8859_1));
 		if (Double.isNaN(value)) {
 			throw new NumberFormatException();
 		}
 		return value;
 	}
 
+	/**
+	 * Get the encoded text of a limit which precedes the value in the report line. The limits can be changed in the
+	 * config, so the patterns are kept by limit value and each value is only encoded once.
+	 */
+	private byte[] limitPattern(int limit) {
+		return limitPatterns.computeIfAbsent(limit, value -> toBytes(String.valueOf(value)));
+	}
+
+	private byte[] lteLimitPattern(int limit) {
+		return lteLimitPatterns.computeIfAbsent(limit, value -> toBytes(value + ".00"));
+	}
+
+	private static byte[] toBytes(String text) {
+		return text.getBytes(StandardCharsets.ISO_8859_1);
+	}
+
 	private boolean allValuesPresent(CmwReportValues values, String script) {
 		switch (script) {
 			case "CMW_WCDMAI_GSM900-1800_RF2.rstp":
 			case "CMW_WCDMAI_GSM900-1800_RF1.rstp":
-				return NumberHelper.arrayHasValues(values.getWcdma1TxValues()) && NumberHelper.arrayHasValues(values.getWcdma1RxValues()) &&
-						NumberHelper.arrayHasValues(values.getGsm900TxValues()) && NumberHelper.arrayHasValues(values.getGsm900RxValues()) &&
-						NumberHelper.arrayHasValues(values.getGsm1800TxValues()) && NumberHelper.arrayHasValues(values.getGsm1800RxValues());
+				return values.hasValues(CmwReportValues.WCDMA1_TX) && values.hasValues(CmwReportValues.WCDMA1_RX) &&
+						values.hasValues(CmwReportValues.GSM900_TX) && values.hasValues(CmwReportValues.GSM900_RX) &&
+						values.hasValues(CmwReportValues.GSM1800_TX) && values.hasValues(CmwReportValues.GSM1800_RX);
 			case "CMW_WCDMAI_RF2.rstp":
 			case "CMW_WCDMAI_RF1.rstp":
-				return NumberHelper.arrayHasValues(values.getWcdma1TxValues()) && NumberHelper.arrayHasValues(values.getWcdma1RxValues());
+				return values.hasValues(CmwReportValues.WCDMA1_TX) && values.hasValues(CmwReportValues.WCDMA1_RX);
 			default:
-				return NumberHelper.arrayHasValues(values.getLte1TxValues()) && NumberHelper.arrayHasValues(values.getLte1RxValues()) &&
-						NumberHelper.arrayHasValues(values.getLte3TxValues()) && NumberHelper.arrayHasValues(values.getLte3RxValues()) &&
-						NumberHelper.arrayHasValues(values.getLte7TxValues()) && NumberHelper.arrayHasValues(values.getLte7RxValues()) &&
-						NumberHelper.arrayHasValues(values.getLte20TxValues()) && NumberHelper.arrayHasValues(values.getLte20RxValues());
+				return values.hasValues(CmwReportValues.LTE1_TX) && values.hasValues(CmwReportValues.LTE1_RX) &&
+						values.hasValues(CmwReportValues.LTE3_TX) && values.hasValues(CmwReportValues.LTE3_RX) &&
+						values.hasValues(CmwReportValues.LTE7_TX) && values.hasValues(CmwReportValues.LTE7_RX) &&
+						values.hasValues(CmwReportValues.LTE20_TX) && values.hasValues(CmwReportValues.LTE20_RX);
 		}
 	}
 
-	private CmwReportValues readValues(List<String> rawText) {
-		String line;
+	/**
+	 * Read the measured values line by line, starting from the last header line. Some values are in the line after
+	 * their label, these are remembered as pending and read when the next line arrives. Reading stops as soon as the
+	 * last expected sample is collected.
+	 */
+	private CmwReportValues readValues(LineReader reader) {
 		CmwReportValues values = new CmwReportValues();
 		int sampleWcdmaTx = 0;
 		int sampleWcdmaRx = 0;
@@ -146,72 +211,94 @@ public class CmwReportData {
 		int sampleLteRx = 0;
 		int sampleLteAllTx = 0;
 		String lteBand = "";
+		int pendingBand = -1;
+		int pendingIndex = 0;
+		byte[] pendingLimit = null;
+		boolean finished = false;
 		try {
-			for (int i = 16; i < rawText.size(); i++) {
-				line = rawText.get(i);
-				if (line.contains("Max. Power")) {
+			do {
+				if (pendingBand >= 0) {
+					values.setValue(pendingBand, pendingIndex, readValue(reader, pendingLimit, DBM));
+					pendingBand = -1;
+				}
+				if (finished) {
+					return values;
+				}
+				if (reader.contains(MAX_POWER)) {
 					if (sampleWcdmaTx < 3) {
-						values.setWcdma1TxValue(readValue(line, "" + limits.getWcdma1TxMax(), "dBm"), sampleWcdmaTx);
+						values.setValue(CmwReportValues.WCDMA1_TX, sampleWcdmaTx, readValue(reader, limitPattern(limits.getWcdma1TxMax()), DBM));
 					} else {
-						values.setWcdma8TxValue(readValue(line, "" + limits.getWcdma8TxMax(), "dBm"), sampleWcdmaTx - 3);
+						values.setValue(CmwReportValues.WCDMA8_TX, sampleWcdmaTx - 3, readValue(reader, limitPattern(limits.getWcdma8TxMax()), DBM));
 					}
 					sampleWcdmaTx++;
-				} else if (line.contains("CPICH RSCP - Lower")) {
+				} else if (reader.contains(CPICH_RSCP_LOWER)) {
+					pendingBand = CmwReportValues.WCDMA1_RX;
 					if (sampleWcdmaRx < 3) {
-						values.setWcdma1RxValue(readValue(rawText.get(i + 1), "" + limits.getWcdma1RxMax(), "dBm"), sampleWcdmaRx);
+						pendingIndex = sampleWcdmaRx;
+						pendingLimit = limitPattern(limits.getWcdma1RxMax());
 					} else {
-						values.setWcdma1RxValue(readValue(rawText.get(i + 1), "" + limits.getWcdma8RxMax(), "dBm"), sampleWcdmaRx - 3);
+						pendingIndex = sampleWcdmaRx - 3;
+						pendingLimit = limitPattern(limits.getWcdma8RxMax());
 					}
 					sampleWcdmaRx++;
-				} else if (line.contains("Average Power")) {
+				} else if (reader.contains(AVERAGE_POWER)) {
 					if (sampleGsmTx < 3) {
-						values.setGsm900TxValue(readValue(rawText.get(i + 1), "" + limits.getGsm900TxMax(), "dBm"), sampleGsmTx);
+						pendingBand = CmwReportValues.GSM900_TX;
+						pendingIndex = sampleGsmTx;
+						pendingLimit = limitPattern(limits.getGsm900TxMax());
 					} else {
-						values.setGsm1800TxValue(readValue(rawText.get(i + 1), "" + limits.getGsm1800TxMax(), "dBm"), sampleGsmTx - 3);
+						pendingBand = CmwReportValues.GSM1800_TX;
+						pendingIndex = sampleGsmTx - 3;
+						pendingLimit = limitPattern(limits.getGsm1800TxMax());
 					}
 					sampleGsmTx++;
-				} else if (line.contains("RX LEV")) {
+				} else if (reader.contains(RX_LEV)) {
 					if (sampleGsmRx < 3) {
-						values.setGsm900RxValue(readValue(line, "" + limits.getGsm900RxMax(), "---"), sampleGsmRx);
+						values.setValue(CmwReportValues.GSM900_RX, sampleGsmRx, readValue(reader, limitPattern(limits.getGsm900RxMax()), DASHES));
 					} else {
-						values.setGsm1800RxValue(readValue(line, "" + limits.getGsm1800RxMax(), "---"), sampleGsmRx - 3);
+						values.setValue(CmwReportValues.GSM1800_RX, sampleGsmRx - 3, readValue(reader, limitPattern(limits.getGsm1800RxMax()), DASHES));
 					}
 					sampleGsmRx++;
-				} else if (line.contains("Max. Output Power")) {
+				} else if (reader.contains(MAX_OUTPUT_POWER)) {
 					switch (lteBand) {
 						case "Band1":
-							values.setLte1TxValue(readValue(rawText.get(i + 1), "" + limits.getLte1TxMax() + ".00", "dBm"), sampleLteTx);
+							pendingBand = CmwReportValues.LTE1_TX;
+							pendingLimit = lteLimitPattern(limits.getLte1TxMax());
 							break;
 						case "Band3":
-							values.setLte3TxValue(readValue(rawText.get(i + 1), "" + limits.getLte3TxMax() + ".00", "dBm"), sampleLteTx);
+							pendingBand = CmwReportValues.LTE3_TX;
+							pendingLimit = lteLimitPattern(limits.getLte3TxMax());
 							break;
 						case "Band7":
-							values.setLte7TxValue(readValue(rawText.get(i + 1), "" + limits.getLte7TxMax() + ".00", "dBm"), sampleLteTx);
+							pendingBand = CmwReportValues.LTE7_TX;
+							pendingLimit = lteLimitPattern(limits.getLte7TxMax());
 							break;
 						case "Band20":
-							values.setLte20TxValue(readValue(rawText.get(i + 1), "" + limits.getLte20TxMax() + ".00", "dBm"), sampleLteTx);
+							pendingBand = CmwReportValues.LTE20_TX;
+							pendingLimit = lteLimitPattern(limits.getLte20TxMax());
 							break;
 					}
+					pendingIndex = sampleLteTx;
 					sampleLteTx++;
 					sampleLteAllTx++;
-				} else if (line.contains("RSRP")) {
+				} else if (reader.contains(RSRP)) {
 					switch (lteBand) {
 						case "Band1":
-							values.setLte1RxValue(readValue(line, "(", "..."), sampleLteRx);
+							values.setValue(CmwReportValues.LTE1_RX, sampleLteRx, readValue(reader, PARENTHESIS, ELLIPSIS));
 							break;
 						case "Band3":
-							values.setLte3RxValue(readValue(line, "(", "..."), sampleLteRx);
+							values.setValue(CmwReportValues.LTE3_RX, sampleLteRx, readValue(reader, PARENTHESIS, ELLIPSIS));
 							break;
 						case "Band7":
-							values.setLte7RxValue(readValue(line, "(", "..."), sampleLteRx);
+							values.setValue(CmwReportValues.LTE7_RX, sampleLteRx, readValue(reader, PARENTHESIS, ELLIPSIS));
 							break;
 						case "Band20":
-							values.setLte20RxValue(readValue(line, "(", "..."), sampleLteRx);
+							values.setValue(CmwReportValues.LTE20_RX, sampleLteRx, readValue(reader, PARENTHESIS, ELLIPSIS));
 							break;
 					}
 					sampleLteRx++;
-				} else if (line.contains("UE Measurement Report")) {
-					String bandIndicator = line.split(" ")[7];
+				} else if (reader.contains(UE_MEASUREMENT_REPORT)) {
+					String bandIndicator = reader.getLine(StandardCharsets.UTF_8).split(" ")[7];
 					if (!lteBand.isEmpty() && !bandIndicator.equals(lteBand)) {
 						sampleLteTx = 0;
 						sampleLteRx = 0;
@@ -219,8 +306,14 @@ public class CmwReportData {
 					lteBand = bandIndicator;
 				}
 				if (sampleGsmRx == 6 || sampleLteAllTx == 12) {
-					return values;
+					if (pendingBand < 0) {
+						return values;
+					}
+					finished = true;
 				}
+			} while (reader.nextLine());
+			if (pendingBand >= 0) {
+				values = null;
 			}
 		} catch (NumberFormatException | IndexOutOfBoundsException exception) {
 			values = null;
@@ -1290,7 +1290,11 @@ public class RfWindow extends AssWindow {
 					selectTask();
 					break;
 				case PREPARE_REPORT_SEARCH:
-					searchReport.prepareReports();
+					if (SearchReport.isImei(task.getParameter())) {
+						searchReport.prepareImeiReports(Long.parseLong(task.getParameter()));
+					} else {
+						searchReport.prepareReports();
+					}
 					if (!task.getParameter().isEmpty()) {
 						searchReport.setKeyword(task.getParameter());
 					}
@@ -1362,6 +1366,8 @@ public class RfWindow extends AssWindow {
 		} else if (event.getActionCommand().equals("backup_create_done")) {
 			selectTask();
 			showNotification(RfNotice.SELECT_BACKUP_CREATE_DONE);
+		} else if (event.getActionCommand().equals("backup_create_failed")) {
+			selectTask();
 		} else if (event.getActionCommand().equals("backup_restore_done")) {
 			selectTask();
 			showNotification(RfNotice.SELECT_BACKUP_RESTORE_DONE);
@@ -9,6 +9,8 @@ import hu.open.assistant.rf.model.report.limits.CmwReportLimits;
 import hu.open.assistant.rf.model.report.CmwReport;
 import hu.open.assistant.rf.model.Point;
 import hu.open.assistant.rf.model.report.limits.ReportLimits;
+import hu.open.assistant.rf.model.report.values.CmwReportValues;
+import hu.open.assistant.rf.model.report.values.ReportValues;
 
 import javax.swing.JPanel;
 import java.awt.Color;
@@ -149,178 +151,178 @@ public class PointGraph extends JPanel {
 			if (graphType.equals("wcdma1_tx") && report.hasWcdma1()) {
 				createPoint = true;
 				if (move) {
-					low = (int) ((compensation.getWcdma1TxValues()[0] + report.getWcdma1TxValues()[0] - limits.getWcdma1TxExp()) * UNIT_HEIGHT);
-					mid = (int) ((compensation.getWcdma1TxValues()[1] + report.getWcdma1TxValues()[1] - limits.getWcdma1TxExp()) * UNIT_HEIGHT);
-					high = (int) ((compensation.getWcdma1TxValues()[2] + report.getWcdma1TxValues()[2] - limits.getWcdma1TxExp()) * UNIT_HEIGHT);
+					low = (int) ((compensation.getWcdma1TxValues()[0] + report.getValue(ReportValues.WCDMA1_TX, 0) - limits.getWcdma1TxExp()) * UNIT_HEIGHT);
+					mid = (int) ((compensation.getWcdma1TxValues()[1] + report.getValue(ReportValues.WCDMA1_TX, 1) - limits.getWcdma1TxExp()) * UNIT_HEIGHT);
+					high = (int) ((compensation.getWcdma1TxValues()[2] + report.getValue(ReportValues.WCDMA1_TX, 2) - limits.getWcdma1TxExp()) * UNIT_HEIGHT);
 				} else {
-					low = (int) ((report.getWcdma1TxValues()[0] - limits.getWcdma1TxExp()) * UNIT_HEIGHT);
-					mid = (int) ((report.getWcdma1TxValues()[1] - limits.getWcdma1TxExp()) * UNIT_HEIGHT);
-					high = (int) ((report.getWcdma1TxValues()[2] - limits.getWcdma1TxExp()) * UNIT_HEIGHT);
+					low = (int) ((report.getValue(ReportValues.WCDMA1_TX, 0) - limits.getWcdma1TxExp()) * UNIT_HEIGHT);
+					mid = (int) ((report.getValue(ReportValues.WCDMA1_TX, 1) - limits.getWcdma1TxExp()) * UNIT_HEIGHT);
+					high = (int) ((report.getValue(ReportValues.WCDMA1_TX, 2) - limits.getWcdma1TxExp()) * UNIT_HEIGHT);
 				}
 			} else if (graphType.equals("wcdma1_rx") && report.hasWcdma1()) {
 				createPoint = true;
 				if (move) {
-					low = (int) ((compensation.getWcdma1RxValues()[0] + report.getWcdma1RxValues()[0] - limits.getWcdma1RxExp()) * UNIT_HEIGHT);
-					mid = (int) ((compensation.getWcdma1RxValues()[1] + report.getWcdma1RxValues()[1] - limits.getWcdma1RxExp()) * UNIT_HEIGHT);
-					high = (int) ((compensation.getWcdma1RxValues()[2] + report.getWcdma1RxValues()[2] - limits.getWcdma1RxExp()) * UNIT_HEIGHT);
+					low = (int) ((compensation.getWcdma1RxValues()[0] + report.getValue(ReportValues.WCDMA1_RX, 0) - limits.getWcdma1RxExp()) * UNIT_HEIGHT);
+					mid = (int) ((compensation.getWcdma1RxValues()[1] + report.getValue(ReportValues.WCDMA1_RX, 1) - limits.getWcdma1RxExp()) * UNIT_HEIGHT);
+					high = (int) ((compensation.getWcdma1RxValues()[2] + report.getValue(ReportValues.WCDMA1_RX, 2) - limits.getWcdma1RxExp()) * UNIT_HEIGHT);
 				} else {
-					low = (int) ((report.getWcdma1RxValues()[0] - limits.getWcdma1RxExp()) * UNIT_HEIGHT);
-					mid = (int) ((report.getWcdma1RxValues()[1] - limits.getWcdma1RxExp()) * UNIT_HEIGHT);
-					high = (int) ((report.getWcdma1RxValues()[2] - limits.getWcdma1RxExp()) * UNIT_HEIGHT);
+					low = (int) ((report.getValue(ReportValues.WCDMA1_RX, 0) - limits.getWcdma1RxExp()) * UNIT_HEIGHT);
+					mid = (int) ((report.getValue(ReportValues.WCDMA1_RX, 1) - limits.getWcdma1RxExp()) * UNIT_HEIGHT);
+					high = (int) ((report.getValue(ReportValues.WCDMA1_RX, 2) - limits.getWcdma1RxExp()) * UNIT_HEIGHT);
 				}
 			} else if (graphType.equals("wcdma8_tx") && report.hasWcdma8()) {
 				createPoint = true;
 				if (move) {
-					low = (int) ((compensation.getWcdma8TxValues()[0] + report.getWcdma8TxValues()[0] - limits.getWcdma8TxExp()) * UNIT_HEIGHT);
-					mid = (int) ((compensation.getWcdma8TxValues()[1] + report.getWcdma8TxValues()[1] - limits.getWcdma8TxExp()) * UNIT_HEIGHT);
-					high = (int) ((compensation.getWcdma8TxValues()[2] + report.getWcdma8TxValues()[2] - limits.getWcdma8TxExp()) * UNIT_HEIGHT);
+					low = (int) ((compensation.getWcdma8TxValues()[0] + report.getValue(ReportValues.WCDMA8_TX, 0) - limits.getWcdma8TxExp()) * UNIT_HEIGHT);
+					mid = (int) ((compensation.getWcdma8TxValues()[1] + report.getValue(ReportValues.WCDMA8_TX, 1) - limits.getWcdma8TxExp()) * UNIT_HEIGHT);
+					high = (int) ((compensation.getWcdma8TxValues()[2] + report.getValue(ReportValues.WCDMA8_TX, 2) - limits.getWcdma8TxExp()) * UNIT_HEIGHT);
 				} else {
-					low = (int) ((report.getWcdma8TxValues()[0] - limits.getWcdma8TxExp()) * UNIT_HEIGHT);
-					mid = (int) ((report.getWcdma8TxValues()[1] - limits.getWcdma8TxExp()) * UNIT_HEIGHT);
-					high = (int) ((report.getWcdma8TxValues()[2] - limits.getWcdma8TxExp()) * UNIT_HEIGHT);
+					low = (int) ((report.getValue(ReportValues.WCDMA8_TX, 0) - limits.getWcdma8TxExp()) * UNIT_HEIGHT);
+					mid = (int) ((report.getValue(ReportValues.WCDMA8_TX, 1) - limits.getWcdma8TxExp()) * UNIT_HEIGHT);
+					high = (int) ((report.getValue(ReportValues.WCDMA8_TX, 2) - limits.getWcdma8TxExp()) * UNIT_HEIGHT);
 				}
 			} else if (graphType.equals("wcdma8_rx") && report.hasWcdma8()) {
 				createPoint = true;
 				if (move) {
-					low = (int) ((compensation.getWcdma8RxValues()[0] + report.getWcdma8RxValues()[0] - limits.getWcdma8RxExp()) * UNIT_HEIGHT);
-					mid = (int) ((compensation.getWcdma8RxValues()[1] + report.getWcdma8RxValues()[1] - limits.getWcdma8RxExp()) * UNIT_HEIGHT);
-					high = (int) ((compensation.getWcdma8RxValues()[2] + report.getWcdma8RxValues()[2] - limits.getWcdma8RxExp()) * UNIT_HEIGHT);
+					low = (int) ((compensation.getWcdma8RxValues()[0] + report.getValue(ReportValues.WCDMA8_RX, 0) - limits.getWcdma8RxExp()) * UNIT_HEIGHT);
+					mid = (int) ((compensation.getWcdma8RxValues()[1] + report.getValue(ReportValues.WCDMA8_RX, 1) - limits.getWcdma8RxExp()) * UNIT_HEIGHT);
+					high = (int) ((compensation.getWcdma8RxValues()[2] + report.getValue(ReportValues.WCDMA8_RX, 2) - limits.getWcdma8RxExp()) * UNIT_HEIGHT);
 				} else {
-					low = (int) ((report.getWcdma8RxValues()[0] - limits.getWcdma8RxExp()) * UNIT_HEIGHT);
-					mid = (int) ((report.getWcdma8RxValues()[1] - limits.getWcdma8RxExp()) * UNIT_HEIGHT);
-					high = (int) ((report.getWcdma8RxValues()[2] - limits.getWcdma8RxExp()) * UNIT_HEIGHT);
+					low = (int) ((report.getValue(ReportValues.WCDMA8_RX, 0) - limits.getWcdma8RxExp()) * UNIT_HEIGHT);
+					mid = (int) ((report.getValue(ReportValues.WCDMA8_RX, 1) - limits.getWcdma8RxExp()) * UNIT_HEIGHT);
+					high = (int) ((report.getValue(ReportValues.WCDMA8_RX, 2) - limits.getWcdma8RxExp()) * UNIT_HEIGHT);
 				}
 			} else if (graphType.equals("gsm900_tx") && report.hasGsm()) {
 				createPoint = true;
 				if (move) {
-					low = (int) ((compensation.getGsm900TxValues()[0] + report.getGsm900TxValues()[0] - limits.getGsm900TxExp()) * UNIT_HEIGHT);
-					mid = (int) ((compensation.getGsm900TxValues()[1] + report.getGsm900TxValues()[1] - limits.getGsm900TxExp()) * UNIT_HEIGHT);
-					high = (int) ((compensation.getGsm900TxValues()[2] + report.getGsm900TxValues()[2] - limits.getGsm900TxExp()) * UNIT_HEIGHT);
+					low = (int) ((compensation.getGsm900TxValues()[0] + report.getValue(ReportValues.GSM900_TX, 0) - limits.getGsm900TxExp()) * UNIT_HEIGHT);
+					mid = (int) ((compensation.getGsm900TxValues()[1] + report.getValue(ReportValues.GSM900_TX, 1) - limits.getGsm900TxExp()) * UNIT_HEIGHT);
+					high = (int) ((compensation.getGsm900TxValues()[2] + report.getValue(ReportValues.GSM900_TX, 2) - limits.getGsm900TxExp()) * UNIT_HEIGHT);
 				} else {
-					low = (int) ((report.getGsm900TxValues()[0] - limits.getGsm900TxExp()) * UNIT_HEIGHT);
-					mid = (int) ((report.getGsm900TxValues()[1] - limits.getGsm900TxExp()) * UNIT_HEIGHT);
-					high = (int) ((report.getGsm900TxValues()[2] - limits.getGsm900TxExp()) * UNIT_HEIGHT);
+					low = (int) ((report.getValue(ReportValues.GSM900_TX, 0) - limits.getGsm900TxExp()) * UNIT_HEIGHT);
+					mid = (int) ((report.getValue(ReportValues.GSM900_TX, 1) - limits.getGsm900TxExp()) * UNIT_HEIGHT);
+					high = (int) ((report.getValue(ReportValues.GSM900_TX, 2) - limits.getGsm900TxExp()) * UNIT_HEIGHT);
 				}
 			} else if (graphType.equals("gsm900_rx") && report.hasGsm()) {
 				createPoint = true;
 				if (move) {
-					low = (int) ((compensation.getGsm900RxValues()[0] + report.getGsm900RxValues()[0] - limits.getGsm900RxExp()) * UNIT_HEIGHT);
-					mid = (int) ((compensation.getGsm900RxValues()[1] + report.getGsm900RxValues()[1] - limits.getGsm900RxExp()) * UNIT_HEIGHT);
-					high = (int) ((compensation.getGsm900RxValues()[2] + report.getGsm900RxValues()[2] - limits.getGsm900RxExp()) * UNIT_HEIGHT);
+					low = (int) ((compensation.getGsm900RxValues()[0] + report.getValue(ReportValues.GSM900_RX, 0) - limits.getGsm900RxExp()) * UNIT_HEIGHT);
+					mid = (int) ((compensation.getGsm900RxValues()[1] + report.getValue(ReportValues.GSM900_RX, 1) - limits.getGsm900RxExp()) * UNIT_HEIGHT);
+					high = (int) ((compensation.getGsm900RxValues()[2] + report.getValue(ReportValues.GSM900_RX, 2) - limits.getGsm900RxExp()) * UNIT_HEIGHT);
 				} else {
-					low = (int) ((report.getGsm900RxValues()[0] - limits.getGsm900RxExp()) * UNIT_HEIGHT);
-					mid = (int) ((report.getGsm900RxValues()[1] - limits.getGsm900RxExp()) * UNIT_HEIGHT);
-					high = (int) ((report.getGsm900RxValues()[2] - limits.getGsm900RxExp()) * UNIT_HEIGHT);
+					low = (int) ((report.getValue(ReportValues.GSM900_RX, 0) - limits.getGsm900RxExp()) * UNIT_HEIGHT);
+					mid = (int) ((report.getValue(ReportValues.GSM900_RX, 1) - limits.getGsm900RxExp()) * UNIT_HEIGHT);
+					high = (int) ((report.getValue(ReportValues.GSM900_RX, 2) - limits.getGsm900RxExp()) * UNIT_HEIGHT);
 				}
 			} else if (graphType.equals("gsm1800_tx") && report.hasGsm()) {
 				createPoint = true;
 				if (move) {
-					low = (int) ((compensation.getGsm1800TxValues()[0] + report.getGsm1800TxValues()[0] - limits.getGsm1800TxExp()) * UNIT_HEIGHT);
-					mid = (int) ((compensation.getGsm1800TxValues()[1] + report.getGsm1800TxValues()[1] - limits.getGsm1800TxExp()) * UNIT_HEIGHT);
-					high = (int) ((compensation.getGsm1800TxValues()[2] + report.getGsm1800TxValues()[2] - limits.getGsm1800TxExp()) * UNIT_HEIGHT);
+					low = (int) ((compensation.getGsm1800TxValues()[0] + report.getValue(ReportValues.GSM1800_TX, 0) - limits.getGsm1800TxExp()) * UNIT_HEIGHT);
+					mid = (int) ((compensation.getGsm1800TxValues()[1] + report.getValue(ReportValues.GSM1800_TX, 1) - limits.getGsm1800TxExp()) * UNIT_HEIGHT);
+					high = (int) ((compensation.getGsm1800TxValues()[2] + report.getValue(ReportValues.GSM1800_TX, 2) - limits.getGsm1800TxExp()) * UNIT_HEIGHT);
 				} else {
-					low = (int) ((report.getGsm1800TxValues()[0] - limits.getGsm1800TxExp()) * UNIT_HEIGHT);
-					mid = (int) ((report.getGsm1800TxValues()[1] - limits.getGsm1800TxExp()) * UNIT_HEIGHT);
-					high = (int) ((report.getGsm1800TxValues()[2] - limits.getGsm1800TxExp()) * UNIT_HEIGHT);
+					low = (int) ((report.getValue(ReportValues.GSM1800_TX, 0) - limits.getGsm1800TxExp()) * UNIT_HEIGHT);
+					mid = (int) ((report.getValue(ReportValues.GSM1800_TX, 1) - limits.getGsm1800TxExp()) * UNIT_HEIGHT);
+					high = (int) ((report.getValue(ReportValues.GSM1800_TX, 2) - limits.getGsm1800TxExp()) * UNIT_HEIGHT);
 				}
 			} else if (graphType.equals("gsm1800_rx") && report.hasGsm()) {
 				createPoint = true;
 				if (move) {
-					low = (int) ((compensation.getGsm1800RxValues()[0] + report.getGSM1800RxValues()[0] - limits.getGsm1800RxExp()) * UNIT_HEIGHT);
-					mid = (int) ((compensation.getGsm1800RxValues()[1] + report.getGSM1800RxValues()[1] - limits.getGsm1800RxExp()) * UNIT_HEIGHT);
-					high = (int) ((compensation.getGsm1800RxValues()[2] + report.getGSM1800RxValues()[2] - limits.getGsm1800RxExp()) * UNIT_HEIGHT);
+					low = (int) ((compensation.getGsm1800RxValues()[0] + report.getValue(ReportValues.GSM1800_RX, 0) - limits.getGsm1800RxExp()) * UNIT_HEIGHT);
+					mid = (int) ((compensation.getGsm1800RxValues()[1] + report.getValue(ReportValues.GSM1800_RX, 1) - limits.getGsm1800RxExp()) * UNIT_HEIGHT);
+					high = (int) ((compensation.getGsm1800RxValues()[2] + report.getValue(ReportValues.GSM1800_RX, 2) - limits.getGsm1800RxExp()) * UNIT_HEIGHT);
 				} else {
-					low = (int) ((report.getGSM1800RxValues()[0] - limits.getGsm1800RxExp()) * UNIT_HEIGHT);
-					mid = (int) ((report.getGSM1800RxValues()[1] - limits.getGsm1800RxExp()) * UNIT_HEIGHT);
-					high = (int) ((report.getGSM1800RxValues()[2] - limits.getGsm1800RxExp()) * UNIT_HEIGHT);
+					low = (int) ((report.getValue(ReportValues.GSM1800_RX, 0) - limits.getGsm1800RxExp()) * UNIT_HEIGHT);
+					mid = (int) ((report.getValue(ReportValues.GSM1800_RX, 1) - limits.getGsm1800RxExp()) * UNIT_HEIGHT);
+					high = (int) ((report.getValue(ReportValues.GSM1800_RX, 2) - limits.getGsm1800RxExp()) * UNIT_HEIGHT);
 				}
 			} else if (graphType.equals("lte1_tx") && ((CmwReport) report).hasLte()) {
 				createPoint = true;
 				if (move) {
-					low = (int) ((((CmwCompensation) compensation).getLte1TxValues()[0] + ((CmwReport) report).getLte1TxValues()[0] - ((CmwReportLimits) limits).getLte1TxExp()) * UNIT_HEIGHT);
-					mid = (int) ((((CmwCompensation) compensation).getLte1TxValues()[1] + ((CmwReport) report).getLte1TxValues()[1] - ((CmwReportLimits) limits).getLte1TxExp()) * UNIT_HEIGHT);
-					high = (int) ((((CmwCompensation) compensation).getLte1TxValues()[2] + ((CmwReport) report).getLte1TxValues()[2] - ((CmwReportLimits) limits).getLte1TxExp()) * UNIT_HEIGHT);
+					low = (int) ((((CmwCompensation) compensation).getLte1TxValues()[0] + report.getValue(CmwReportValues.LTE1_TX, 0) - ((CmwReportLimits) limits).getLte1TxExp()) * UNIT_HEIGHT);
+					mid = (int) ((((CmwCompensation) compensation).getLte1TxValues()[1] + report.getValue(CmwReportValues.LTE1_TX, 1) - ((CmwReportLimits) limits).getLte1TxExp()) * UNIT_HEIGHT);
+					high = (int) ((((CmwCompensation) compensation).getLte1TxValues()[2] + report.getValue(CmwReportValues.LTE1_TX, 2) - ((CmwReportLimits) limits).getLte1TxExp()) * UNIT_HEIGHT);
 				} else {
-					low = (int) ((((CmwReport) report).getLte1TxValues()[0] - ((CmwReportLimits) limits).getLte1TxExp()) * UNIT_HEIGHT);
-					mid = (int) ((((CmwReport) report).getLte1TxValues()[1] - ((CmwReportLimits) limits).getLte1TxExp()) * UNIT_HEIGHT);
-					high = (int) ((((CmwReport) report).getLte1TxValues()[2] - ((CmwReportLimits) limits).getLte1TxExp()) * UNIT_HEIGHT);
+					low = (int) ((report.getValue(CmwReportValues.LTE1_TX, 0) - ((CmwReportLimits) limits).getLte1TxExp()) * UNIT_HEIGHT);
+					mid = (int) ((report.getValue(CmwReportValues.LTE1_TX, 1) - ((CmwReportLimits) limits).getLte1TxExp()) * UNIT_HEIGHT);
+					high = (int) ((report.getValue(CmwReportValues.LTE1_TX, 2) - ((CmwReportLimits) limits).getLte1TxExp()) * UNIT_HEIGHT);
 				}
 			} else if (graphType.equals("lte1_rx") && ((CmwReport) report).hasLte()) {
 				createPoint = true;
 				if (move) {
-					low = (int) ((((CmwCompensation) compensation).getLte1RxValues()[0] + ((CmwReport) report).getLte1RxValues()[0] - ((CmwReportLimits) limits).getLte1RxExp()) * UNIT_HEIGHT);
-					mid = (int) ((((CmwCompensation) compensation).getLte1RxValues()[1] + ((CmwReport) report).getLte1RxValues()[1] - ((CmwReportLimits) limits).getLte1RxExp()) * UNIT_HEIGHT);
-					high = (int) ((((CmwCompensation) compensation).getLte1RxValues()[2] + ((CmwReport) report).getLte1RxValues()[2] - ((CmwReportLimits) limits).getLte1RxExp()) * UNIT_HEIGHT);
+					low = (int) ((((CmwCompensation) compensation).getLte1RxValues()[0] + report.getValue(CmwReportValues.LTE1_RX, 0) - ((CmwReportLimits) limits).getLte1RxExp()) * UNIT_HEIGHT);
+					mid = (int) ((((CmwCompensation) compensation).getLte1RxValues()[1] + report.getValue(CmwReportValues.LTE1_RX, 1) - ((CmwReportLimits) limits).getLte1RxExp()) * UNIT_HEIGHT);
+					high = (int) ((((CmwCompensation) compensation).getLte1RxValues()[2] + report.getValue(CmwReportValues.LTE1_RX, 2) - ((CmwReportLimits) limits).getLte1RxExp()) * UNIT_HEIGHT);
 				} else {
-					low = (int) ((((CmwReport) report).getLte1RxValues()[0] - ((CmwReportLimits) limits).getLte1RxExp()) * UNIT_HEIGHT);
-					mid = (int) ((((CmwReport) report).getLte1RxValues()[1] - ((CmwReportLimits) limits).getLte1RxExp()) * UNIT_HEIGHT);
-					high = (int) ((((CmwReport) report).getLte1RxValues()[2] - ((CmwReportLimits) limits).getLte1RxExp()) * UNIT_HEIGHT);
+					low = (int) ((report.getValue(CmwReportValues.LTE1_RX, 0) - ((CmwReportLimits) limits).getLte1RxExp()) * UNIT_HEIGHT);
+					mid = (int) ((report.getValue(CmwReportValues.LTE1_RX, 1) - ((CmwReportLimits) limits).getLte1RxExp()) * UNIT_HEIGHT);
+					high = (int) ((report.getValue(CmwReportValues.LTE1_RX, 2) - ((CmwReportLimits) limits).getLte1RxExp()) * UNIT_HEIGHT);
 				}
 			} else if (graphType.equals("lte3_tx") && ((CmwReport) report).hasLte()) {
 				createPoint = true;
 				if (move) {
-					low = (int) ((((CmwCompensation) compensation).getLte3TxValues()[0] + ((CmwReport) report).getLte3TxValues()[0] - ((CmwReportLimits) limits).getLte3TxExp()) * UNIT_HEIGHT);
-					mid = (int) ((((CmwCompensation) compensation).getLte3TxValues()[1] + ((CmwReport) report).getLte3TxValues()[1] - ((CmwReportLimits) limits).getLte3TxExp()) * UNIT_HEIGHT);
-					high = (int) ((((CmwCompensation) compensation).getLte3TxValues()[2] + ((CmwReport) report).getLte3TxValues()[2] - ((CmwReportLimits) limits).getLte3TxExp()) * UNIT_HEIGHT);
+					low = (int) ((((CmwCompensation) compensation).getLte3TxValues()[0] + report.getValue(CmwReportValues.LTE3_TX, 0) - ((CmwReportLimits) limits).getLte3TxExp()) * UNIT_HEIGHT);
+					mid = (int) ((((CmwCompensation) compensation).getLte3TxValues()[1] + report.getValue(CmwReportValues.LTE3_TX, 1) - ((CmwReportLimits) limits).getLte3TxExp()) * UNIT_HEIGHT);
+					high = (int) ((((CmwCompensation) compensation).getLte3TxValues()[2] + report.getValue(CmwReportValues.LTE3_TX, 2) - ((CmwReportLimits) limits).getLte3TxExp()) * UNIT_HEIGHT);
 				} else {
-					low = (int) ((((CmwReport) report).getLte3TxValues()[0] - ((CmwReportLimits) limits).getLte3TxExp()) * UNIT_HEIGHT);
-					mid = (int) ((((CmwReport) report).getLte3TxValues()[1] - ((CmwReportLimits) limits).getLte3TxExp()) * UNIT_HEIGHT);
-					high = (int) ((((CmwReport) report).getLte3TxValues()[2] - ((CmwReportLimits) limits).getLte3TxExp()) * UNIT_HEIGHT);
+					low = (int) ((report.getValue(CmwReportValues.LTE3_TX, 0) - ((CmwReportLimits) limits).getLte3TxExp()) * UNIT_HEIGHT);
+					mid = (int) ((report.getValue(CmwReportValues.LTE3_TX, 1) - ((CmwReportLimits) limits).getLte3TxExp()) * UNIT_HEIGHT);
+					high = (int) ((report.getValue(CmwReportValues.LTE3_TX, 2) - ((CmwReportLimits) limits).getLte3TxExp()) * UNIT_HEIGHT);
 				}
 			} else if (graphType.equals("lte3_rx") && ((CmwReport) report).hasLte()) {
 				createPoint = true;
 				if (move) {
-					low = (int) ((((CmwCompensation) compensation).getLte3RxValues()[0] + ((CmwReport) report).getLte3RxValues()[0] - ((CmwReportLimits) limits).getLte3RxExp()) * UNIT_HEIGHT);
-					mid = (int) ((((CmwCompensation) compensation).getLte3RxValues()[1] + ((CmwReport) report).getLte3RxValues()[1] - ((CmwReportLimits) limits).getLte3RxExp()) * UNIT_HEIGHT);
-					high = (int) ((((CmwCompensation) compensation).getLte3RxValues()[2] + ((CmwReport) report).getLte3RxValues()[2] - ((CmwReportLimits) limits).getLte3RxExp()) * UNIT_HEIGHT);
+					low = (int) ((((CmwCompensation) compensation).getLte3RxValues()[0] + report.getValue(CmwReportValues.LTE3_RX, 0) - ((CmwReportLimits) limits).getLte3RxExp()) * UNIT_HEIGHT);
+					mid = (int) ((((CmwCompensation) compensation).getLte3RxValues()[1] + report.getValue(CmwReportValues.LTE3_RX, 1) - ((CmwReportLimits) limits).getLte3RxExp()) * UNIT_HEIGHT);
+					high = (int) ((((CmwCompensation) compensation).getLte3RxValues()[2] + report.getValue(CmwReportValues.LTE3_RX, 2) - ((CmwReportLimits) limits).getLte3RxExp()) * UNIT_HEIGHT);
 				} else {
-					low = (int) ((((CmwReport) report).getLte3RxValues()[0] - ((CmwReportLimits) limits).getLte3RxExp()) * UNIT_HEIGHT);
-					mid = (int) ((((CmwReport) report).getLte3RxValues()[1] - ((CmwReportLimits) limits).getLte3RxExp()) * UNIT_HEIGHT);
-					high = (int) ((((CmwReport) report).getLte3RxValues()[2] - ((CmwReportLimits) limits).getLte3RxExp()) * UNIT_HEIGHT);
+					low = (int) ((report.getValue(CmwReportValues.LTE3_RX, 0) - ((CmwReportLimits) limits).getLte3RxExp()) * UNIT_HEIGHT);
+					mid = (int) ((report.getValue(CmwReportValues.LTE3_RX, 1) - ((CmwReportLimits) limits).getLte3RxExp()) * UNIT_HEIGHT);
+					high = (int) ((report.getValue(CmwReportValues.LTE3_RX, 2) - ((CmwReportLimits) limits).getLte3RxExp()) * UNIT_HEIGHT);
 				}
 			} else if (graphType.equals("lte7_tx") && ((CmwReport) report).hasLte()) {
 				createPoint = true;
 				if (move) {
-					low = (int) ((((CmwCompensation) compensation).getLte7TxValues()[0] + ((CmwReport) report).getLte7TxValues()[0] - ((CmwReportLimits) limits).getLte7TxExp()) * UNIT_HEIGHT);
-					mid = (int) ((((CmwCompensation) compensation).getLte7TxValues()[1] + ((CmwReport) report).getLte7TxValues()[1] - ((CmwReportLimits) limits).getLte7TxExp()) * UNIT_HEIGHT);
-					high = (int) ((((CmwCompensation) compensation).getLte7TxValues()[2] + ((CmwReport) report).getLte7TxValues()[2] - ((CmwReportLimits) limits).getLte7TxExp()) * UNIT_HEIGHT);
+					low = (int) ((((CmwCompensation) compensation).getLte7TxValues()[0] + report.getValue(CmwReportValues.LTE7_TX, 0) - ((CmwReportLimits) limits).getLte7TxExp()) * UNIT_HEIGHT);
+					mid = (int) ((((CmwCompensation) compensation).getLte7TxValues()[1] + report.getValue(CmwReportValues.LTE7_TX, 1) - ((CmwReportLimits) limits).getLte7TxExp()) * UNIT_HEIGHT);
+					high = (int) ((((CmwCompensation) compensation).getLte7TxValues()[2] + report.getValue(CmwReportValues.LTE7_TX, 2) - ((CmwReportLimits) limits).getLte7TxExp()) * UNIT_HEIGHT);
 				} else {
-					low = (int) ((((CmwReport) report).getLte7TxValues()[0] - ((CmwReportLimits) limits).getLte7TxExp()) * UNIT_HEIGHT);
-					mid = (int) ((((CmwReport) report).getLte7TxValues()[1] - ((CmwReportLimits) limits).getLte7TxExp()) * UNIT_HEIGHT);
-					high = (int) ((((CmwReport) report).getLte7TxValues()[2] - ((CmwReportLimits) limits).getLte7TxExp()) * UNIT_HEIGHT);
+					low = (int) ((report.getValue(CmwReportValues.LTE7_TX, 0) - ((CmwReportLimits) limits).getLte7TxExp()) * UNIT_HEIGHT);
+					mid = (int) ((report.getValue(CmwReportValues.LTE7_TX, 1) - ((CmwReportLimits) limits).getLte7TxExp()) * UNIT_HEIGHT);
+					high = (int) ((report.getValue(CmwReportValues.LTE7_TX, 2) - ((CmwReportLimits) limits).getLte7TxExp()) * UNIT_HEIGHT);
 				}
 			} else if (graphType.equals("lte7_rx") && ((CmwReport) report).hasLte()) {
 				createPoint = true;
 				if (move) {
-					low = (int) ((((CmwCompensation) compensation).getLte7RxValues()[0] + ((CmwReport) report).getLte7RxValues()[0] - ((CmwReportLimits) limits).getLte7RxExp()) * UNIT_HEIGHT);
-					mid = (int) ((((CmwCompensation) compensation).getLte7RxValues()[1] + ((CmwReport) report).getLte7RxValues()[1] - ((CmwReportLimits) limits).getLte7RxExp()) * UNIT_HEIGHT);
-					high = (int) ((((CmwCompensation) compensation).getLte7RxValues()[2] + ((CmwReport) report).getLte7RxValues()[2] - ((CmwReportLimits) limits).getLte7RxExp()) * UNIT_HEIGHT);
+					low = (int) ((((CmwCompensation) compensation).getLte7RxValues()[0] + report.getValue(CmwReportValues.LTE7_RX, 0) - ((CmwReportLimits) limits).getLte7RxExp()) * UNIT_HEIGHT);
+					mid = (int) ((((CmwCompensation) compensation).getLte7RxValues()[1] + report.getValue(CmwReportValues.LTE7_RX, 1) - ((CmwReportLimits) limits).getLte7RxExp()) * UNIT_HEIGHT);
+					high = (int) ((((CmwCompensation) compensation).getLte7RxValues()[2] + report.getValue(CmwReportValues.LTE7_RX, 2) - ((CmwReportLimits) limits).getLte7RxExp()) * UNIT_HEIGHT);
 				} else {
-					low = (int) ((((CmwReport) report).getLte7RxValues()[0] - ((CmwReportLimits) limits).getLte7RxExp()) * UNIT_HEIGHT);
-					mid = (int) ((((CmwReport) report).getLte7RxValues()[1] - ((CmwReportLimits) limits).getLte7RxExp()) * UNIT_HEIGHT);
-					high = (int) ((((CmwReport) report).getLte7RxValues()[2] - ((CmwReportLimits) limits).getLte7RxExp()) * UNIT_HEIGHT);
+					low = (int) ((report.getValue(CmwReportValues.LTE7_RX, 0) - ((CmwReportLimits) limits).getLte7RxExp()) * UNIT_HEIGHT);
+					mid = (int) ((report.getValue(CmwReportValues.LTE7_RX, 1) - ((CmwReportLimits) limits).getLte7RxExp()) * UNIT_HEIGHT);
+					high = (int) ((report.getValue(CmwReportValues.LTE7_RX, 2) - ((CmwReportLimits) limits).getLte7RxExp()) * UNIT_HEIGHT);
 				}
 			} else if (graphType.equals("lte20_tx") && ((CmwReport) report).hasLte()) {
 				createPoint = true;
 				if (move) {
-					low = (int) ((((CmwCompensation) compensation).getLte20TxValues()[0] + ((CmwReport) report).getLte20TxValues()[0] - ((CmwReportLimits) limits).getLte20TxExp()) * UNIT_HEIGHT);
-					mid = (int) ((((CmwCompensation) compensation).getLte20TxValues()[1] + ((CmwReport) report).getLte20TxValues()[1] - ((CmwReportLimits) limits).getLte20TxExp()) * UNIT_HEIGHT);
-					high = (int) ((((CmwCompensation) compensation).getLte20TxValues()[2] + ((CmwReport) report).getLte20TxValues()[2] - ((CmwReportLimits) limits).getLte20TxExp()) * UNIT_HEIGHT);
+					low = (int) ((((CmwCompensation) compensation).getLte20TxValues()[0] + report.getValue(CmwReportValues.LTE20_TX, 0) - ((CmwReportLimits) limits).getLte20TxExp()) * UNIT_HEIGHT);
+					mid = (int) ((((CmwCompensation) compensation).getLte20TxValues()[1] + report.getValue(CmwReportValues.LTE20_TX, 1) - ((CmwReportLimits) limits).getLte20TxExp()) * UNIT_HEIGHT);
+					high = (int) ((((CmwCompensation) compensation).getLte20TxValues()[2] + report.getValue(CmwReportValues.LTE20_TX, 2) - ((CmwReportLimits) limits).getLte20TxExp()) * UNIT_HEIGHT);
 				} else {
-					low = (int) ((((CmwReport) report).getLte20TxValues()[0] - ((CmwReportLimits) limits).getLte20TxExp()) * UNIT_HEIGHT);
-					mid = (int) ((((CmwReport) report).getLte20TxValues()[1] - ((CmwReportLimits) limits).getLte20TxExp()) * UNIT_HEIGHT);
-					high = (int) ((((CmwReport) report).getLte20TxValues()[2] - ((CmwReportLimits) limits).getLte20TxExp()) * UNIT_HEIGHT);
+					low = (int) ((report.getValue(CmwReportValues.LTE20_TX, 0) - ((CmwReportLimits) limits).getLte20TxExp()) * UNIT_HEIGHT);
+					mid = (int) ((report.getValue(CmwReportValues.LTE20_TX, 1) - ((CmwReportLimits) limits).getLte20TxExp()) * UNIT_HEIGHT);
+					high = (int) ((report.getValue(CmwReportValues.LTE20_TX, 2) - ((CmwReportLimits) limits).getLte20TxExp()) * UNIT_HEIGHT);
 				}
 			} else if (graphType.equals("lte20_rx") && ((CmwReport) report).hasLte()) {
 				createPoint = true;
 				if (move) {
-					low = (int) ((((CmwCompensation) compensation).getLte20RxValues()[0] + ((CmwReport) report).getLte20RxValues()[0] - ((CmwReportLimits) limits).getLte20RxExp()) * UNIT_HEIGHT);
-					mid = (int) ((((CmwCompensation) compensation).getLte20RxValues()[1] + ((CmwReport) report).getLte20RxValues()[1] - ((CmwReportLimits) limits).getLte20RxExp()) * UNIT_HEIGHT);
-					high = (int) ((((CmwCompensation) compensation).getLte20RxValues()[2] + ((CmwReport) report).getLte20RxValues()[2] - ((CmwReportLimits) limits).getLte20RxExp()) * UNIT_HEIGHT);
+					low = (int) ((((CmwCompensation) compensation).getLte20RxValues()[0] + report.getValue(CmwReportValues.LTE20_RX, 0) - ((CmwReportLimits) limits).getLte20RxExp()) * UNIT_HEIGHT);
+					mid = (int) ((((CmwCompensation) compensation).getLte20RxValues()[1] + report.getValue(CmwReportValues.LTE20_RX, 1) - ((CmwReportLimits) limits).getLte20RxExp()) * UNIT_HEIGHT);
+					high = (int) ((((CmwCompensation) compensation).getLte20RxValues()[2] + report.getValue(CmwReportValues.LTE20_RX, 2) - ((CmwReportLimits) limits).getLte20RxExp()) * UNIT_HEIGHT);
 				} else {
-					low = (int) ((((CmwReport) report).getLte20RxValues()[0] - ((CmwReportLimits) limits).getLte20RxExp()) * UNIT_HEIGHT);
-					mid = (int) ((((CmwReport) report).getLte20RxValues()[1] - ((CmwReportLimits) limits).getLte20RxExp()) * UNIT_HEIGHT);
-					high = (int) ((((CmwReport) report).getLte20RxValues()[2] - ((CmwReportLimits) limits).getLte20RxExp()) * UNIT_HEIGHT);
+					low = (int) ((report.getValue(CmwReportValues.LTE20_RX, 0) - ((CmwReportLimits) limits).getLte20RxExp()) * UNIT_HEIGHT);
+					mid = (int) ((report.getValue(CmwReportValues.LTE20_RX, 1) - ((CmwReportLimits) limits).getLte20RxExp()) * UNIT_HEIGHT);
+					high = (int) ((report.getValue(CmwReportValues.LTE20_RX, 2) - ((CmwReportLimits) limits).getLte20RxExp()) * UNIT_HEIGHT);
 				}
 			}
 			if (createPoint) {
@@ -10,16 +10,19 @@ import hu.open.assistant.rf.RfAssistant;
 import hu.open.assistant.rf.graphical.RfPanel;
 import hu.open.assistant.rf.graphical.RfWindow;
 import hu.open.assistant.rf.model.report.Report;
+import hu.open.assistant.rf.model.report.search.ReportSearchIndex;
 
 import java.awt.Dimension;
 import java.awt.event.KeyListener;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
  * GUI for searching for test reports within a 90 days period. The reports are processed first and the panel waits for a
  * user input in the search field: number searches for IMEI, mixed characters searches for name (empty search gives back
- * no result). The resulting reports are loaded into the list below. There are controls for opening a report or copying
+ * no result). The processed reports are indexed once, so searching doesn't check every report. When the search is started
+ * with a full IMEI, the older reports of that handset are added to the 90 days using the IMEI index of the report caches
+ * (without the 90 days limit), so other keywords can still be searched. The resulting reports are loaded into the list
+ * below. There are controls for opening a report or copying
  * its IMEI or full path to the clipboard.
  */
 public class SearchReport extends RfPanel {
@@ -29,6 +32,7 @@ public class SearchReport extends RfPanel {
     private static final int SMALL_TEXT_SIZE = 14;
     private static final int LARGE_TEXT_SIZE = 16;
     private static final int SEARCH_INTERVAL = 90;
+    private static final int IMEI_LENGTH = 15;
 
     private final AssButton searchButton;
     private final AssButton copyPathButton;
@@ -37,6 +41,7 @@ public class SearchReport extends RfPanel {
     private final AssTextField searchField;
     private final AssList<Report> reportList;
     private List<Report> unfilteredReports;
+    private ReportSearchIndex searchIndex;
     private boolean keywordSet;
     private String lastPanel;
 
@@ -127,19 +132,17 @@ public class SearchReport extends RfPanel {
     public void searchReport() {
         disableReportControls();
         reportList.clearModel();
-        List<Report> filteredReports = new ArrayList<>();
         String keyword = searchField.getText().toLowerCase();
         if (!keyword.isBlank()) {
             boolean keywordNumeric = ValidationHelper.hasOnlyNumbers(keyword);
             if (keywordNumeric) {
                 keyword = (keyword.trim());
             }
-            for (Report report : unfilteredReports) {
-                if (keywordNumeric && String.valueOf(report.getImei()).contains(keyword)) {
-                    filteredReports.add(0, report);
-                } else if (!keywordNumeric && report.getName().toLowerCase().contains(keyword)) {
-                    filteredReports.add(0, report);
-                }
+            List<Report> filteredReports;
+            if (keywordNumeric) {
+                filteredReports = searchIndex.searchImei(keyword);
+            } else {
+                filteredReports = searchIndex.searchName(keyword);
             }
             reportList.changeModel(filteredReports, false);
         } else {
@@ -160,7 +163,22 @@ public class SearchReport extends RfPanel {
         placer.disableComponents();
         keywordSet = false;
         unfilteredReports = assistant.readReports(SEARCH_INTERVAL);
+        searchIndex = new ReportSearchIndex(unfilteredReports);
+        placer.enableComponents();
+        searchField.requestFocus();
+    }
+
+    public void prepareImeiReports(long imei) {
+        disableReportControls();
+        placer.disableComponents();
+        keywordSet = false;
+        unfilteredReports = assistant.readReportsWithImeiHistory(SEARCH_INTERVAL, imei);
+        searchIndex = new ReportSearchIndex(unfilteredReports);
         placer.enableComponents();
         searchField.requestFocus();
     }
+
+    public static boolean isImei(String keyword) {
+        return keyword.length() == IMEI_LENGTH && ValidationHelper.hasOnlyNumbers(keyword);
+    }
 }
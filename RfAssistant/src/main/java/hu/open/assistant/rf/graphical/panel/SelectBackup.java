@@ -17,6 +17,7 @@ import hu.open.assistant.rf.model.database.Database;
 import hu.open.assistant.rf.model.database.backup.DatabaseBackup;
 import hu.open.assistant.rf.model.profile.Profile;
 
+import javax.swing.SwingUtilities;
 import java.awt.Dimension;
 import java.awt.event.ActionEvent;
 import java.util.ArrayList;
@@ -24,7 +25,8 @@ import java.util.List;
 
 /**
  * GUI for viewing and managing database backups. Two lists are filled with available CMU and CMW type database backups
- * based on the database log (backup files content is loaded only on selection). When selecting a backup in the list
+ * based on the backup catalogue (backup files content is loaded only on selection). The backup files are verified in
+ * the background and corrupted backups are marked in the lists. When selecting a backup in the list
  * the text area shows the backups content (database information) and a third list is filled with the RF profiles
  * contained in the database. Selecting a profile shows the profile information in the text area. There are options to
  * create a CMU or CMW type backup, delete an existing one or to restore its content.
@@ -102,10 +104,14 @@ public class SelectBackup extends RfPanel {
         TesterType testerType = TesterType.getByName(selectedOption.split(" ")[0].toLowerCase());
         int serial = Integer.parseInt(selectedOption.split(" ")[1]);
         List<Database> databases = assistant.readDatabases(testerType);
-        databases.stream().filter(database -> database.getSerial() == serial).findAny()
-                .ifPresent(databaseToBackup -> assistant.createDatabaseBackup(databaseToBackup));
+        boolean success = databases.stream().filter(database -> database.getSerial() == serial).findAny()
+                .map(databaseToBackup -> assistant.createDatabaseBackup(databaseToBackup)).orElse(true);
         placer.enableComponents();
-        listener.actionPerformed(new ActionEvent(this, 0, "backup_create_done"));
+        if (success) {
+            listener.actionPerformed(new ActionEvent(this, 0, "backup_create_done"));
+        } else {
+            listener.actionPerformed(new ActionEvent(this, 0, "backup_create_failed"));
+        }
     }
 
     public void restoreBackup() {
@@ -139,6 +145,10 @@ public class SelectBackup extends RfPanel {
         cmwBackupList.changeModel(cmwBackups, false);
         restoreButton.setEnabled(false);
         deleteButton.setEnabled(false);
+        assistant.verifyDatabaseBackups(backups, () -> SwingUtilities.invokeLater(() -> {
+            cmuBackupList.repaint();
+            cmwBackupList.repaint();
+        }));
     }
 
     public void setSelectedBackup(TesterType testerType) {
@@ -151,11 +161,18 @@ public class SelectBackup extends RfPanel {
         }
         if (selectedBackup.getDatabase() == null) {
             assistant.readDatabaseBackupContent(selectedBackup);
+            if (selectedBackup.getDatabase() == null) {
+                selectedBackup.setCorrupted(true);
+            }
         }
         infoTextArea.setText(TextHelper.stringListToLineBrokenString(selectedBackup.getInfo()));
         infoTextArea.setCaretPosition(0);
-        profileList.changeModel(selectedBackup.getDatabase().getProfiles(), false);
-        restoreButton.setEnabled(true);
+        if (selectedBackup.getDatabase() != null) {
+            profileList.changeModel(selectedBackup.getDatabase().getProfiles(), false);
+        } else {
+            profileList.clearModel();
+        }
+        restoreButton.setEnabled(!selectedBackup.isCorrupted());
         deleteButton.setEnabled(true);
     }
 
@@ -302,6 +302,7 @@ public class SelectProfile extends RfPanel {
     }
 
     public void updateProfiles() {
+        assistant.loadProfileValues(selectedDatabase);
         textArea.setText(TextHelper.stringListToLineBrokenString(selectedDatabase.getInfo()));
         profileList.changeModel(selectedDatabase.getProfiles(), false);
     }
@@ -243,7 +243,7 @@ public class SelectReportBatch extends RfPanel {
                 }
             }
             for (ReportBatch reportBatch : obsoleteBatches) {
-                stationList.getElement(i).getReportBatches().remove(reportBatch);
+                stationList.getElement(i).removeReportBatch(reportBatch);
             }
         }
     }
@@ -6,7 +6,6 @@ import hu.open.assistant.commons.graphical.gui.AssLabel;
 import hu.open.assistant.commons.graphical.gui.AssList;
 import hu.open.assistant.commons.graphical.gui.AssTextArea;
 import hu.open.assistant.rf.RfAssistant;
-import hu.open.assistant.rf.filter.ProfileFilter;
 import hu.open.assistant.rf.graphical.RfPanel;
 import hu.open.assistant.rf.graphical.RfWindow;
 import hu.open.assistant.rf.model.database.Database;
@@ -176,7 +175,7 @@ public class SyncProfile extends RfPanel {
     private List<Profile> checkMissingProfiles(Database targetDatabase) {
         List<Profile> missingProfiles = new ArrayList<>();
         for (Profile profile : selectedSourceDatabase.getProfiles()) {
-            if (ProfileFilter.getProfileByName(targetDatabase.getProfiles(), profile.getName()) == null) {
+            if (targetDatabase.getProfileByName(profile.getName()) == null) {
                 missingProfiles.add(profile);
             }
         }
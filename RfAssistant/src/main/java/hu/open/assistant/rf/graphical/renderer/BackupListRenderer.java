@@ -18,7 +18,7 @@ public class BackupListRenderer extends AssListRenderer<DatabaseBackup> {
 
     @Override
     public Component getListCellRendererComponent(JList<? extends DatabaseBackup> list, DatabaseBackup backup, int index, boolean isSelected, boolean cellHasFocus) {
-        setText(DateHelper.localDateTimeToTextDateTime(backup.getDateTime()) + " (" + backup.getSerial() + ")");
+        setText(DateHelper.localDateTimeToTextDateTime(backup.getDateTime()) + " (" + backup.getSerial() + ")" + (backup.isCorrupted() ? " - sérült" : ""));
         return super.getListCellRendererComponent(list, backup, index, isSelected, cellHasFocus);
     }
 }
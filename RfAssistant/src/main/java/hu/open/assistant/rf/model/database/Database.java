@@ -1,6 +1,5 @@
 package hu.open.assistant.rf.model.database;
 
-import hu.open.assistant.rf.filter.ProfileFilter;
 import hu.open.assistant.rf.model.TesterType;
 import hu.open.assistant.rf.model.profile.CmwProfile;
 import hu.open.assistant.rf.model.log.batch.DatabaseLogBatch;
@@ -8,17 +7,22 @@ import hu.open.assistant.rf.model.profile.Profile;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Logical representation of an actual generic RF attenuation database. It stores the RF profiles and related
  * statistics values. It also contains the full database log and flags for profile modification or creation. The
- * database can be reverted to its default state and provides a text based information.
+ * database can be reverted to its default state and provides a text based information. The condition statistics are
+ * only counted when the information is first requested, so adding a profile does not load its attenuation values.
  */
 public abstract class Database {
 
     protected List<Profile> profiles;
     protected List<Profile> removedProfiles;
+    protected Map<String, Profile> profilesByName;
+    protected List<Profile> uncheckedProfiles;
     protected TesterType testerType;
     protected int serial;
     protected int normalProfiles;
@@ -33,6 +37,8 @@ public abstract class Database {
         this.testerType = testerType;
         profiles = new ArrayList<>();
         removedProfiles = new ArrayList<>();
+        profilesByName = new HashMap<>();
+        uncheckedProfiles = new ArrayList<>();
         normalProfiles = 0;
         acceptableProfiles = 0;
         problematicProfiles = 0;
@@ -80,6 +86,14 @@ public abstract class Database {
 
     public void sortProfiles() {
         Collections.sort(profiles);
+        indexProfiles();
+    }
+
+    protected void indexProfiles() {
+        profilesByName.clear();
+        for (Profile profile : profiles) {
+            profilesByName.putIfAbsent(profile.getName(), profile);
+        }
     }
 
     public boolean isModified() {
@@ -94,15 +108,24 @@ public abstract class Database {
     public void removeProfile(Profile profile) {
         profiles.remove(profile);
         removedProfiles.add(profile);
+        indexProfiles();
     }
 
     public void addProfile(Profile profile) {
         profiles.add(profile);
-        checkProfile(profile);
+        profilesByName.putIfAbsent(profile.getName(), profile);
+        uncheckedProfiles.add(profile);
     }
 
     public Profile getProfileByName(String name) {
-        return ProfileFilter.getProfileByName(profiles, name);
+        return profilesByName.get(name);
+    }
+
+    protected void checkProfiles() {
+        for (Profile profile : uncheckedProfiles) {
+            checkProfile(profile);
+        }
+        uncheckedProfiles.clear();
     }
 
     protected void checkProfile(Profile profile) {
@@ -134,6 +157,7 @@ public abstract class Database {
         List<String> text = new ArrayList<>();
         text.add("Állomás száma: " + serial);
         text.add("");
+        checkProfiles();
         text.add("Profilok száma: " + profiles.size());
         text.add("    - normális (max. 25 dB) : " + normalProfiles);
         text.add("    - elfogadható (25 dB felett) : " + acceptableProfiles);
@@ -11,7 +11,9 @@ import java.util.List;
 /**
  * Logical representation of a generic database backup. Beside a logical attenuation database it stores header
  * information about it and the date-time the backup was created. It also stores equipment information related to the
- * profiles in the database and can give text based information about itself.
+ * profiles in the database and can give text based information about itself. The catalogue information (profile count,
+ * file size and checksum) is known without loading the content, and the backup is marked when its file turns out to be
+ * missing or corrupted.
  */
 public abstract class DatabaseBackup {
     protected final LocalDateTime dateTime;
@@ -19,6 +21,10 @@ public abstract class DatabaseBackup {
     protected final TesterType testerType;
     protected final List<Equipment> equipments = new ArrayList<>();
     protected Database database = null;
+    protected int profileCount = -1;
+    protected long size = -1;
+    protected String checksum = "";
+    protected volatile boolean corrupted;
 
     public DatabaseBackup(int serial, LocalDateTime dateTime, TesterType type) {
         this.serial = serial;
@@ -50,8 +56,43 @@ public abstract class DatabaseBackup {
         this.database = database;
     }
 
+    public int getProfileCount() {
+        return profileCount;
+    }
+
+    public void setProfileCount(int profileCount) {
+        this.profileCount = profileCount;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    public String getChecksum() {
+        return checksum;
+    }
+
+    public void setChecksum(String checksum) {
+        this.checksum = checksum;
+    }
+
+    public boolean isCorrupted() {
+        return corrupted;
+    }
+
+    public void setCorrupted(boolean corrupted) {
+        this.corrupted = corrupted;
+    }
+
     public List<String> getInfo() {
         List<String> text = new ArrayList<>();
+        if (corrupted) {
+            text.add("A biztonsági mentés fájlja hiányzik vagy sérült!\n");
+        }
         text.add("Biztonsági mentés tartalma:\n");
         if (database != null) {
             text.addAll(database.getInfo());
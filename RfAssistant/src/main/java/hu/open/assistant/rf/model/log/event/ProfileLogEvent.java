@@ -1,12 +1,13 @@
 package hu.open.assistant.rf.model.log.event;
 
 /**
- * Event types for profile log.
+ * Event types for profile log. A deletion marks the earlier logs of the profile as cleared.
  */
 public enum ProfileLogEvent {
     CREATION,
     COMPENSATION,
-    REVERT;
+    REVERT,
+    DELETION;
 
     private final String name;
 
@@ -26,6 +27,8 @@ public enum ProfileLogEvent {
                 return ProfileLogEvent.COMPENSATION;
             case "revert":
                 return ProfileLogEvent.REVERT;
+            case "deletion":
+                return ProfileLogEvent.DELETION;
             default:
                 return null;
         }
@@ -4,6 +4,8 @@ import hu.open.assistant.rf.model.compensation.CmuCompensation;
 import hu.open.assistant.rf.model.profile.values.CmuProfileValues;
 import hu.open.assistant.rf.model.TesterType;
 
+import java.util.function.Supplier;
+
 /**
  * Logical representation of a logical CMU type RF profile. It has the same functionalities as the generic variant.
  * Initialised with a CMU type compensation.
@@ -14,4 +16,9 @@ public class CmuProfile extends Profile {
         super(serial, TesterType.CMU, type, manufacturer, box, position, values, centerValue);
         compensation = new CmuCompensation(serial, manufacturer + " " + type);
     }
+
+    public CmuProfile(int serial, String type, String manufacturer, String box, String position, Supplier<CmuProfileValues> valuesLoader, int centerValue) {
+        super(serial, TesterType.CMU, type, manufacturer, box, position, valuesLoader, centerValue);
+        compensation = new CmuCompensation(serial, manufacturer + " " + type);
+    }
 }
\ No newline at end of file
@@ -9,6 +9,7 @@ import hu.open.assistant.rf.model.TesterType;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * Logical representation of a logical CMW type RF profile. Extends the generic variant with additional LTE band
@@ -30,44 +31,60 @@ public class CmwProfile extends Profile {
         compensation = new CmwCompensation(serial, manufacturer + " " + type);
     }
 
+    public CmwProfile(int serial, String type, String manufacturer, String box, String position, Supplier<CmwProfileValues> valuesLoader, int centerValue, long storeTac, List<Long> tacList) {
+        super(serial, TesterType.CMW, type, manufacturer, box, position, valuesLoader, centerValue);
+        this.storeTac = storeTac;
+        this.tacList = tacList;
+        Collections.sort(tacList);
+        defaultTacList = new ArrayList<>();
+        defaultTacList.addAll(tacList);
+        compensation = new CmwCompensation(serial, manufacturer + " " + type);
+    }
+
     public void setType(String type) {
+        getValues();
         this.type = type;
     }
 
     public void setBox(String box) {
+        getValues();
         this.box = box;
     }
 
+    private CmwProfileValues getCmwValues() {
+        return (CmwProfileValues) getValues();
+    }
+
     public double[] getLte1OutValues() {
-        return ((CmwProfileValues) values).getLte1OutValues();
+        return getCmwValues().getLte1OutValues();
     }
 
     public double[] getLte1InValues() {
-        return ((CmwProfileValues) values).getLte1InValues();
+        return getCmwValues().getLte1InValues();
     }
 
     public double[] getLte3OutValues() {
-        return ((CmwProfileValues) values).getLte3OutValues();
+        return getCmwValues().getLte3OutValues();
     }
 
     public double[] getLte3InValues() {
-        return ((CmwProfileValues) values).getLte3InValues();
+        return getCmwValues().getLte3InValues();
     }
 
     public double[] getLte7OutValues() {
-        return ((CmwProfileValues) values).getLte7OutValues();
+        return getCmwValues().getLte7OutValues();
     }
 
     public double[] getLte7InValues() {
-        return ((CmwProfileValues) values).getLte7InValues();
+        return getCmwValues().getLte7InValues();
     }
 
     public double[] getLte20OutValues() {
-        return ((CmwProfileValues) values).getLte20OutValues();
+        return getCmwValues().getLte20OutValues();
     }
 
     public double[] getLte20InValues() {
-        return ((CmwProfileValues) values).getLte20InValues();
+        return getCmwValues().getLte20InValues();
     }
 
     public List<Long> getTacList() {
@@ -100,14 +117,14 @@ public class CmwProfile extends Profile {
     public void createCenterCompensation() {
         super.createCenterCompensation();
         for (int i = 0; i < 3; i++) {
-            compensation.addCompensation("lte1_tx", i, NumberHelper.oneDecimalPlaceOf((((CmwProfileValues) values).getLte1InValues()[i] - centerValue) * -1));
-            compensation.addCompensation("lte1_rx", i, NumberHelper.oneDecimalPlaceOf((((CmwProfileValues) values).getLte1OutValues()[i] - centerValue) * -1));
-            compensation.addCompensation("lte3_tx", i, NumberHelper.oneDecimalPlaceOf((((CmwProfileValues) values).getLte3InValues()[i] - centerValue) * -1));
-            compensation.addCompensation("lte3_rx", i, NumberHelper.oneDecimalPlaceOf((((CmwProfileValues) values).getLte3OutValues()[i] - centerValue) * -1));
-            compensation.addCompensation("lte7_tx", i, NumberHelper.oneDecimalPlaceOf((((CmwProfileValues) values).getLte7InValues()[i] - centerValue) * -1));
-            compensation.addCompensation("lte7_rx", i, NumberHelper.oneDecimalPlaceOf((((CmwProfileValues) values).getLte7OutValues()[i] - centerValue) * -1));
-            compensation.addCompensation("lte20_tx", i, NumberHelper.oneDecimalPlaceOf((((CmwProfileValues) values).getLte20InValues()[i] - centerValue) * -1));
-            compensation.addCompensation("lte20_rx", i, NumberHelper.oneDecimalPlaceOf((((CmwProfileValues) values).getLte20OutValues()[i] - centerValue) * -1));
+            compensation.addCompensation("lte1_tx", i, NumberHelper.oneDecimalPlaceOf((getCmwValues().getLte1InValues()[i] - centerValue) * -1));
+            compensation.addCompensation("lte1_rx", i, NumberHelper.oneDecimalPlaceOf((getCmwValues().getLte1OutValues()[i] - centerValue) * -1));
+            compensation.addCompensation("lte3_tx", i, NumberHelper.oneDecimalPlaceOf((getCmwValues().getLte3InValues()[i] - centerValue) * -1));
+            compensation.addCompensation("lte3_rx", i, NumberHelper.oneDecimalPlaceOf((getCmwValues().getLte3OutValues()[i] - centerValue) * -1));
+            compensation.addCompensation("lte7_tx", i, NumberHelper.oneDecimalPlaceOf((getCmwValues().getLte7InValues()[i] - centerValue) * -1));
+            compensation.addCompensation("lte7_rx", i, NumberHelper.oneDecimalPlaceOf((getCmwValues().getLte7OutValues()[i] - centerValue) * -1));
+            compensation.addCompensation("lte20_tx", i, NumberHelper.oneDecimalPlaceOf((getCmwValues().getLte20InValues()[i] - centerValue) * -1));
+            compensation.addCompensation("lte20_rx", i, NumberHelper.oneDecimalPlaceOf((getCmwValues().getLte20OutValues()[i] - centerValue) * -1));
         }
     }
 
@@ -115,95 +132,95 @@ public class CmwProfile extends Profile {
     public void addCompensation(Compensation compensation) {
         CmwCompensation cmwCompensation = (CmwCompensation) compensation;
         for (int i = 0; i < 3; i++) {
-            ((CmwProfileValues) values).getLte1OutValues()[i] = NumberHelper.oneDecimalPlaceOf(((CmwProfileValues) values).getLte1OutValues()[i] + cmwCompensation.getLte1RxValues()[i]);
-            ((CmwProfileValues) values).getLte1InValues()[i] = NumberHelper.oneDecimalPlaceOf(((CmwProfileValues) values).getLte1InValues()[i] + cmwCompensation.getLte1TxValues()[i]);
-            ((CmwProfileValues) values).getLte3OutValues()[i] = NumberHelper.oneDecimalPlaceOf(((CmwProfileValues) values).getLte3OutValues()[i] + cmwCompensation.getLte3RxValues()[i]);
-            ((CmwProfileValues) values).getLte3InValues()[i] = NumberHelper.oneDecimalPlaceOf(((CmwProfileValues) values).getLte3InValues()[i] + cmwCompensation.getLte3TxValues()[i]);
-            ((CmwProfileValues) values).getLte7OutValues()[i] = NumberHelper.oneDecimalPlaceOf(((CmwProfileValues) values).getLte7OutValues()[i] + cmwCompensation.getLte7RxValues()[i]);
-            ((CmwProfileValues) values).getLte7InValues()[i] = NumberHelper.oneDecimalPlaceOf(((CmwProfileValues) values).getLte7InValues()[i] + cmwCompensation.getLte7TxValues()[i]);
-            ((CmwProfileValues) values).getLte20OutValues()[i] = NumberHelper.oneDecimalPlaceOf(((CmwProfileValues) values).getLte20OutValues()[i] + cmwCompensation.getLte20RxValues()[i]);
-            ((CmwProfileValues) values).getLte20InValues()[i] = NumberHelper.oneDecimalPlaceOf(((CmwProfileValues) values).getLte20InValues()[i] + cmwCompensation.getLte20TxValues()[i]);
+            getCmwValues().getLte1OutValues()[i] = NumberHelper.oneDecimalPlaceOf(getCmwValues().getLte1OutValues()[i] + cmwCompensation.getLte1RxValues()[i]);
+            getCmwValues().getLte1InValues()[i] = NumberHelper.oneDecimalPlaceOf(getCmwValues().getLte1InValues()[i] + cmwCompensation.getLte1TxValues()[i]);
+            getCmwValues().getLte3OutValues()[i] = NumberHelper.oneDecimalPlaceOf(getCmwValues().getLte3OutValues()[i] + cmwCompensation.getLte3RxValues()[i]);
+            getCmwValues().getLte3InValues()[i] = NumberHelper.oneDecimalPlaceOf(getCmwValues().getLte3InValues()[i] + cmwCompensation.getLte3TxValues()[i]);
+            getCmwValues().getLte7OutValues()[i] = NumberHelper.oneDecimalPlaceOf(getCmwValues().getLte7OutValues()[i] + cmwCompensation.getLte7RxValues()[i]);
+            getCmwValues().getLte7InValues()[i] = NumberHelper.oneDecimalPlaceOf(getCmwValues().getLte7InValues()[i] + cmwCompensation.getLte7TxValues()[i]);
+            getCmwValues().getLte20OutValues()[i] = NumberHelper.oneDecimalPlaceOf(getCmwValues().getLte20OutValues()[i] + cmwCompensation.getLte20RxValues()[i]);
+            getCmwValues().getLte20InValues()[i] = NumberHelper.oneDecimalPlaceOf(getCmwValues().getLte20InValues()[i] + cmwCompensation.getLte20TxValues()[i]);
         }
         super.addCompensation(compensation);
     }
 
     protected String lte1RxCompText(int i) {
         if (((CmwCompensation) compensation).getLte1RxValues()[i] != 0) {
-            return " (" + NumberHelper.oneDecimalPlaceOf(((CmwProfileValues) values).getLte1OutValues()[i] - ((CmwCompensation) compensation).getLte1RxValues()[i]) + ") ";
+            return " (" + NumberHelper.oneDecimalPlaceOf(getCmwValues().getLte1OutValues()[i] - ((CmwCompensation) compensation).getLte1RxValues()[i]) + ") ";
         }
         return "";
     }
 
     protected String lte1TxCompText(int i) {
         if (((CmwCompensation) compensation).getLte1TxValues()[i] != 0) {
-            return " (" + NumberHelper.oneDecimalPlaceOf(((CmwProfileValues) values).getLte1InValues()[i] - ((CmwCompensation) compensation).getLte1TxValues()[i]) + ") ";
+            return " (" + NumberHelper.oneDecimalPlaceOf(getCmwValues().getLte1InValues()[i] - ((CmwCompensation) compensation).getLte1TxValues()[i]) + ") ";
         }
         return "";
     }
 
     protected String lte3RxCompText(int i) {
         if (((CmwCompensation) compensation).getLte3RxValues()[i] != 0) {
-            return " (" + NumberHelper.oneDecimalPlaceOf(((CmwProfileValues) values).getLte3OutValues()[i] - ((CmwCompensation) compensation).getLte3RxValues()[i]) + ") ";
+            return " (" + NumberHelper.oneDecimalPlaceOf(getCmwValues().getLte3OutValues()[i] - ((CmwCompensation) compensation).getLte3RxValues()[i]) + ") ";
         }
         return "";
     }
 
     protected String lte3TxCompText(int i) {
         if (((CmwCompensation) compensation).getLte3TxValues()[i] != 0) {
-            return " (" + NumberHelper.oneDecimalPlaceOf(((CmwProfileValues) values).getLte3InValues()[i] - ((CmwCompensation) compensation).getLte3TxValues()[i]) + ") ";
+            return " (" + NumberHelper.oneDecimalPlaceOf(getCmwValues().getLte3InValues()[i] - ((CmwCompensation) compensation).getLte3TxValues()[i]) + ") ";
         }
         return "";
     }
 
     protected String lte7RxCompText(int i) {
         if (((CmwCompensation) compensation).getLte7RxValues()[i] != 0) {
-            return " (" + NumberHelper.oneDecimalPlaceOf(((CmwProfileValues) values).getLte7OutValues()[i] - ((CmwCompensation) compensation).getLte7RxValues()[i]) + ") ";
+            return " (" + NumberHelper.oneDecimalPlaceOf(getCmwValues().getLte7OutValues()[i] - ((CmwCompensation) compensation).getLte7RxValues()[i]) + ") ";
         }
         return "";
     }
 
     protected String lte7TxCompText(int i) {
         if (((CmwCompensation) compensation).getLte7TxValues()[i] != 0) {
-            return " (" + NumberHelper.oneDecimalPlaceOf(((CmwProfileValues) values).getLte7InValues()[i] - ((CmwCompensation) compensation).getLte7TxValues()[i]) + ") ";
+            return " (" + NumberHelper.oneDecimalPlaceOf(getCmwValues().getLte7InValues()[i] - ((CmwCompensation) compensation).getLte7TxValues()[i]) + ") ";
         }
         return "";
     }
 
     protected String lte20RxCompText(int i) {
         if (((CmwCompensation) compensation).getLte20RxValues()[i] != 0) {
-            return " (" + NumberHelper.oneDecimalPlaceOf(((CmwProfileValues) values).getLte20OutValues()[i] - ((CmwCompensation) compensation).getLte20RxValues()[i]) + ") ";
+            return " (" + NumberHelper.oneDecimalPlaceOf(getCmwValues().getLte20OutValues()[i] - ((CmwCompensation) compensation).getLte20RxValues()[i]) + ") ";
         }
         return "";
     }
 
     protected String lte20TxCompText(int i) {
         if (((CmwCompensation) compensation).getLte20TxValues()[i] != 0) {
-            return " (" + NumberHelper.oneDecimalPlaceOf(((CmwProfileValues) values).getLte20InValues()[i] - ((CmwCompensation) compensation).getLte20TxValues()[i]) + ") ";
+            return " (" + NumberHelper.oneDecimalPlaceOf(getCmwValues().getLte20InValues()[i] - ((CmwCompensation) compensation).getLte20TxValues()[i]) + ") ";
         }
         return "";
     }
 
     protected List<String> getLteInfo() {
         List<String> text = new ArrayList<>();
-        text.add(addOverload("LTE 1 csillapítás:", ((CmwProfileValues) values).getLte1InValues(), ((CmwProfileValues) values).getLte1OutValues()));
-        text.add("Low - IN: " + ((CmwProfileValues) values).getLte1InValues()[0] + lte1TxCompText(0) + " OUT: " + ((CmwProfileValues) values).getLte1OutValues()[0] + lte1RxCompText(0));
-        text.add("Mid - IN: " + ((CmwProfileValues) values).getLte1InValues()[1] + lte1TxCompText(1) + " OUT: " + ((CmwProfileValues) values).getLte1OutValues()[1] + lte1RxCompText(1));
-        text.add("High - IN: " + ((CmwProfileValues) values).getLte1InValues()[2] + lte1TxCompText(2) + " OUT: " + ((CmwProfileValues) values).getLte1OutValues()[2] + lte1RxCompText(2));
+        text.add(addOverload("LTE 1 csillapítás:", getCmwValues().getLte1InValues(), getCmwValues().getLte1OutValues()));
+        text.add("Low - IN: " + getCmwValues().getLte1InValues()[0] + lte1TxCompText(0) + " OUT: " + getCmwValues().getLte1OutValues()[0] + lte1RxCompText(0));
+        text.add("Mid - IN: " + getCmwValues().getLte1InValues()[1] + lte1TxCompText(1) + " OUT: " + getCmwValues().getLte1OutValues()[1] + lte1RxCompText(1));
+        text.add("High - IN: " + getCmwValues().getLte1InValues()[2] + lte1TxCompText(2) + " OUT: " + getCmwValues().getLte1OutValues()[2] + lte1RxCompText(2));
         text.add("");
-        text.add(addOverload("LTE 3 csillapítás:", ((CmwProfileValues) values).getLte3InValues(), ((CmwProfileValues) values).getLte3OutValues()));
-        text.add("Low - IN: " + ((CmwProfileValues) values).getLte3InValues()[0] + lte3TxCompText(0) + " OUT: " + ((CmwProfileValues) values).getLte3OutValues()[0] + lte3RxCompText(0));
-        text.add("Mid - IN: " + ((CmwProfileValues) values).getLte3InValues()[1] + lte3TxCompText(1) + " OUT: " + ((CmwProfileValues) values).getLte3OutValues()[1] + lte3RxCompText(1));
-        text.add("High - IN: " + ((CmwProfileValues) values).getLte3InValues()[2] + lte3TxCompText(2) + " OUT: " + ((CmwProfileValues) values).getLte3OutValues()[2] + lte3RxCompText(2));
+        text.add(addOverload("LTE 3 csillapítás:", getCmwValues().getLte3InValues(), getCmwValues().getLte3OutValues()));
+        text.add("Low - IN: " + getCmwValues().getLte3InValues()[0] + lte3TxCompText(0) + " OUT: " + getCmwValues().getLte3OutValues()[0] + lte3RxCompText(0));
+        text.add("Mid - IN: " + getCmwValues().getLte3InValues()[1] + lte3TxCompText(1) + " OUT: " + getCmwValues().getLte3OutValues()[1] + lte3RxCompText(1));
+        text.add("High - IN: " + getCmwValues().getLte3InValues()[2] + lte3TxCompText(2) + " OUT: " + getCmwValues().getLte3OutValues()[2] + lte3RxCompText(2));
         text.add("");
-        text.add(addOverload("LTE 7 csillapítás:", ((CmwProfileValues) values).getLte7InValues(), ((CmwProfileValues) values).getLte7OutValues()));
-        text.add("Low - IN: " + ((CmwProfileValues) values).getLte7InValues()[0] + lte7TxCompText(0) + " OUT: " + ((CmwProfileValues) values).getLte7OutValues()[0] + lte7RxCompText(0));
-        text.add("Mid - IN: " + ((CmwProfileValues) values).getLte7InValues()[1] + lte7TxCompText(1) + " OUT: " + ((CmwProfileValues) values).getLte7OutValues()[1] + lte7RxCompText(1));
-        text.add("High - IN: " + ((CmwProfileValues) values).getLte7InValues()[2] + lte7TxCompText(2) + " OUT: " + ((CmwProfileValues) values).getLte7OutValues()[2] + lte7RxCompText(2));
+        text.add(addOverload("LTE 7 csillapítás:", getCmwValues().getLte7InValues(), getCmwValues().getLte7OutValues()));
+        text.add("Low - IN: " + getCmwValues().getLte7InValues()[0] + lte7TxCompText(0) + " OUT: " + getCmwValues().getLte7OutValues()[0] + lte7RxCompText(0));
+        text.add("Mid - IN: " + getCmwValues().getLte7InValues()[1] + lte7TxCompText(1) + " OUT: " + getCmwValues().getLte7OutValues()[1] + lte7RxCompText(1));
+        text.add("High - IN: " + getCmwValues().getLte7InValues()[2] + lte7TxCompText(2) + " OUT: " + getCmwValues().getLte7OutValues()[2] + lte7RxCompText(2));
         text.add("");
-        text.add(addOverload("LTE 20 csillapítás:", ((CmwProfileValues) values).getLte20InValues(), ((CmwProfileValues) values).getLte20OutValues()));
-        text.add("Low - IN: " + ((CmwProfileValues) values).getLte20InValues()[0] + lte20TxCompText(0) + " OUT: " + ((CmwProfileValues) values).getLte20OutValues()[0] + lte20RxCompText(0));
-        text.add("Mid - IN: " + ((CmwProfileValues) values).getLte20InValues()[1] + lte20TxCompText(1) + " OUT: " + ((CmwProfileValues) values).getLte20OutValues()[1] + lte20RxCompText(1));
-        text.add("High - IN: " + ((CmwProfileValues) values).getLte20InValues()[2] + lte20TxCompText(2) + " OUT: " + ((CmwProfileValues) values).getLte20OutValues()[2] + lte20RxCompText(2));
+        text.add(addOverload("LTE 20 csillapítás:", getCmwValues().getLte20InValues(), getCmwValues().getLte20OutValues()));
+        text.add("Low - IN: " + getCmwValues().getLte20InValues()[0] + lte20TxCompText(0) + " OUT: " + getCmwValues().getLte20OutValues()[0] + lte20RxCompText(0));
+        text.add("Mid - IN: " + getCmwValues().getLte20InValues()[1] + lte20TxCompText(1) + " OUT: " + getCmwValues().getLte20OutValues()[1] + lte20RxCompText(1));
+        text.add("High - IN: " + getCmwValues().getLte20InValues()[2] + lte20TxCompText(2) + " OUT: " + getCmwValues().getLte20OutValues()[2] + lte20RxCompText(2));
         return text;
     }
 
@@ -9,12 +9,14 @@ import hu.open.assistant.rf.model.profile.values.ProfileValues;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * A logical representation of a generic RF profile. Beside type specific information it stores the attenuation values,
  * the complete log history and a compensation. The profile can check its condition based on the attenuation values and
  * those values can be modified with a compensation. It can revert itself to the last state when possible and reset its
- * values to the given center value when needed. Provides generic information from itself.
+ * values to the given center value when needed. Provides generic information from itself. The attenuation values can be
+ * given as a loader, in that case they are only read (and the condition is only checked) when they are first accessed.
  */
 
 public abstract class Profile implements Comparable<Profile> {
@@ -28,7 +30,8 @@ public abstract class Profile implements Comparable<Profile> {
     protected String position;
     protected int serial;
     protected Compensation compensation;
-    protected ProfileValues values;
+    protected volatile ProfileValues values;
+    protected Supplier<? extends ProfileValues> valuesLoader;
     protected int condition;
     protected ProfileLogBatch logBatch;
     protected int centerValue;
@@ -48,6 +51,31 @@ public abstract class Profile implements Comparable<Profile> {
         this.values = values;
     }
 
+    public Profile(int serial, TesterType testerType, String type, String manufacturer, String box, String position, Supplier<? extends ProfileValues> valuesLoader, int centerValue) {
+        this(serial, testerType, type, manufacturer, box, position, (ProfileValues) null, centerValue);
+        this.valuesLoader = valuesLoader;
+    }
+
+    protected ProfileValues getValues() {
+        ProfileValues loadedValues = values;
+        if (loadedValues == null) {
+            synchronized (this) {
+                loadedValues = values;
+                if (loadedValues == null) {
+                    loadedValues = valuesLoader.get();
+                    values = loadedValues;
+                    valuesLoader = null;
+                    checkCondition();
+                }
+            }
+        }
+        return loadedValues;
+    }
+
+    public boolean isValuesLoaded() {
+        return values != null;
+    }
+
     public TesterType getTesterType() {
         return testerType;
     }
@@ -69,38 +97,39 @@ public abstract class Profile implements Comparable<Profile> {
     }
 
     public double[] getWcdma1InValues() {
-        return values.getWcdma1InValues();
+        return getValues().getWcdma1InValues();
     }
 
     public double[] getWcdma1OutValues() {
-        return values.getWcdma1OutValues();
+        return getValues().getWcdma1OutValues();
     }
 
     public double[] getWcdma8InValues() {
-        return values.getWcdma8InValues();
+        return getValues().getWcdma8InValues();
     }
 
     public double[] getWcdma8OutValues() {
-        return values.getWcdma8OutValues();
+        return getValues().getWcdma8OutValues();
     }
 
     public double[] getGsm900InValues() {
-        return values.getGsm900InValues();
+        return getValues().getGsm900InValues();
     }
 
     public double[] getGsm900OutValues() {
-        return values.getGsm900OutValues();
+        return getValues().getGsm900OutValues();
     }
 
     public double[] getGsm1800InValues() {
-        return values.getGsm1800InValues();
+        return getValues().getGsm1800InValues();
     }
 
     public double[] getGsm1800OutValues() {
-        return values.getGsm1800OutValues();
+        return getValues().getGsm1800OutValues();
     }
 
     public int getCondition() {
+        getValues();
         return condition;
     }
 
@@ -165,42 +194,42 @@ public abstract class Profile implements Comparable<Profile> {
     public void createCenterCompensation() {
         for (int i = 0; i < 3; i++) {
             compensation.addCompensation("wcdma1_tx", i, NumberHelper
-                    .oneDecimalPlaceOf((values.getWcdma1InValues()[i] - centerValue) * -1));
+                    .oneDecimalPlaceOf((getValues().getWcdma1InValues()[i] - centerValue) * -1));
             compensation.addCompensation("wcdma1_rx", i, NumberHelper
-                    .oneDecimalPlaceOf((values.getWcdma1OutValues()[i] - centerValue) * -1));
+                    .oneDecimalPlaceOf((getValues().getWcdma1OutValues()[i] - centerValue) * -1));
             compensation.addCompensation("wcdma8_tx", i, NumberHelper
-                    .oneDecimalPlaceOf((values.getWcdma8InValues()[i] - centerValue) * -1));
+                    .oneDecimalPlaceOf((getValues().getWcdma8InValues()[i] - centerValue) * -1));
             compensation.addCompensation("wcdma8_rx", i, NumberHelper
-                    .oneDecimalPlaceOf((values.getWcdma8OutValues()[i] - centerValue) * -1));
+                    .oneDecimalPlaceOf((getValues().getWcdma8OutValues()[i] - centerValue) * -1));
             compensation.addCompensation("gsm900_tx", i, NumberHelper
-                    .oneDecimalPlaceOf((values.getGsm900InValues()[i] - centerValue) * -1));
+                    .oneDecimalPlaceOf((getValues().getGsm900InValues()[i] - centerValue) * -1));
             compensation.addCompensation("gsm900_rx", i, NumberHelper
-                    .oneDecimalPlaceOf((values.getGsm900OutValues()[i] - centerValue) * -1));
+                    .oneDecimalPlaceOf((getValues().getGsm900OutValues()[i] - centerValue) * -1));
             compensation.addCompensation("gsm1800_tx", i, NumberHelper
-                    .oneDecimalPlaceOf((values.getGsm1800InValues()[i] - centerValue) * -1));
+                    .oneDecimalPlaceOf((getValues().getGsm1800InValues()[i] - centerValue) * -1));
             compensation.addCompensation("gsm1800_rx", i, NumberHelper
-                    .oneDecimalPlaceOf((values.getGsm1800OutValues()[i] - centerValue) * -1));
+                    .oneDecimalPlaceOf((getValues().getGsm1800OutValues()[i] - centerValue) * -1));
         }
     }
 
     public void addCompensation(Compensation compensation) {
         this.compensation.copyCompensation(compensation);
         for (int i = 0; i < 3; i++) {
-            values.getWcdma1OutValues()[i] = NumberHelper.oneDecimalPlaceOf(values.getWcdma1OutValues()[i] + compensation.getWcdma1RxValues()[i]);
-            values.getWcdma1InValues()[i] = NumberHelper.oneDecimalPlaceOf(values.getWcdma1InValues()[i] + compensation.getWcdma1TxValues()[i]);
-            values.getWcdma8OutValues()[i] = NumberHelper.oneDecimalPlaceOf(values.getWcdma8OutValues()[i] + compensation.getWcdma8RxValues()[i]);
-            values.getWcdma8InValues()[i] = NumberHelper.oneDecimalPlaceOf(values.getWcdma8InValues()[i] + compensation.getWcdma8TxValues()[i]);
-            values.getGsm900OutValues()[i] = NumberHelper.oneDecimalPlaceOf(values.getGsm900OutValues()[i] + compensation.getGsm900RxValues()[i]);
-            values.getGsm900InValues()[i] = NumberHelper.oneDecimalPlaceOf(values.getGsm900InValues()[i] + compensation.getGsm900TxValues()[i]);
-            values.getGsm1800OutValues()[i] = NumberHelper.oneDecimalPlaceOf(values.getGsm1800OutValues()[i] + compensation.getGsm1800RxValues()[i]);
-            values.getGsm1800InValues()[i] = NumberHelper.oneDecimalPlaceOf(values.getGsm1800InValues()[i] + compensation.getGsm1800TxValues()[i]);
+            getValues().getWcdma1OutValues()[i] = NumberHelper.oneDecimalPlaceOf(getValues().getWcdma1OutValues()[i] + compensation.getWcdma1RxValues()[i]);
+            getValues().getWcdma1InValues()[i] = NumberHelper.oneDecimalPlaceOf(getValues().getWcdma1InValues()[i] + compensation.getWcdma1TxValues()[i]);
+            getValues().getWcdma8OutValues()[i] = NumberHelper.oneDecimalPlaceOf(getValues().getWcdma8OutValues()[i] + compensation.getWcdma8RxValues()[i]);
+            getValues().getWcdma8InValues()[i] = NumberHelper.oneDecimalPlaceOf(getValues().getWcdma8InValues()[i] + compensation.getWcdma8TxValues()[i]);
+            getValues().getGsm900OutValues()[i] = NumberHelper.oneDecimalPlaceOf(getValues().getGsm900OutValues()[i] + compensation.getGsm900RxValues()[i]);
+            getValues().getGsm900InValues()[i] = NumberHelper.oneDecimalPlaceOf(getValues().getGsm900InValues()[i] + compensation.getGsm900TxValues()[i]);
+            getValues().getGsm1800OutValues()[i] = NumberHelper.oneDecimalPlaceOf(getValues().getGsm1800OutValues()[i] + compensation.getGsm1800RxValues()[i]);
+            getValues().getGsm1800InValues()[i] = NumberHelper.oneDecimalPlaceOf(getValues().getGsm1800InValues()[i] + compensation.getGsm1800TxValues()[i]);
         }
     }
 
     public void checkCondition() {
-        if (values.anyValueExceedLimit(ACCEPTABLE_LIMIT)) {
+        if (getValues().anyValueExceedLimit(ACCEPTABLE_LIMIT)) {
             condition = 3;
-        } else if (values.anyValueExceedLimit(NORMAL_LIMIT)) {
+        } else if (getValues().anyValueExceedLimit(NORMAL_LIMIT)) {
             condition = 2;
         } else {
             condition = 1;
@@ -245,80 +274,80 @@ public abstract class Profile implements Comparable<Profile> {
 
     protected List<String> getWcdmaGsmInfo() {
         List<String> text = new ArrayList<>();
-        text.add(addOverload("WCDMA Band 1 csillapítás:", values.getWcdma1InValues(), values.getWcdma1OutValues()));
-        text.add("Low - IN: " + values.getWcdma1InValues()[0] + wcdma1TxCompText(0) + " OUT: " + values.getWcdma1OutValues()[0] + wcdma1RxCompText(0));
-        text.add("Mid - IN: " + values.getWcdma1InValues()[1] + wcdma1TxCompText(1) + " OUT: " + values.getWcdma1OutValues()[1] + wcdma1RxCompText(1));
-        text.add("High - IN: " + values.getWcdma1InValues()[2] + wcdma1TxCompText(2) + " OUT: " + values.getWcdma1OutValues()[2] + wcdma1RxCompText(2));
+        text.add(addOverload("WCDMA Band 1 csillapítás:", getValues().getWcdma1InValues(), getValues().getWcdma1OutValues()));
+        text.add("Low - IN: " + getValues().getWcdma1InValues()[0] + wcdma1TxCompText(0) + " OUT: " + getValues().getWcdma1OutValues()[0] + wcdma1RxCompText(0));
+        text.add("Mid - IN: " + getValues().getWcdma1InValues()[1] + wcdma1TxCompText(1) + " OUT: " + getValues().getWcdma1OutValues()[1] + wcdma1RxCompText(1));
+        text.add("High - IN: " + getValues().getWcdma1InValues()[2] + wcdma1TxCompText(2) + " OUT: " + getValues().getWcdma1OutValues()[2] + wcdma1RxCompText(2));
         text.add("");
-        text.add(addOverload("WCDMA Band 8 csillapítás:", values.getWcdma8InValues(), values.getWcdma8OutValues()));
-        text.add("Low - IN: " + values.getWcdma8InValues()[0] + wcdma8TxCompText(0) + " OUT: " + values.getWcdma8OutValues()[0] + wcdma8RxCompText(0));
-        text.add("Mid - IN: " + values.getWcdma8InValues()[1] + wcdma8TxCompText(1) + " OUT: " + values.getWcdma8OutValues()[1] + wcdma8RxCompText(1));
-        text.add("High - IN: " + values.getWcdma8InValues()[2] + wcdma8TxCompText(2) + " OUT: " + values.getWcdma8OutValues()[2] + wcdma8RxCompText(2));
+        text.add(addOverload("WCDMA Band 8 csillapítás:", getValues().getWcdma8InValues(), getValues().getWcdma8OutValues()));
+        text.add("Low - IN: " + getValues().getWcdma8InValues()[0] + wcdma8TxCompText(0) + " OUT: " + getValues().getWcdma8OutValues()[0] + wcdma8RxCompText(0));
+        text.add("Mid - IN: " + getValues().getWcdma8InValues()[1] + wcdma8TxCompText(1) + " OUT: " + getValues().getWcdma8OutValues()[1] + wcdma8RxCompText(1));
+        text.add("High - IN: " + getValues().getWcdma8InValues()[2] + wcdma8TxCompText(2) + " OUT: " + getValues().getWcdma8OutValues()[2] + wcdma8RxCompText(2));
         text.add("");
-        text.add(addOverload("GSM 900 csillapítás:", values.getGsm900InValues(), values.getGsm900OutValues()));
-        text.add("Low - IN: " + values.getGsm900InValues()[0] + gsm900TxCompText(0) + " OUT: " + values.getGsm900OutValues()[0] + gsm900RxCompText(0));
-        text.add("Mid - IN: " + values.getGsm900InValues()[1] + gsm900TxCompText(1) + " OUT: " + values.getGsm900OutValues()[1] + gsm900RxCompText(1));
-        text.add("High - IN: " + values.getGsm900InValues()[2] + gsm900TxCompText(2) + " OUT: " + values.getGsm900OutValues()[2] + gsm900RxCompText(2));
+        text.add(addOverload("GSM 900 csillapítás:", getValues().getGsm900InValues(), getValues().getGsm900OutValues()));
+        text.add("Low - IN: " + getValues().getGsm900InValues()[0] + gsm900TxCompText(0) + " OUT: " + getValues().getGsm900OutValues()[0] + gsm900RxCompText(0));
+        text.add("Mid - IN: " + getValues().getGsm900InValues()[1] + gsm900TxCompText(1) + " OUT: " + getValues().getGsm900OutValues()[1] + gsm900RxCompText(1));
+        text.add("High - IN: " + getValues().getGsm900InValues()[2] + gsm900TxCompText(2) + " OUT: " + getValues().getGsm900OutValues()[2] + gsm900RxCompText(2));
         text.add("");
-        text.add(addOverload("GSM 1800 csillapítás:", values.getGsm1800InValues(), values.getGsm1800OutValues()));
-        text.add("Low - IN: " + values.getGsm1800InValues()[0] + gsm1800TxCompText(0) + " OUT: " + values.getGsm1800OutValues()[0] + gsm1800RxCompText(0));
-        text.add("Mid - IN: " + values.getGsm1800InValues()[1] + gsm1800TxCompText(1) + " OUT: " + values.getGsm1800OutValues()[1] + gsm1800RxCompText(1));
-        text.add("High - IN: " + values.getGsm1800InValues()[2] + gsm1800TxCompText(2) + " OUT: " + values.getGsm1800OutValues()[2] + gsm1800RxCompText(2));
+        text.add(addOverload("GSM 1800 csillapítás:", getValues().getGsm1800InValues(), getValues().getGsm1800OutValues()));
+        text.add("Low - IN: " + getValues().getGsm1800InValues()[0] + gsm1800TxCompText(0) + " OUT: " + getValues().getGsm1800OutValues()[0] + gsm1800RxCompText(0));
+        text.add("Mid - IN: " + getValues().getGsm1800InValues()[1] + gsm1800TxCompText(1) + " OUT: " + getValues().getGsm1800OutValues()[1] + gsm1800RxCompText(1));
+        text.add("High - IN: " + getValues().getGsm1800InValues()[2] + gsm1800TxCompText(2) + " OUT: " + getValues().getGsm1800OutValues()[2] + gsm1800RxCompText(2));
         return text;
     }
 
     protected String wcdma1RxCompText(int i) {
         if (compensation.getWcdma1RxValues()[i] != 0) {
-            return " (" + NumberHelper.oneDecimalPlaceOf(values.getWcdma1OutValues()[i] - compensation.getWcdma1RxValues()[i]) + ") ";
+            return " (" + NumberHelper.oneDecimalPlaceOf(getValues().getWcdma1OutValues()[i] - compensation.getWcdma1RxValues()[i]) + ") ";
         }
         return "";
     }
 
     protected String wcdma1TxCompText(int i) {
         if (compensation.getWcdma1TxValues()[i] != 0) {
-            return " (" + NumberHelper.oneDecimalPlaceOf(values.getWcdma1InValues()[i] - compensation.getWcdma1TxValues()[i]) + ") ";
+            return " (" + NumberHelper.oneDecimalPlaceOf(getValues().getWcdma1InValues()[i] - compensation.getWcdma1TxValues()[i]) + ") ";
         }
         return "";
     }
 
     protected String wcdma8RxCompText(int i) {
         if (compensation.getWcdma8RxValues()[i] != 0) {
-            return " (" + NumberHelper.oneDecimalPlaceOf(values.getWcdma8OutValues()[i] - compensation.getWcdma8RxValues()[i]) + ") ";
+            return " (" + NumberHelper.oneDecimalPlaceOf(getValues().getWcdma8OutValues()[i] - compensation.getWcdma8RxValues()[i]) + ") ";
         }
         return "";
     }
 
     protected String wcdma8TxCompText(int i) {
         if (compensation.getWcdma8TxValues()[i] != 0) {
-            return " (" + NumberHelper.oneDecimalPlaceOf(values.getWcdma8InValues()[i] - compensation.getWcdma8TxValues()[i]) + ") ";
+            return " (" + NumberHelper.oneDecimalPlaceOf(getValues().getWcdma8InValues()[i] - compensation.getWcdma8TxValues()[i]) + ") ";
         }
         return "";
     }
 
     protected String gsm900RxCompText(int i) {
         if (compensation.getGsm900RxValues()[i] != 0) {
-            return " (" + NumberHelper.oneDecimalPlaceOf(values.getGsm900OutValues()[i] - compensation.getGsm900RxValues()[i]) + ") ";
+            return " (" + NumberHelper.oneDecimalPlaceOf(getValues().getGsm900OutValues()[i] - compensation.getGsm900RxValues()[i]) + ") ";
         }
         return "";
     }
 
     protected String gsm900TxCompText(int i) {
         if (compensation.getGsm900TxValues()[i] != 0) {
-            return " (" + NumberHelper.oneDecimalPlaceOf(values.getGsm900InValues()[i] - compensation.getGsm900TxValues()[i]) + ") ";
+            return " (" + NumberHelper.oneDecimalPlaceOf(getValues().getGsm900InValues()[i] - compensation.getGsm900TxValues()[i]) + ") ";
         }
         return "";
     }
 
     protected String gsm1800RxCompText(int i) {
         if (compensation.getGsm1800RxValues()[i] != 0) {
-            return " (" + NumberHelper.oneDecimalPlaceOf(values.getGsm1800OutValues()[i] - compensation.getGsm1800RxValues()[i]) + ") ";
+            return " (" + NumberHelper.oneDecimalPlaceOf(getValues().getGsm1800OutValues()[i] - compensation.getGsm1800RxValues()[i]) + ") ";
         }
         return "";
     }
 
     protected String gsm1800TxCompText(int i) {
         if (compensation.getGsm1800TxValues()[i] != 0) {
-            return " (" + NumberHelper.oneDecimalPlaceOf(values.getGsm1800InValues()[i] - compensation.getGsm1800TxValues()[i]) + ") ";
+            return " (" + NumberHelper.oneDecimalPlaceOf(getValues().getGsm1800InValues()[i] - compensation.getGsm1800TxValues()[i]) + ") ";
         }
         return "";
     }
@@ -2,7 +2,6 @@ package hu.open.assistant.rf.model.report;
 
 import hu.open.assistant.rf.model.report.limits.CmwReportLimits;
 import hu.open.assistant.rf.model.report.values.CmwReportValues;
-import hu.open.assistant.commons.util.NumberHelper;
 import hu.open.assistant.rf.model.TesterType;
 
 import java.time.LocalDateTime;
@@ -33,7 +32,7 @@ public class CmwReport extends Report {
     }
 
     public boolean hasLte() {
-        return NumberHelper.arrayHasValues(((CmwReportValues) values).getLte1TxValues());
+        return values.hasValues(CmwReportValues.LTE1_TX);
     }
 
     public double[] getLte1TxValues() {
@@ -93,14 +92,14 @@ public class CmwReport extends Report {
 
     protected boolean checkLteBounds(int limit) {
         boolean inBounds;
-        inBounds = checkBound(((CmwReportValues) values).getLte1TxValues(), ((CmwReportLimits) limits).getLte1TxMax(), ((CmwReportLimits) limits).getLte1TxMin(), true, limit, true);
-        inBounds = checkBound(((CmwReportValues) values).getLte1RxValues(), ((CmwReportLimits) limits).getLte1RxMax(), ((CmwReportLimits) limits).getLte1RxMin(), inBounds, limit, false);
-        inBounds = checkBound(((CmwReportValues) values).getLte3TxValues(), ((CmwReportLimits) limits).getLte3TxMax(), ((CmwReportLimits) limits).getLte3TxMin(), inBounds, limit, true);
-        inBounds = checkBound(((CmwReportValues) values).getLte3RxValues(), ((CmwReportLimits) limits).getLte3RxMax(), ((CmwReportLimits) limits).getLte3RxMin(), inBounds, limit, false);
-        inBounds = checkBound(((CmwReportValues) values).getLte7TxValues(), ((CmwReportLimits) limits).getLte7TxMax(), ((CmwReportLimits) limits).getLte7TxMin(), inBounds, limit, true);
-        inBounds = checkBound(((CmwReportValues) values).getLte7RxValues(), ((CmwReportLimits) limits).getLte7RxMax(), ((CmwReportLimits) limits).getLte7RxMin(), inBounds, limit, false);
-        inBounds = checkBound(((CmwReportValues) values).getLte20TxValues(), ((CmwReportLimits) limits).getLte20TxMax(), ((CmwReportLimits) limits).getLte20TxMin(), inBounds, limit, true);
-        inBounds = checkBound(((CmwReportValues) values).getLte20RxValues(), ((CmwReportLimits) limits).getLte20RxMax(), ((CmwReportLimits) limits).getLte20RxMin(), inBounds, limit, false);
+        inBounds = checkBound(CmwReportValues.LTE1_TX, ((CmwReportLimits) limits).getLte1TxMax(), ((CmwReportLimits) limits).getLte1TxMin(), true, limit, true);
+        inBounds = checkBound(CmwReportValues.LTE1_RX, ((CmwReportLimits) limits).getLte1RxMax(), ((CmwReportLimits) limits).getLte1RxMin(), inBounds, limit, false);
+        inBounds = checkBound(CmwReportValues.LTE3_TX, ((CmwReportLimits) limits).getLte3TxMax(), ((CmwReportLimits) limits).getLte3TxMin(), inBounds, limit, true);
+        inBounds = checkBound(CmwReportValues.LTE3_RX, ((CmwReportLimits) limits).getLte3RxMax(), ((CmwReportLimits) limits).getLte3RxMin(), inBounds, limit, false);
+        inBounds = checkBound(CmwReportValues.LTE7_TX, ((CmwReportLimits) limits).getLte7TxMax(), ((CmwReportLimits) limits).getLte7TxMin(), inBounds, limit, true);
+        inBounds = checkBound(CmwReportValues.LTE7_RX, ((CmwReportLimits) limits).getLte7RxMax(), ((CmwReportLimits) limits).getLte7RxMin(), inBounds, limit, false);
+        inBounds = checkBound(CmwReportValues.LTE20_TX, ((CmwReportLimits) limits).getLte20TxMax(), ((CmwReportLimits) limits).getLte20TxMin(), inBounds, limit, true);
+        inBounds = checkBound(CmwReportValues.LTE20_RX, ((CmwReportLimits) limits).getLte20RxMax(), ((CmwReportLimits) limits).getLte20RxMin(), inBounds, limit, false);
         return inBounds;
     }
 }
@@ -2,7 +2,6 @@ package hu.open.assistant.rf.model.report;
 
 import hu.open.assistant.rf.model.report.limits.ReportLimits;
 import hu.open.assistant.rf.model.report.values.ReportValues;
-import hu.open.assistant.commons.util.NumberHelper;
 import hu.open.assistant.rf.model.TesterType;
 
 import java.time.LocalDateTime;
@@ -82,15 +81,15 @@ public abstract class Report implements Comparable<Report> {
     }
 
     public boolean hasGsm() {
-        return NumberHelper.arrayHasValues(values.getGsm900TxValues());
+        return values.hasValues(ReportValues.GSM900_TX);
     }
 
     public boolean hasWcdma1() {
-        return NumberHelper.arrayHasValues(values.getWcdma1TxValues());
+        return values.hasValues(ReportValues.WCDMA1_TX);
     }
 
     public boolean hasWcdma8() {
-        return NumberHelper.arrayHasValues(values.getWcdma8TxValues());
+        return values.hasValues(ReportValues.WCDMA8_TX);
     }
 
     public String getType() {
@@ -142,6 +141,10 @@ public abstract class Report implements Comparable<Report> {
         return imei;
     }
 
+    public double getValue(int band, int index) {
+        return values.getValue(band, index);
+    }
+
     public double[] getWcdma1TxValues() {
         return values.getWcdma1TxValues();
     }
@@ -188,8 +191,9 @@ public abstract class Report implements Comparable<Report> {
         }
     }
 
-    protected boolean checkBound(double[] values, int max, int min, boolean inBounds, int limit, boolean tx) {
-        for (double value : values) {
+    protected boolean checkBound(int band, int max, int min, boolean inBounds, int limit, boolean tx) {
+        for (int i = 0; i < ReportValues.CHANNEL_COUNT; i++) {
+            double value = values.getValue(band, i);
             if (value > max + limit) {
                 inBounds = false;
                 if (limit == 0) {
@@ -217,18 +221,18 @@ public abstract class Report implements Comparable<Report> {
     protected boolean checkBounds(int limit) {
         boolean inBounds = true;
         if (hasWcdma1()) {
-            inBounds = checkBound(values.getWcdma1TxValues(), limits.getWcdma1TxMax(), limits.getWcdma1TxMin(), true, limit, true);
-            inBounds = checkBound(values.getWcdma1RxValues(), limits.getWcdma1RxMax(), limits.getWcdma1RxMin(), inBounds, limit, false);
+            inBounds = checkBound(ReportValues.WCDMA1_TX, limits.getWcdma1TxMax(), limits.getWcdma1TxMin(), true, limit, true);
+            inBounds = checkBound(ReportValues.WCDMA1_RX, limits.getWcdma1RxMax(), limits.getWcdma1RxMin(), inBounds, limit, false);
             if (hasWcdma8()) {
-                inBounds = checkBound(values.getWcdma8TxValues(), limits.getWcdma8TxMax(), limits.getWcdma8TxMin(), inBounds, limit, true);
-                inBounds = checkBound(values.getWcdma8RxValues(), limits.getWcdma8RxMax(), limits.getWcdma8RxMin(), inBounds, limit, false);
+                inBounds = checkBound(ReportValues.WCDMA8_TX, limits.getWcdma8TxMax(), limits.getWcdma8TxMin(), inBounds, limit, true);
+                inBounds = checkBound(ReportValues.WCDMA8_RX, limits.getWcdma8RxMax(), limits.getWcdma8RxMin(), inBounds, limit, false);
             }
         }
         if (hasGsm()) {
-            inBounds = checkBound(values.getGsm900TxValues(), limits.getGsm900TxMax(), limits.getGsm900TxMin(), inBounds, limit, true);
-            inBounds = checkBound(values.getGsm900RxValues(), limits.getGsm900RxMax(), limits.getGsm900RxMin(), inBounds, limit, false);
-            inBounds = checkBound(values.getGsm1800TxValues(), limits.getGsm1800TxMax(), limits.getGsm1800TxMin(), inBounds, limit, true);
-            inBounds = checkBound(values.getGsm1800RxValues(), limits.getGsm1800RxMax(), limits.getGsm1800RxMin(), inBounds, limit, false);
+            inBounds = checkBound(ReportValues.GSM900_TX, limits.getGsm900TxMax(), limits.getGsm900TxMin(), inBounds, limit, true);
+            inBounds = checkBound(ReportValues.GSM900_RX, limits.getGsm900RxMax(), limits.getGsm900RxMin(), inBounds, limit, false);
+            inBounds = checkBound(ReportValues.GSM1800_TX, limits.getGsm1800TxMax(), limits.getGsm1800TxMin(), inBounds, limit, true);
+            inBounds = checkBound(ReportValues.GSM1800_RX, limits.getGsm1800RxMax(), limits.getGsm1800RxMin(), inBounds, limit, false);
         }
         return inBounds;
     }
@@ -7,6 +7,7 @@ import hu.open.assistant.rf.model.report.limits.ReportLimits;
 import hu.open.assistant.rf.model.TesterType;
 import hu.open.assistant.rf.model.report.CmwReport;
 import hu.open.assistant.rf.model.report.limits.CmwReportLimits;
+import hu.open.assistant.rf.model.report.values.CmwReportValues;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -39,6 +40,8 @@ public class CmwReportBatch extends ReportBatch {
     protected float oldCombinedLteRxSpread;
     protected float combinedLteTxSpread;
     protected float combinedLteRxSpread;
+    protected float[] lteSpreadSums = new float[CmwReportValues.VALUE_COUNT];
+    protected float[] oldLteSpreadSums = new float[CmwReportValues.VALUE_COUNT];
     protected CmwReportLimits cmwLimits;
 
     public CmwReportBatch(String type, String manufacturer, ReportLimits limits, int serial, Profile profile) {
@@ -80,17 +83,30 @@ public class CmwReportBatch extends ReportBatch {
             if (cmwReport.isPassable()) {
                 if (cmwReport.hasLte()) {
                     usableLteCount++;
+                    addLteSpreads(cmwReport, lteSpreadSums);
                 }
             }
         } else if (report.getDateTime().isAfter(firstDate) && report.getDateTime().isBefore(lastDate)) {
             if (report.isPassable()) {
                 if (cmwReport.hasLte()) {
                     oldUsableLteCount++;
+                    addLteSpreads(cmwReport, oldLteSpreadSums);
                 }
             }
         }
     }
 
+    protected void addLteSpreads(CmwReport report, float[] spreadSums) {
+        addSpread(report, spreadSums, CmwReportValues.LTE1_TX, cmwLimits.getLte1TxExp());
+        addSpread(report, spreadSums, CmwReportValues.LTE1_RX, cmwLimits.getLte1RxExp());
+        addSpread(report, spreadSums, CmwReportValues.LTE3_TX, cmwLimits.getLte3TxExp());
+        addSpread(report, spreadSums, CmwReportValues.LTE3_RX, cmwLimits.getLte3RxExp());
+        addSpread(report, spreadSums, CmwReportValues.LTE7_TX, cmwLimits.getLte7TxExp());
+        addSpread(report, spreadSums, CmwReportValues.LTE7_RX, cmwLimits.getLte7RxExp());
+        addSpread(report, spreadSums, CmwReportValues.LTE20_TX, cmwLimits.getLte20TxExp());
+        addSpread(report, spreadSums, CmwReportValues.LTE20_RX, cmwLimits.getLte20RxExp());
+    }
+
     @Override
     public void calculateCombinedSpreads() {
         super.calculateCombinedSpreads();
@@ -135,29 +151,22 @@ public class CmwReportBatch extends ReportBatch {
     @Override
     public void calculateAverageSpreads() {
         super.calculateAverageSpreads();
-        calculateAverageLteSpread(getValidReports(), usableLteCount, lte1TxSpread, lte1RxSpread,
+        calculateAverageLteSpread(lteSpreadSums, usableLteCount, lte1TxSpread, lte1RxSpread,
                 lte3TxSpread, lte3RxSpread, lte7TxSpread, lte7RxSpread, lte20TxSpread, lte20RxSpread);
-        calculateAverageLteSpread(getOldReports(), oldUsableLteCount, oldLte1TxSpread, oldLte1RxSpread,
+        calculateAverageLteSpread(oldLteSpreadSums, oldUsableLteCount, oldLte1TxSpread, oldLte1RxSpread,
                 oldLte3TxSpread, oldLte3RxSpread, oldLte7TxSpread, oldLte7RxSpread, oldLte20TxSpread, oldLte20RxSpread);
     }
 
-    protected void calculateAverageLteSpread(List<Report> reports, int usableLteCount, float[] lte1TxSpread, float[] lte1RxSpread,
+    protected void calculateAverageLteSpread(float[] spreadSums, int usableLteCount, float[] lte1TxSpread, float[] lte1RxSpread,
                                              float[] lte3TxSpread, float[] lte3RxSpread, float[] lte7TxSpread, float[] lte7RxSpread, float[] lte20TxSpread, float[] lte20RxSpread) {
-        for (Report report : reports) {
-            CmwReport cmwReport = (CmwReport) report;
-            if (cmwReport.hasLte()) {
-                for (int i = 0; i < 3; i++) {
-                    lte1TxSpread[i] += Math.abs(cmwReport.getLte1TxValues()[i] - cmwLimits.getLte1TxExp());
-                    lte1RxSpread[i] += Math.abs(cmwReport.getLte1RxValues()[i] - cmwLimits.getLte1RxExp());
-                    lte3TxSpread[i] += Math.abs(cmwReport.getLte3TxValues()[i] - cmwLimits.getLte3TxExp());
-                    lte3RxSpread[i] += Math.abs(cmwReport.getLte3RxValues()[i] - cmwLimits.getLte3RxExp());
-                    lte7TxSpread[i] += Math.abs(cmwReport.getLte7TxValues()[i] - cmwLimits.getLte7TxExp());
-                    lte7RxSpread[i] += Math.abs(cmwReport.getLte7RxValues()[i] - cmwLimits.getLte7RxExp());
-                    lte20TxSpread[i] += Math.abs(cmwReport.getLte20TxValues()[i] - cmwLimits.getLte20TxExp());
-                    lte20RxSpread[i] += Math.abs(cmwReport.getLte20RxValues()[i] - cmwLimits.getLte20RxExp());
-                }
-            }
-        }
+        copySpreadSum(spreadSums, CmwReportValues.LTE1_TX, lte1TxSpread);
+        copySpreadSum(spreadSums, CmwReportValues.LTE1_RX, lte1RxSpread);
+        copySpreadSum(spreadSums, CmwReportValues.LTE3_TX, lte3TxSpread);
+        copySpreadSum(spreadSums, CmwReportValues.LTE3_RX, lte3RxSpread);
+        copySpreadSum(spreadSums, CmwReportValues.LTE7_TX, lte7TxSpread);
+        copySpreadSum(spreadSums, CmwReportValues.LTE7_RX, lte7RxSpread);
+        copySpreadSum(spreadSums, CmwReportValues.LTE20_TX, lte20TxSpread);
+        copySpreadSum(spreadSums, CmwReportValues.LTE20_RX, lte20RxSpread);
         if (usableLteCount > 0) {
             for (int i = 0; i < 3; i++) {
                 lte1TxSpread[i] = lte1TxSpread[i] / usableLteCount;
@@ -4,13 +4,16 @@ import hu.open.assistant.rf.model.compensation.Compensation;
 import hu.open.assistant.rf.model.profile.Profile;
 import hu.open.assistant.rf.model.report.Report;
 import hu.open.assistant.rf.model.report.limits.ReportLimits;
+import hu.open.assistant.rf.model.report.values.ReportValues;
 import hu.open.assistant.commons.util.DateHelper;
 import hu.open.assistant.rf.model.TesterType;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Stores and holds together reports from the same RF profile at a given RF station. It can calculate spread for the
@@ -18,7 +21,8 @@ import java.util.List;
  * calculation is available for separate bands and a combined one (both TX and RX). The spread can be calculated for
  * the actual and old reports as well with comparison. Based on the spread the batch can determine its condition. It
  * helps with marking reports for text display within a graphical list. Multiple compare methods are available. Beside
- * the actual RF profile, it stores a compensation which can be modified using an interactive graph.
+ * the actual RF profile, it stores a compensation which can be modified using an interactive graph. Spread sums and the
+ * derived report lists are updated as the reports are added, so the statistics don't need extra passes over the reports.
  */
 public abstract class ReportBatch implements Comparable<ReportBatch> {
     protected int unitCount;
@@ -37,6 +41,14 @@ public abstract class ReportBatch implements Comparable<ReportBatch> {
     protected int serial;
     protected TesterType testerType;
     protected List<Report> reports;
+    protected List<Report> validReports;
+    protected List<Report> validNonPassedReports;
+    protected List<Report> oldReports;
+    protected List<Report> usableReports;
+    protected List<Report> sortedUsableReports;
+    protected List<Report> markedReports;
+    protected float[] spreadSums = new float[ReportValues.VALUE_COUNT];
+    protected float[] oldSpreadSums = new float[ReportValues.VALUE_COUNT];
     protected float[] wcdma1TxSpread = new float[3];
     protected float[] wcdma1RxSpread = new float[3];
     protected float[] wcdma8TxSpread = new float[3];
@@ -65,7 +77,7 @@ public abstract class ReportBatch implements Comparable<ReportBatch> {
     protected LocalDateTime lastDate;
     protected LocalDateTime firstDate;
     protected String[] channels;
-    protected List<Long> imeis;
+    protected Set<Long> imeis;
 
     public ReportBatch(String type, String manufacturer, ReportLimits limits, int serial, TesterType testerType, Profile profile) {
         this.profile = profile;
@@ -75,6 +87,10 @@ public abstract class ReportBatch implements Comparable<ReportBatch> {
         this.serial = serial;
         this.testerType = testerType;
         reports = new ArrayList<>();
+        validReports = new ArrayList<>();
+        validNonPassedReports = new ArrayList<>();
+        oldReports = new ArrayList<>();
+        usableReports = new ArrayList<>();
         sortMethod = "condition";
         if (profile.getLogBatch() == null) {
             lastDate = LocalDateTime.now().minusYears(1);
@@ -87,7 +103,7 @@ public abstract class ReportBatch implements Comparable<ReportBatch> {
                 firstDate = profile.getLogBatch().getSecondModificationDate();
             }
         }
-        imeis = new ArrayList<>();
+        imeis = new HashSet<>();
         usableWcdma1Count = 0;
         usableGsmCount = 0;
         usableWcdma8Count = 0;
@@ -245,12 +261,19 @@ public abstract class ReportBatch implements Comparable<ReportBatch> {
 
     public void addReport(Report report) {
         reports.add(report);
+        sortedUsableReports = null;
+        markedReports = null;
+        if (report.isPassable()) {
+            usableReports.add(report);
+        }
         if (report.getDateTime().isAfter(lastDate)) {
             if (report.isPassable()) {
+                validReports.add(report);
                 if (report.isPassed()) {
                     passCount++;
                 } else {
                     passableCount++;
+                    validNonPassedReports.add(report);
                 }
                 if (report.hasWcdma1()) {
                     usableWcdma1Count++;
@@ -261,9 +284,8 @@ public abstract class ReportBatch implements Comparable<ReportBatch> {
                 if (report.hasGsm()) {
                     usableGsmCount++;
                 }
-                long imei = report.getImei();
-                if (!imeis.contains(imei)) {
-                    imeis.add(imei);
+                addSpreads(report, spreadSums);
+                if (imeis.add(report.getImei())) {
                     unitCount++;
                 }
             } else {
@@ -271,6 +293,7 @@ public abstract class ReportBatch implements Comparable<ReportBatch> {
             }
         } else if (report.getDateTime().isAfter(firstDate) && report.getDateTime().isBefore(lastDate)) {
             if (report.isPassable()) {
+                oldReports.add(report);
                 oldUsableCount++;
                 if (report.hasWcdma1()) {
                     oldUsableWcdma1Count++;
@@ -281,43 +304,49 @@ public abstract class ReportBatch implements Comparable<ReportBatch> {
                 if (report.hasGsm()) {
                     oldUsableGsmCount++;
                 }
+                addSpreads(report, oldSpreadSums);
             }
         }
     }
 
-    public List<Report> getValidNonPassedUsableReports() {
-        List<Report> nonPassedReports = new ArrayList<>();
-        for (Report report : reports) {
-            if (report.isPassable() && !report.isPassed()) {
-                if (report.getDateTime().isAfter(lastDate)) {
-                    nonPassedReports.add(report);
-                }
+    protected void addSpreads(Report report, float[] spreadSums) {
+        if (report.hasWcdma1()) {
+            addSpread(report, spreadSums, ReportValues.WCDMA1_TX, limits.getWcdma1TxExp());
+            addSpread(report, spreadSums, ReportValues.WCDMA1_RX, limits.getWcdma1RxExp());
+            if (report.hasWcdma8()) {
+                addSpread(report, spreadSums, ReportValues.WCDMA8_TX, limits.getWcdma8TxExp());
+                addSpread(report, spreadSums, ReportValues.WCDMA8_RX, limits.getWcdma8RxExp());
             }
         }
-        return nonPassedReports;
+        if (report.hasGsm()) {
+            addSpread(report, spreadSums, ReportValues.GSM900_TX, limits.getGsm900TxExp());
+            addSpread(report, spreadSums, ReportValues.GSM900_RX, limits.getGsm900RxExp());
+            addSpread(report, spreadSums, ReportValues.GSM1800_TX, limits.getGsm1800TxExp());
+            addSpread(report, spreadSums, ReportValues.GSM1800_RX, limits.getGsm1800RxExp());
+        }
     }
 
-    public List<Report> getValidUsableReports() {
-        List<Report> usableReports = new ArrayList<>();
-        for (Report report : reports) {
-            if (report.isPassable()) {
-                if (report.getDateTime().isAfter(lastDate)) {
-                    usableReports.add(report);
-                }
-            }
+    protected void addSpread(Report report, float[] spreadSums, int band, int expected) {
+        for (int i = 0; i < ReportValues.CHANNEL_COUNT; i++) {
+            spreadSums[band + i] += Math.abs(report.getValue(band, i) - expected);
         }
-        return usableReports;
+    }
+
+    public List<Report> getValidNonPassedUsableReports() {
+        return Collections.unmodifiableList(validNonPassedReports);
+    }
+
+    public List<Report> getValidUsableReports() {
+        return Collections.unmodifiableList(validReports);
     }
 
     public List<Report> getAllUsableReports() {
-        List<Report> usableReports = new ArrayList<>();
-        for (Report report : reports) {
-            if (report.isPassable()) {
-                usableReports.add(report);
-            }
+        if (sortedUsableReports == null) {
+            List<Report> sortedReports = new ArrayList<>(usableReports);
+            Collections.sort(sortedReports);
+            sortedUsableReports = Collections.unmodifiableList(sortedReports);
         }
-        Collections.sort(usableReports);
-        return usableReports;
+        return sortedUsableReports;
     }
 
     protected List<String> getWcdmaSpread() {
@@ -417,19 +446,20 @@ public abstract class ReportBatch implements Comparable<ReportBatch> {
     }
 
     public List<Report> getMarkedReports() {
-        List<Report> markedReports = new ArrayList<>();
-        for (Report report : reports) {
-            if (report.isPassable()) {
-                if (report.getDateTime().isAfter(lastDate)) {
-                    report.setMark(2);
-                    markedReports.add(report);
-                } else if (report.getDateTime().isAfter(firstDate) && report.getDateTime().isBefore(lastDate)) {
-                    report.setMark(1);
-                    markedReports.add(report);
-                }
+        if (markedReports == null) {
+            List<Report> sortedReports = new ArrayList<>(validReports.size() + oldReports.size());
+            for (Report report : validReports) {
+                report.setMark(2);
+                sortedReports.add(report);
+            }
+            for (Report report : oldReports) {
+                report.setMark(1);
+                sortedReports.add(report);
             }
+            Collections.sort(sortedReports);
+            markedReports = Collections.unmodifiableList(sortedReports);
+            sortedUsableReports = null;
         }
-        Collections.sort(markedReports);
         return markedReports;
     }
 
@@ -473,60 +503,32 @@ public abstract class ReportBatch implements Comparable<ReportBatch> {
         return value;
     }
 
-    protected List<Report> getValidReports() {
-        List<Report> validReports = new ArrayList<>();
-        for (Report report : reports) {
-            if (report.isPassable() && report.getDateTime().isAfter(lastDate)) {
-                validReports.add(report);
-            }
-        }
-        return validReports;
-    }
-
-    protected List<Report> getOldReports() {
-        List<Report> oldReports = new ArrayList<>();
-        for (Report report : reports) {
-            if (report.isPassable() && report.getDateTime().isAfter(firstDate) && report.getDateTime().isBefore(lastDate)) {
-                oldReports.add(report);
-            }
-        }
-        return oldReports;
+    public void calculateStatistics() {
+        calculateAverageSpreads();
+        calculateCombinedSpreads();
+        checkCondition();
     }
 
     public void calculateAverageSpreads() {
-        calculateAverageSpread(getValidReports(), usableWcdma1Count, usableWcdma8Count, usableGsmCount,
+        calculateAverageSpread(spreadSums, usableWcdma1Count, usableWcdma8Count, usableGsmCount,
                 wcdma1TxSpread, wcdma1RxSpread, wcdma8TxSpread, wcdma8RxSpread,
                 gsm900TxSpread, gsm900RxSpread, gsm1800TxSpread, gsm1800RxSpread);
-        calculateAverageSpread(getOldReports(), oldUsableWcdma1Count, oldUsableWcdma8Count, oldUsableGsmCount,
+        calculateAverageSpread(oldSpreadSums, oldUsableWcdma1Count, oldUsableWcdma8Count, oldUsableGsmCount,
                 oldWcdma1TxSpread, oldWcdma1RxSpread, oldWcdma8TxSpread, oldWcdma8RxSpread,
                 oldGsm900TxSpread, oldGsm900RxSpread, oldGsm1800TxSpread, oldGsm1800RxSpread);
     }
 
-    protected void calculateAverageSpread(List<Report> reports, int usableWcdma1Count, int usableWcdma8Count, int usableGsmCount,
+    protected void calculateAverageSpread(float[] spreadSums, int usableWcdma1Count, int usableWcdma8Count, int usableGsmCount,
                                           float[] wcdma1TxSpread, float[] wcdma1RxSpread, float[] wcdma8TxSpread, float[] wcdma8RxSpread,
                                           float[] gsm900TxSpread, float[] gsm900RxSpread, float[] gsm1800TxSpread, float[] gsm1800RxSpread) {
-        for (Report report : reports) {
-            if (report.hasWcdma1()) {
-                for (int i = 0; i < 3; i++) {
-                    wcdma1TxSpread[i] += Math.abs(report.getWcdma1TxValues()[i] - limits.getWcdma1TxExp());
-                    wcdma1RxSpread[i] += Math.abs(report.getWcdma1RxValues()[i] - limits.getWcdma1RxExp());
-                }
-                if (report.hasWcdma8()) {
-                    for (int i = 0; i < 3; i++) {
-                        wcdma8TxSpread[i] += Math.abs(report.getWcdma8TxValues()[i] - limits.getWcdma8TxExp());
-                        wcdma8RxSpread[i] += Math.abs(report.getWcdma8RxValues()[i] - limits.getWcdma8RxExp());
-                    }
-                }
-            }
-            if (report.hasGsm()) {
-                for (int i = 0; i < 3; i++) {
-                    gsm900TxSpread[i] += Math.abs(report.getGsm900TxValues()[i] - limits.getGsm900TxExp());
-                    gsm900RxSpread[i] += Math.abs(report.getGsm900RxValues()[i] - limits.getGsm900RxExp());
-                    gsm1800TxSpread[i] += Math.abs(report.getGsm1800TxValues()[i] - limits.getGsm1800TxExp());
-                    gsm1800RxSpread[i] += Math.abs(report.getGSM1800RxValues()[i] - limits.getGsm1800RxExp());
-                }
-            }
-        }
+        copySpreadSum(spreadSums, ReportValues.WCDMA1_TX, wcdma1TxSpread);
+        copySpreadSum(spreadSums, ReportValues.WCDMA1_RX, wcdma1RxSpread);
+        copySpreadSum(spreadSums, ReportValues.WCDMA8_TX, wcdma8TxSpread);
+        copySpreadSum(spreadSums, ReportValues.WCDMA8_RX, wcdma8RxSpread);
+        copySpreadSum(spreadSums, ReportValues.GSM900_TX, gsm900TxSpread);
+        copySpreadSum(spreadSums, ReportValues.GSM900_RX, gsm900RxSpread);
+        copySpreadSum(spreadSums, ReportValues.GSM1800_TX, gsm1800TxSpread);
+        copySpreadSum(spreadSums, ReportValues.GSM1800_RX, gsm1800RxSpread);
         if (usableWcdma1Count > 0) {
             for (int i = 0; i < 3; i++) {
                 wcdma1TxSpread[i] = wcdma1TxSpread[i] / usableWcdma1Count;
@@ -549,6 +551,10 @@ public abstract class ReportBatch implements Comparable<ReportBatch> {
         }
     }
 
+    protected void copySpreadSum(float[] spreadSums, int band, float[] spread) {
+        System.arraycopy(spreadSums, band, spread, 0, ReportValues.CHANNEL_COUNT);
+    }
+
     protected void initChannels() {
         channels = new String[24];
         channels[0] = ("   WCDMA B1 - TX Low: ");
@@ -3,31 +3,96 @@ package hu.open.assistant.rf.model.report.cache;
 import hu.open.assistant.rf.model.report.Report;
 import hu.open.assistant.rf.model.report.folder.ReportFolder;
 
-import java.util.ArrayList;
+import java.lang.ref.SoftReference;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * A logical cache containing processed logical reports. The reports are sorted in logical report folders within the
- * cache.
+ * cache, indexed by folder name. The cache has a report budget, when it is exceeded the least recently used folders are
+ * evicted. Evicted folders can be spilled to soft references, so they are only lost when the memory is needed. Hit, miss
+ * and eviction counts are available. Report folders can be read in parallel, so the cache access is synchronised.
  */
 public class ReportCache {
-    List<ReportFolder> reportFolders;
+    private final Map<String, ReportFolder> reportFolders;
+    private final Map<String, SoftReference<ReportFolder>> spilledFolders;
+    private final int maxReports;
+    private final boolean spill;
+    private int reportCount;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
 
-    public ReportCache() {
-        reportFolders = new ArrayList<>();
+    public ReportCache(int maxReports, boolean spill) {
+        this.maxReports = maxReports;
+        this.spill = spill;
+        reportFolders = new LinkedHashMap<>(16, 0.75f, true);
+        spilledFolders = new HashMap<>();
     }
 
-    public List<Report> getReports(String folder) {
-        for (ReportFolder reportFolder : reportFolders) {
-            if (folder.equals(reportFolder.getFolder())) {
-                return reportFolder.getReports();
+    public synchronized List<Report> getReports(String folder) {
+        ReportFolder reportFolder = reportFolders.get(folder);
+        if (reportFolder == null && spill) {
+            SoftReference<ReportFolder> reference = spilledFolders.remove(folder);
+            if (reference != null) {
+                reportFolder = reference.get();
+                if (reportFolder != null) {
+                    putFolder(reportFolder);
+                }
             }
         }
+        if (reportFolder != null) {
+            hitCount++;
+            return reportFolder.getReports();
+        }
+        missCount++;
         return null;
     }
 
-    public void addCache(String folder, List<Report> reports) {
-        reportFolders.add(new ReportFolder(folder, reports));
+    public synchronized void addCache(String folder, List<Report> reports) {
+        spilledFolders.remove(folder);
+        putFolder(new ReportFolder(folder, reports));
+    }
+
+    private void putFolder(ReportFolder reportFolder) {
+        ReportFolder oldFolder = reportFolders.put(reportFolder.getFolder(), reportFolder);
+        if (oldFolder != null) {
+            reportCount -= oldFolder.getReportCount();
+        }
+        reportCount += reportFolder.getReportCount();
+        evictFolders();
+    }
+
+    private void evictFolders() {
+        Iterator<ReportFolder> iterator = reportFolders.values().iterator();
+        while (reportCount > maxReports && reportFolders.size() > 1) {
+            ReportFolder eldestFolder = iterator.next();
+            iterator.remove();
+            reportCount -= eldestFolder.getReportCount();
+            evictionCount++;
+            if (spill) {
+                spilledFolders.values().removeIf(reference -> reference.get() == null);
+                spilledFolders.put(eldestFolder.getFolder(), new SoftReference<>(eldestFolder));
+            }
+        }
     }
 
+    public synchronized int getReportCount() {
+        return reportCount;
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
 }
@@ -23,4 +23,8 @@ public class ReportFolder {
     public List<Report> getReports() {
         return reports;
     }
+
+    public int getReportCount() {
+        return reports != null ? reports.size() : 0;
+    }
 }
\ No newline at end of file
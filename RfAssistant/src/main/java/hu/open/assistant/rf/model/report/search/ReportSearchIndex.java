@@ -0,0 +1,159 @@
+package hu.open.assistant.rf.model.report.search;
+
+import hu.open.assistant.rf.model.report.Report;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An in-memory search index over a fixed list of reports. IMEIs are indexed by their three digit substrings (trigrams),
+ * so a numeric search only checks the reports which contain the rarest trigram of the keyword. Names are grouped by their
+ * lowercase form, so a text search only checks the distinct names instead of every report. Both searches give the same
+ * result as a substring check on every report, in reverse order of the indexed list.
+ */
+public class ReportSearchIndex {
+
+    private static final int GRAM_LENGTH = 3;
+    private static final int GRAM_COUNT = 1000;
+
+    private final List<Report> reports;
+    private final String[] imeis;
+    private final int[][] imeiPostings;
+    private final Map<String, int[]> namePostings;
+
+    public ReportSearchIndex(List<Report> reports) {
+        this.reports = new ArrayList<>(reports);
+        imeis = new String[reports.size()];
+        for (int i = 0; i < imeis.length; i++) {
+            imeis[i] = String.valueOf(this.reports.get(i).getImei());
+        }
+        imeiPostings = indexImeis();
+        namePostings = indexNames();
+    }
+
+    /**
+     * Search for reports which have the keyword within their IMEI.
+     *
+     * @param keyword digits to search for
+     * @return matching reports in reverse order of the indexed list
+     */
+    public List<Report> searchImei(String keyword) {
+        List<Report> result = new ArrayList<>();
+        if (keyword.length() < GRAM_LENGTH) {
+            for (int i = imeis.length - 1; i >= 0; i--) {
+                if (imeis[i].contains(keyword)) {
+                    result.add(reports.get(i));
+                }
+            }
+            return result;
+        }
+        int[] candidates = null;
+        for (int i = 0; i + GRAM_LENGTH <= keyword.length(); i++) {
+            int gram = getGram(keyword, i);
+            if (gram < 0) {
+                return result;
+            }
+            if (candidates == null || imeiPostings[gram].length < candidates.length) {
+                candidates = imeiPostings[gram];
+            }
+        }
+        for (int i = candidates.length - 1; i >= 0; i--) {
+            if (imeis[candidates[i]].contains(keyword)) {
+                result.add(reports.get(candidates[i]));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Search for reports which have the keyword within their lowercase name.
+     *
+     * @param keyword lowercase text to search for
+     * @return matching reports in reverse order of the indexed list
+     */
+    public List<Report> searchName(String keyword) {
+        List<int[]> matches = new ArrayList<>();
+        int count = 0;
+        for (Map.Entry<String, int[]> entry : namePostings.entrySet()) {
+            if (entry.getKey().contains(keyword)) {
+                matches.add(entry.getValue());
+                count += entry.getValue().length;
+            }
+        }
+        int[] positions;
+        if (matches.size() == 1) {
+            positions = matches.get(0);
+        } else {
+            positions = new int[count];
+            int offset = 0;
+            for (int[] match : matches) {
+                System.arraycopy(match, 0, positions, offset, match.length);
+                offset += match.length;
+            }
+            Arrays.sort(positions);
+        }
+        List<Report> result = new ArrayList<>(positions.length);
+        for (int i = positions.length - 1; i >= 0; i--) {
+            result.add(reports.get(positions[i]));
+        }
+        return result;
+    }
+
+    private int[][] indexImeis() {
+        int[] counts = new int[GRAM_COUNT];
+        int[] lastPositions = new int[GRAM_COUNT];
+        Arrays.fill(lastPositions, -1);
+        for (int i = 0; i < imeis.length; i++) {
+            for (int j = 0; j + GRAM_LENGTH <= imeis[i].length(); j++) {
+                int gram = getGram(imeis[i], j);
+                if (gram >= 0 && lastPositions[gram] != i) {
+                    lastPositions[gram] = i;
+                    counts[gram]++;
+                }
+            }
+        }
+        int[][] postings = new int[GRAM_COUNT][];
+        for (int gram = 0; gram < GRAM_COUNT; gram++) {
+            postings[gram] = new int[counts[gram]];
+            counts[gram] = 0;
+        }
+        Arrays.fill(lastPositions, -1);
+        for (int i = 0; i < imeis.length; i++) {
+            for (int j = 0; j + GRAM_LENGTH <= imeis[i].length(); j++) {
+                int gram = getGram(imeis[i], j);
+                if (gram >= 0 && lastPositions[gram] != i) {
+                    lastPositions[gram] = i;
+                    postings[gram][counts[gram]++] = i;
+                }
+            }
+        }
+        return postings;
+    }
+
+    private Map<String, int[]> indexNames() {
+        Map<String, List<Integer>> positions = new LinkedHashMap<>();
+        for (int i = 0; i < reports.size(); i++) {
+            positions.computeIfAbsent(reports.get(i).getName().toLowerCase(), name -> new ArrayList<>()).add(i);
+        }
+        Map<String, int[]> postings = new LinkedHashMap<>();
+        for (Map.Entry<String, List<Integer>> entry : positions.entrySet()) {
+            postings.put(entry.getKey(), entry.getValue().stream().mapToInt(Integer::intValue).toArray());
+        }
+        return postings;
+    }
+
+    private int getGram(String text, int start) {
+        int gram = 0;
+        for (int i = start; i < start + GRAM_LENGTH; i++) {
+            char character = text.charAt(i);
+            if (character < '0' || character > '9') {
+                return -1;
+            }
+            gram = gram * 10 + character - '0';
+        }
+        return gram;
+    }
+}
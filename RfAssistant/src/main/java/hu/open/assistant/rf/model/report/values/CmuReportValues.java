@@ -5,4 +5,11 @@ package hu.open.assistant.rf.model.report.values;
  */
 public class CmuReportValues extends ReportValues {
 
-}
\ No newline at end of file
+    public CmuReportValues() {
+        this(new double[VALUE_COUNT], 0);
+    }
+
+    public CmuReportValues(double[] store, int offset) {
+        super(store, offset);
+    }
+}
@@ -5,76 +5,85 @@ package hu.open.assistant.rf.model.report.values;
  * from multiple LTE bands.
  */
 public class CmwReportValues extends ReportValues {
-    private final double[] lte1TxValues = new double[3];
-    private final double[] lte1RxValues = new double[3];
-    private final double[] lte3TxValues = new double[3];
-    private final double[] lte3RxValues = new double[3];
-    private final double[] lte7TxValues = new double[3];
-    private final double[] lte7RxValues = new double[3];
-    private final double[] lte20TxValues = new double[3];
-    private final double[] lte20RxValues = new double[3];
+    public static final int LTE1_TX = 24;
+    public static final int LTE1_RX = 27;
+    public static final int LTE3_TX = 30;
+    public static final int LTE3_RX = 33;
+    public static final int LTE7_TX = 36;
+    public static final int LTE7_RX = 39;
+    public static final int LTE20_TX = 42;
+    public static final int LTE20_RX = 45;
+    public static final int VALUE_COUNT = 48;
+
+    public CmwReportValues() {
+        this(new double[VALUE_COUNT], 0);
+    }
+
+    public CmwReportValues(double[] store, int offset) {
+        super(store, offset);
+    }
 
     public double[] getLte1TxValues() {
-        return lte1TxValues;
+        return getValues(LTE1_TX);
     }
 
     public void setLte1TxValue(double value, int index) {
-        lte1TxValues[index] = value;
+        setValue(LTE1_TX, index, value);
     }
 
     public double[] getLte1RxValues() {
-        return lte1RxValues;
+        return getValues(LTE1_RX);
     }
 
     public void setLte1RxValue(double value, int index) {
-        lte1RxValues[index] = value;
+        setValue(LTE1_RX, index, value);
     }
 
     public double[] getLte3TxValues() {
-        return lte3TxValues;
+        return getValues(LTE3_TX);
     }
 
     public void setLte3TxValue(double value, int index) {
-        lte3TxValues[index] = value;
+        setValue(LTE3_TX, index, value);
     }
 
     public double[] getLte3RxValues() {
-        return lte3RxValues;
+        return getValues(LTE3_RX);
     }
 
     public void setLte3RxValue(double value, int index) {
-        lte3RxValues[index] = value;
+        setValue(LTE3_RX, index, value);
     }
 
     public double[] getLte7TxValues() {
-        return lte7TxValues;
+        return getValues(LTE7_TX);
     }
 
     public void setLte7TxValue(double value, int index) {
-        lte7TxValues[index] = value;
+        setValue(LTE7_TX, index, value);
     }
 
     public double[] getLte7RxValues() {
-        return lte7RxValues;
+        return getValues(LTE7_RX);
     }
 
     public void setLte7RxValue(double value, int index) {
-        lte7RxValues[index] = value;
+        setValue(LTE7_RX, index, value);
     }
 
     public double[] getLte20TxValues() {
-        return lte20TxValues;
+        return getValues(LTE20_TX);
     }
 
     public void setLte20TxValue(double value, int index) {
-        lte20TxValues[index] = value;
+        setValue(LTE20_TX, index, value);
     }
 
     public double[] getLte20RxValues() {
-        return lte20RxValues;
+        return getValues(LTE20_RX);
     }
 
     public void setLte20RxValue(double value, int index) {
-        lte20RxValues[index] = value;
+        setValue(LTE20_RX, index, value);
     }
 }
@@ -1,81 +1,119 @@
 package hu.open.assistant.rf.model.report.values;
 
+import java.util.Objects;
+
 /**
  * Stores and holds together values for a generic RF test report. There are 3 values for LOW, MID and HIGH channels on
- * multiple GSM and WCDMA bands, both on TX (transmit) and RX (receive) side.
+ * multiple GSM and WCDMA bands, both on TX (transmit) and RX (receive) side. The values are kept in a flat double store
+ * indexed by band and channel. The store can be owned by the values object or shared between many reports, in which
+ * case the values object is a view starting at the given offset.
  */
 public abstract class ReportValues {
-    private final double[] wcdma1TxValues = new double[3];
-    private final double[] wcdma1RxValues = new double[3];
-    private final double[] wcdma8TxValues = new double[3];
-    private final double[] wcdma8RxValues = new double[3];
-    private final double[] gsm900TxValues = new double[3];
-    private final double[] gsm900RxValues = new double[3];
-    private final double[] gsm1800TxValues = new double[3];
-    private final double[] gsm1800RxValues = new double[3];
+    public static final int CHANNEL_COUNT = 3;
+    public static final int WCDMA1_TX = 0;
+    public static final int WCDMA1_RX = 3;
+    public static final int WCDMA8_TX = 6;
+    public static final int WCDMA8_RX = 9;
+    public static final int GSM900_TX = 12;
+    public static final int GSM900_RX = 15;
+    public static final int GSM1800_TX = 18;
+    public static final int GSM1800_RX = 21;
+    public static final int VALUE_COUNT = 24;
+
+    protected final double[] store;
+    protected final int offset;
+
+    protected ReportValues(double[] store, int offset) {
+        this.store = store;
+        this.offset = offset;
+    }
+
+    public double getValue(int band, int index) {
+        return store[offset + band + index];
+    }
+
+    public void setValue(int band, int index, double value) {
+        store[offset + band + Objects.checkIndex(index, CHANNEL_COUNT)] = value;
+    }
+
+    public boolean hasValues(int band) {
+        for (int i = 0; i < CHANNEL_COUNT; i++) {
+            if (store[offset + band + i] != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    protected double[] getValues(int band) {
+        double[] values = new double[CHANNEL_COUNT];
+        for (int i = 0; i < CHANNEL_COUNT; i++) {
+            values[i] = store[offset + band + i];
+        }
+        return values;
+    }
 
     public double[] getWcdma1TxValues() {
-        return wcdma1TxValues;
+        return getValues(WCDMA1_TX);
     }
 
     public void setWcdma1TxValue(double value, int index) {
-        wcdma1TxValues[index] = value;
+        setValue(WCDMA1_TX, index, value);
     }
 
     public double[] getWcdma1RxValues() {
-        return wcdma1RxValues;
+        return getValues(WCDMA1_RX);
     }
 
     public void setWcdma1RxValue(double value, int index) {
-        wcdma1RxValues[index] = value;
+        setValue(WCDMA1_RX, index, value);
     }
 
     public double[] getWcdma8TxValues() {
-        return wcdma8TxValues;
+        return getValues(WCDMA8_TX);
     }
 
     public void setWcdma8TxValue(double value, int index) {
-        wcdma8TxValues[index] = value;
+        setValue(WCDMA8_TX, index, value);
     }
 
     public double[] getWcdma8RxValues() {
-        return wcdma8RxValues;
+        return getValues(WCDMA8_RX);
     }
 
     public void setWcdma8RxValue(double value, int index) {
-        wcdma8RxValues[index] = value;
+        setValue(WCDMA8_RX, index, value);
     }
 
     public double[] getGsm900TxValues() {
-        return gsm900TxValues;
+        return getValues(GSM900_TX);
     }
 
     public void setGsm900TxValue(double value, int index) {
-        gsm900TxValues[index] = value;
+        setValue(GSM900_TX, index, value);
     }
 
     public double[] getGsm900RxValues() {
-        return gsm900RxValues;
+        return getValues(GSM900_RX);
     }
 
     public void setGsm900RxValue(double value, int index) {
-        gsm900RxValues[index] = value;
+        setValue(GSM900_RX, index, value);
     }
 
     public double[] getGsm1800TxValues() {
-        return gsm1800TxValues;
+        return getValues(GSM1800_TX);
     }
 
     public void setGsm1800TxValue(double value, int index) {
-        gsm1800TxValues[index] = value;
+        setValue(GSM1800_TX, index, value);
     }
 
     public double[] getGsm1800RxValues() {
-        return gsm1800RxValues;
+        return getValues(GSM1800_RX);
     }
 
     public void setGsm1800RxValue(double value, int index) {
-        gsm1800RxValues[index] = value;
+        setValue(GSM1800_RX, index, value);
     }
 }
-
@@ -23,7 +23,7 @@ public class CmuStation extends Station {
             if (isReportBatchNeeded(report)) {
                 CmuReportBatch batch = new CmuReportBatch(report.getType(), report.getManufacturer(), limits, report.getSerial(), profile);
                 batch.addReport(report);
-                reportBatches.add(batch);
+                addReportBatch(batch);
             }
         }
     }
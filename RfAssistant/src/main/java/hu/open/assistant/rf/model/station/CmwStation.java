@@ -30,7 +30,7 @@ public class CmwStation extends Station {
             if (isReportBatchNeeded(report)) {
                 CmwReportBatch batch = new CmwReportBatch(report.getType(), report.getManufacturer(), limits, report.getSerial(), profile);
                 batch.addReport(report);
-                reportBatches.add(batch);
+                addReportBatch(batch);
             }
         }
     }
@@ -9,7 +9,9 @@ import hu.open.assistant.rf.model.report.limits.ReportLimits;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * A logical representation of a generic RF tester station. It stores the stations attenuation database and the related
@@ -26,6 +28,7 @@ public abstract class Station {
     protected float combinedTxSpread;
     protected float combinedRxSpread;
     protected List<ReportBatch> reportBatches;
+    protected Map<String, ReportBatch> reportBatchesByName;
     protected Database database;
     protected ReportLimits limits;
     protected double scriptVersion;
@@ -38,6 +41,7 @@ public abstract class Station {
         this.limits = limits;
         this.scriptVersion = scriptVersion;
         reportBatches = new ArrayList<>();
+        reportBatchesByName = new HashMap<>();
     }
 
     public Database getDatabase() {
@@ -45,15 +49,24 @@ public abstract class Station {
     }
 
     protected boolean isReportBatchNeeded(Report report) {
-        for (ReportBatch batch : reportBatches) {
-            if (batch.getName().equals(report.getName())) {
-                batch.addReport(report);
-                return false;
-            }
+        ReportBatch batch = reportBatchesByName.get(report.getName());
+        if (batch != null) {
+            batch.addReport(report);
+            return false;
         }
         return true;
     }
 
+    protected void addReportBatch(ReportBatch batch) {
+        reportBatches.add(batch);
+        reportBatchesByName.putIfAbsent(batch.getName(), batch);
+    }
+
+    public void removeReportBatch(ReportBatch batch) {
+        reportBatches.remove(batch);
+        reportBatchesByName.remove(batch.getName(), batch);
+    }
+
     public boolean isEmpty() {
         return reportBatches.isEmpty();
     }
@@ -88,11 +101,7 @@ public abstract class Station {
     }
 
     public void initStation() {
-        for (ReportBatch reportBatch : reportBatches) {
-            reportBatch.calculateAverageSpreads();
-            reportBatch.calculateCombinedSpreads();
-            reportBatch.checkCondition();
-        }
+        reportBatches.parallelStream().forEach(ReportBatch::calculateStatistics);
         calculatePercentage();
         calculateSpread();
     }